@@ -0,0 +1,73 @@
+/**
+ * ============================================================
+ * Availability Benchmark - Deporturnos API
+ * ============================================================
+ *
+ *  Objective:
+ *   Measure GET /api/turnos/disponibles/{id}/cancha latency at a fixed
+ *   request rate, so runs against different turno table sizes can be
+ *   compared (see k6/sql/seed_turnos.sql).
+ *
+ *  Configuration:
+ *   - Executor: constant-arrival-rate
+ *   - RATE: requests per second (default 50)
+ *   - CANCHAS: number of court ids to spread requests over (default 4)
+ *   - TURNOS_ROWS: free-form label for the current table size, added as a tag
+ *
+ * ============================================================
+ */
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+import { ensureAuth } from '../helpers/actions.js';
+import { USERS } from '../helpers/data.js';
+import { BASE_URL } from '../helpers/config.js';
+
+export const tDisponibles = new Trend('turnos_disponibles_duration', true);
+
+const RATE = parseInt(__ENV.RATE || '50');
+const CANCHAS = parseInt(__ENV.CANCHAS || '4');
+const TURNOS_ROWS = __ENV.TURNOS_ROWS || 'unknown';
+
+export function setup() {
+  const user = USERS[0];
+  const auth = ensureAuth(user.email, user.password);
+  if (!auth || !auth.token) {
+    throw new Error(`Login failed for ${user.email}`);
+  }
+  return { token: auth.token };
+}
+
+export default function(data) {
+  const canchaId = Math.floor(Math.random() * CANCHAS) + 1;
+
+  const fecha = new Date();
+  fecha.setDate(fecha.getDate() + Math.floor(Math.random() * 30));
+  const fechaFormateada = fecha.toISOString().split('T')[0];
+
+  const res = http.get(`${BASE_URL}/api/turnos/disponibles/${canchaId}/cancha?fecha=${fechaFormateada}`, {
+    headers: { 'Authorization': `Bearer ${data.token}` },
+    tags: { endpoint: 'turnos_disponibles', turnos_rows: TURNOS_ROWS },
+  });
+
+  tDisponibles.add(res.timings.duration, { turnos_rows: TURNOS_ROWS });
+  check(res, { 'disponibles status 200': (r) => r.status === 200 });
+}
+
+export const options = {
+  scenarios: {
+    availability: {
+      executor: 'constant-arrival-rate',
+      rate: RATE,
+      timeUnit: '1s',
+      duration: '1m',
+      preAllocatedVUs: 20,
+      maxVUs: 100,
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    turnos_disponibles_duration: ['p(95)<100'],
+  },
+};
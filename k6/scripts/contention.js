@@ -0,0 +1,81 @@
+/**
+ * ============================================================
+ * Booking Contention Test - Deporturnos API
+ * ============================================================
+ *
+ *  Objective:
+ *   Fire many simultaneous POST /api/reservas/byuser requests at the
+ *   same turno and verify that exactly one of them is confirmed while
+ *   every other attempt gets a 409 Conflict. The rate of
+ *   reserva_intentos in the summary is the booking throughput
+ *   (attempts per second, winner and conflicts alike).
+ *
+ *  Configuration:
+ *   - Executor: per-vu-iterations (one attempt per VU, all at once)
+ *   - TURNO_ID: id of a DISPONIBLE turno to fight over (required)
+ *   - VUS: number of concurrent attempts (default 200)
+ *
+ * ============================================================
+ */
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+import { ensureAuth } from '../helpers/actions.js';
+import { USERS } from '../helpers/data.js';
+import { BASE_URL } from '../helpers/config.js';
+
+export const reservasConfirmadas = new Counter('reservas_confirmadas');
+export const reservasRechazadas = new Counter('reservas_rechazadas');
+export const reservaIntentos = new Counter('reserva_intentos');
+export const tReserva = new Trend('reserva_contention_duration', true);
+
+const TURNO_ID = __ENV.TURNO_ID;
+const VUS = parseInt(__ENV.VUS || '200');
+
+export function setup() {
+  if (!TURNO_ID) {
+    throw new Error('TURNO_ID is required');
+  }
+  const tokens = USERS.map((user) => {
+    const auth = ensureAuth(user.email, user.password);
+    if (!auth || !auth.token) {
+      throw new Error(`Login failed for ${user.email}`);
+    }
+    return auth.token;
+  });
+  return { tokens };
+}
+
+export default function(data) {
+  const token = data.tokens[__VU % data.tokens.length];
+
+  const res = http.post(`${BASE_URL}/api/reservas/byuser`, JSON.stringify({ turnoId: parseInt(TURNO_ID) }), {
+    headers: { 'Authorization': `Bearer ${token}`, 'Content-Type': 'application/json' },
+    tags: { endpoint: 'reserva_contention' },
+  });
+
+  reservaIntentos.add(1);
+  tReserva.add(res.timings.duration);
+  if (res.status === 200) {
+    reservasConfirmadas.add(1);
+  } else if (res.status === 409) {
+    reservasRechazadas.add(1);
+  }
+  check(res, { 'reserva confirmed or conflict': (r) => r.status === 200 || r.status === 409 });
+}
+
+export const options = {
+  scenarios: {
+    contention: {
+      executor: 'per-vu-iterations',
+      vus: VUS,
+      iterations: 1,
+      maxDuration: '1m',
+    },
+  },
+  thresholds: {
+    reservas_confirmadas: ['count==1'],
+    checks: ['rate==1'],
+  },
+};
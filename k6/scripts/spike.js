@@ -10,6 +10,8 @@
  *  Configuration:
  *   - Executor: ramping-vus
  *   - Stages: Fast ramp up -> Short peak -> Fast ramp down
+ *   - PEAK_VUS env var sets the peak (default 50). Use a high value
+ *     to compare platform vs virtual thread mode (THREAD_MODE label).
  *
  *  Author: Joaquin Olivero & Jules
  * ============================================================
@@ -22,6 +24,8 @@ import { customerFlow } from '../scenarios/customer_flow.js';
 // Re-export metrics
 export { failsLogin, failsSignup, failsCrear, failsCancelar } from '../scenarios/customer_flow.js';
 
+const PEAK_VUS = parseInt(__ENV.PEAK_VUS || '50');
+
 export function setup() {
   const loggedUsers = USERS.map(user => {
     const res = ensureAuth(user.email, user.password);
@@ -37,7 +41,7 @@ export function setup() {
     }
   }).filter(u => u !== null);
 
-  console.log(`✅ Setup complete: ${loggedUsers.length} users logged in.`);
+  console.log(`✅ Setup complete: ${loggedUsers.length} users logged in (thread mode: ${__ENV.THREAD_MODE || 'unknown'}).`);
   return { users: loggedUsers };
 }
 
@@ -55,8 +59,8 @@ export const options = {
       startVUs: 0,
       stages: [
         { duration: '10s', target: 5 },   // Warm up
-        { duration: '20s', target: 50 },  // Spike! (Rapid increase)
-        { duration: '1m', target: 50 },   // Sustain spike
+        { duration: '20s', target: PEAK_VUS },  // Spike! (Rapid increase)
+        { duration: '1m', target: PEAK_VUS },   // Sustain spike
         { duration: '10s', target: 0 },   // Recovery
       ],
       gracefulRampDown: '30s',
@@ -0,0 +1,41 @@
+-- ============================================================
+-- Seed de volumen para el benchmark de disponibilidad
+-- ============================================================
+--
+--  Crea canchas de prueba y una grilla de turnos (08:00 a 23:00, 60 min)
+--  para cada una, centrada en la fecha actual. Con los valores por defecto
+--  genera ~2.3M de filas en la tabla turno.
+--
+--  Uso:
+--   psql -d deporturnos -v canchas=200 -v dias=730 -f k6/sql/seed_turnos.sql
+--
+--  Correr el benchmark antes y después de cada seed para comparar latencias.
+-- ============================================================
+
+\if :{?canchas}
+\else
+  \set canchas 200
+\endif
+
+\if :{?dias}
+\else
+  \set dias 730
+\endif
+
+INSERT INTO cancha (nombre, tipo, precio_hora, disponibilidad, descripcion, deporte, deleted)
+SELECT 'Bench ' || g, 'F5', 15000, true, 'Cancha generada para benchmark', 0, false
+FROM generate_series(1, :canchas) AS g;
+
+INSERT INTO turno (fecha, hora_inicio, hora_fin, estado, cancha_id, deleted)
+SELECT d::date,
+       make_time(h, 0, 0),
+       make_time(h + 1, 0, 0),
+       CASE WHEN random() < 0.3 THEN 'RESERVADO' ELSE 'DISPONIBLE' END,
+       c.id,
+       false
+FROM cancha c
+CROSS JOIN generate_series(current_date - (:dias / 2), current_date + (:dias / 2), interval '1 day') AS d
+CROSS JOIN generate_series(8, 22) AS h
+WHERE c.descripcion = 'Cancha generada para benchmark';
+
+ANALYZE turno;
@@ -0,0 +1,93 @@
+package com.project.deporturnos.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Deporte;
+import com.project.deporturnos.entity.domain.Reserva;
+import com.project.deporturnos.entity.domain.ReservaState;
+import com.project.deporturnos.entity.domain.Rol;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.domain.Usuario;
+import com.project.deporturnos.entity.dto.ReservaResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de convertir una página de 100 reservas (con usuario, turno y cancha) a
+ * ReservaResponseDTO: el mapper escrito a mano contra ObjectMapper.convertValue, configurado como
+ * el de Spring Boot. La asignación de memoria por operación sale del perfilador gc
+ * (gc.alloc.rate.norm), que el bloque jmh de build.gradle ya activa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReservaMapperBenchmark {
+
+    private static final int FILAS = 100;
+
+    private List<Reserva> pagina;
+    private ObjectMapper objectMapper;
+    private ReservaMapper reservaMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reservaMapper = new ReservaMapper(new UsuarioMapper(), new TurnoMapper(new CanchaMapper()));
+
+        pagina = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            Cancha cancha = new Cancha();
+            cancha.setId((long) (i % 8));
+            cancha.setNombre("Cancha " + i % 8);
+            cancha.setTipo("5");
+            cancha.setPrecioHora(new BigDecimal("15000.00"));
+            cancha.setDisponibilidad(true);
+            cancha.setDeporte(Deporte.FUTBOL);
+
+            Turno turno = new Turno();
+            turno.setId((long) i);
+            turno.setFecha(LocalDate.of(2024, 10, 1).plusDays(i / 8));
+            turno.setHoraInicio(LocalTime.of(18, 0));
+            turno.setHoraFin(LocalTime.of(19, 0));
+            turno.setEstado(TurnoState.RESERVADO);
+            turno.setCancha(cancha);
+
+            Usuario usuario = new Usuario((long) i, "Cliente " + i, "cliente" + i + "@deporturnos.com", "hash",
+                    "1155550000", Rol.CLIENTE, true);
+
+            pagina.add(new Reserva((long) i, turno.getFecha(), usuario, turno, ReservaState.CONFIRMADA, false));
+        }
+    }
+
+    @Benchmark
+    public List<ReservaResponseDTO> convertValue() {
+        List<ReservaResponseDTO> dtos = new ArrayList<>(FILAS);
+        for (Reserva reserva : pagina) {
+            dtos.add(objectMapper.convertValue(reserva, ReservaResponseDTO.class));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ReservaResponseDTO> mapper() {
+        List<ReservaResponseDTO> dtos = new ArrayList<>(FILAS);
+        for (Reserva reserva : pagina) {
+            dtos.add(reservaMapper.toResponseDTO(reserva));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,129 @@
+package com.project.deporturnos.security;
+
+import com.project.deporturnos.entity.domain.Rol;
+import com.project.deporturnos.entity.domain.Usuario;
+import com.project.deporturnos.repository.ITokenRevocacionRepository;
+import com.project.deporturnos.repository.IUsuarioRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Proxy;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por request de autenticar un JWT: el filtro actual (un parseo, clave armada al iniciar)
+ * contra el camino anterior (clave derivada y token parseado tres veces por request), y el
+ * principal resuelto por loadUserByUsername (con la caché) contra el modo por claims. El viaje a
+ * la base de un fallo de caché no se mide acá: eso lo muestran las pruebas de k6.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String EMAIL = "cliente@deporturnos.com";
+
+    private String secreto;
+    private String token;
+    private Usuario usuario;
+    private JwtService jwtService;
+    private String tokenSesion;
+    private JwtAuthenticationFilter filtro;
+    private JwtAuthenticationFilter filtroClaims;
+
+    @Setup
+    public void setUp() {
+        secreto = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+        jwtService = new JwtService(secreto, 3_600_000);
+        token = jwtService.getToken(EMAIL, Map.of("roles", List.of("CLIENTE")));
+        usuario = new Usuario(2L, "Cliente", EMAIL, "hash", null, Rol.CLIENTE, true);
+        tokenSesion = jwtService.getToken(usuario);
+        PrincipalCache principalCache = new PrincipalCache(repositorio(), new SimpleMeterRegistry(), 60, 10_000);
+        filtro = new JwtAuthenticationFilter(jwtService, principalCache, revocaciones("principal"));
+        filtroClaims = new JwtAuthenticationFilter(jwtService, principalCache, revocaciones("claims"));
+    }
+
+    @Benchmark
+    public Object filtro() throws Exception {
+        return filtrar(filtro, token);
+    }
+
+    @Benchmark
+    public Object filtroClaims() throws Exception {
+        return filtrar(filtroClaims, tokenSesion);
+    }
+
+    private Object filtrar(JwtAuthenticationFilter filtro, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        try {
+            filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public void parseoUnico(Blackhole blackhole) {
+        Claims claims = jwtService.parseClaims(token);
+        blackhole.consume(jwtService.isTokenValid(claims, usuario));
+    }
+
+    // Lo que hacía el filtro antes: subject, luego subject y vencimiento, cada uno con clave y parser nuevos
+    @Benchmark
+    public void parseoAnterior(Blackhole blackhole) {
+        String username = parsear(token).getSubject();
+        boolean valido = parsear(token).getSubject().equals(usuario.getUsername())
+                && !parsear(token).getExpiration().before(new Date());
+        blackhole.consume(username);
+        blackhole.consume(valido);
+    }
+
+    // Solo responde findByEmail: con la caché caliente el filtro no vuelve a llamarlo
+    private IUsuarioRepository repositorio() {
+        return (IUsuarioRepository) Proxy.newProxyInstance(IUsuarioRepository.class.getClassLoader(),
+                new Class<?>[]{IUsuarioRepository.class},
+                (proxy, metodo, argumentos) -> "findByEmail".equals(metodo.getName()) ? Optional.of(usuario) : null);
+    }
+
+    // Sin revocaciones cargadas: el benchmark no llega a tocar el repositorio ni las transacciones
+    private TokenRevocationService revocaciones(String modo) {
+        return new TokenRevocationService(vacio(ITokenRevocacionRepository.class), vacio(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 3_600_000, modo);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T vacio(Class<T> tipo) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, argumentos) -> null);
+    }
+
+    private Claims parsear(String jwt) {
+        Key clave = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secreto));
+        return Jwts.parserBuilder().setSigningKey(clave).build().parseClaimsJws(jwt).getBody();
+    }
+}
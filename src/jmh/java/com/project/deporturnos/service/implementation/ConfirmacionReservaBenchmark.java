@@ -0,0 +1,56 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.utils.QRCodeGenerator;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Confirmaciones por segundo que puede armar EmailOutboxDispatcher: el PNG del código QR en memoria
+ * y el mensaje MIME completo con ese adjunto, serializado como saldría por SMTP pero a un stream
+ * nulo. Cada operación usa otra reserva para que el QR no se repita.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConfirmacionReservaBenchmark {
+
+    private static final String CUERPO = "<html><body><h2>¡Gracias por reservar tu cancha con DeporTurnos!</h2>"
+            + "<p>Muestre el siguiente código QR al canchero para acceder a la cancha.</p></body></html>";
+
+    private EmailService emailService;
+    private long reservaId;
+
+    @Setup
+    public void setUp() {
+        emailService = new EmailService(new JavaMailSenderImpl());
+    }
+
+    private String qr() {
+        return "http://localhost:5173/validate-reserva/" + (++reservaId);
+    }
+
+    @Benchmark
+    public byte[] qrPng() throws Exception {
+        return QRCodeGenerator.generateQRCodePng(qr(), 200, 200);
+    }
+
+    @Benchmark
+    public MimeMessage mensajeConQr() throws Exception {
+        byte[] qrPng = QRCodeGenerator.generateQRCodePng(qr(), 200, 200);
+        MimeMessage mensaje = emailService.createMessage("cliente@deporturnos.com", "Reserva Confirmada ⚽", CUERPO,
+                "codigoQR.png", qrPng, MediaType.IMAGE_PNG_VALUE);
+        mensaje.writeTo(OutputStream.nullOutputStream());
+        return mensaje;
+    }
+}
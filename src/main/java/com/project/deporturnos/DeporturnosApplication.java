@@ -3,14 +3,12 @@ package com.project.deporturnos;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
 @SpringBootApplication(exclude = SecurityAutoConfiguration.class)
 @EnableScheduling
-@EnableAsync
 public class DeporturnosApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,147 @@
+package com.project.deporturnos.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Deporte;
+import com.project.deporturnos.entity.dto.CanchaResponseDTO;
+import com.project.deporturnos.mapper.CanchaMapper;
+import com.project.deporturnos.repository.ICanchaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catálogo de canchas en memoria, ya serializado a JSON y con su ETag: el listado completo y las
+ * canchas disponibles de cada deporte. El catálogo cambia pocas veces al mes, así que las
+ * lecturas no consultan la base ni vuelven a serializar, y con If-None-Match ni siquiera envían
+ * el cuerpo.
+ * <p>
+ * Se arma completo en la primera lectura y se reemplaza entero: alta, modificación y baja de una
+ * cancha lo invalidan al confirmarse la transacción y la lectura siguiente lo reconstruye. Un
+ * catálogo que se estaba armando cuando llegó una invalidación se entrega pero no se guarda.
+ * Los cambios hechos en otra instancia no llegan como invalidación: el catálogo también vence a
+ * los {@code app.cancha-catalog.ttl-seconds}, que es el límite de desfase entre instancias.
+ */
+@Component
+@Slf4j
+public class CanchaCatalog {
+
+    // Las listas son de solo lectura y se comparten entre requests: no modificar sus DTOs
+    public record Vista(List<CanchaResponseDTO> canchas, byte[] json, String etag) {
+    }
+
+    private record Snapshot(long version, long armado, Vista todas, Map<Deporte, Vista> disponibles, Vista vacia) {
+    }
+
+    private final ICanchaRepository canchaRepository;
+    private final CanchaMapper canchaMapper;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public CanchaCatalog(ICanchaRepository canchaRepository, CanchaMapper canchaMapper, ObjectMapper objectMapper,
+                         @Value("${app.cancha-catalog.ttl-seconds:60}") long ttlSegundos) {
+        this.canchaRepository = canchaRepository;
+        this.canchaMapper = canchaMapper;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = Duration.ofSeconds(ttlSegundos).toNanos();
+    }
+
+    public Vista todas() {
+        return actual().todas();
+    }
+
+    // Canchas no eliminadas y habilitadas del deporte; un deporte desconocido devuelve una lista vacía
+    public Vista disponibles(String deporte) {
+        Snapshot actual = actual();
+        try {
+            return actual.disponibles().getOrDefault(Deporte.valueOf(deporte.toUpperCase()), actual.vacia());
+        } catch (IllegalArgumentException e) {
+            return actual.vacia();
+        }
+    }
+
+    public void invalidar() {
+        Runnable aplicar = () -> {
+            version.incrementAndGet();
+            snapshot = null;
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar.run();
+                }
+            });
+        } else {
+            aplicar.run();
+        }
+    }
+
+    private Snapshot actual() {
+        Snapshot actual = snapshot;
+        if (vigente(actual, version.get())) {
+            return actual;
+        }
+
+        synchronized (this) {
+            long vigente = version.get();
+            actual = snapshot;
+            if (vigente(actual, vigente)) {
+                return actual;
+            }
+
+            Snapshot nuevo = construir(vigente);
+            if (version.get() == vigente) {
+                snapshot = nuevo;
+            }
+            return nuevo;
+        }
+    }
+
+    private boolean vigente(Snapshot actual, long vigente) {
+        return actual != null && actual.version() == vigente && System.nanoTime() - actual.armado() < ttlNanos;
+    }
+
+    private Snapshot construir(long vigente) {
+        List<Cancha> canchas = canchaRepository.findAllByDeletedFalse();
+
+        List<CanchaResponseDTO> todas = new ArrayList<>(canchas.size());
+        Map<Deporte, List<CanchaResponseDTO>> porDeporte = new EnumMap<>(Deporte.class);
+        for (Cancha cancha : canchas) {
+            CanchaResponseDTO dto = canchaMapper.toResponseDTO(cancha);
+            todas.add(dto);
+            if (cancha.isDisponibilidad() && cancha.getDeporte() != null) {
+                porDeporte.computeIfAbsent(cancha.getDeporte(), d -> new ArrayList<>()).add(dto);
+            }
+        }
+
+        Map<Deporte, Vista> disponibles = new EnumMap<>(Deporte.class);
+        porDeporte.forEach((deporte, lista) -> disponibles.put(deporte, vista(lista)));
+
+        log.info("Catálogo de canchas armado: {} canchas", todas.size());
+        return new Snapshot(vigente, System.nanoTime(), vista(todas), disponibles, vista(List.of()));
+    }
+
+    private Vista vista(List<CanchaResponseDTO> canchas) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(canchas);
+            return new Vista(List.copyOf(canchas), json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo de canchas", e);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.project.deporturnos.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.entity.dto.CambioTurnoDTO;
+import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.exception.StreamCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Suscripciones SSE a la disponibilidad de una cancha en una fecha. Al suscribirse se envía la
+ * lista de turnos disponibles y después un evento {@code turno} por cada cambio confirmado de un
+ * turno de ese día, con su estado final. Si cambió algo de toda la cancha (datos, plantillas o la
+ * reconstrucción del índice) se envía {@code recargar} y el cliente vuelve a pedir la lista.
+ * <p>
+ * Las conexiones ociosas no ocupan hilos: cada suscriptor tiene una cola acotada que drenan unos
+ * pocos hilos del {@code sseExecutor}. Un cliente que no consume a tiempo pierde sus cambios
+ * pendientes y recibe {@code recargar}, en lugar de acumular eventos en memoria. Un latido
+ * periódico mantiene viva la conexión a través de proxies y detecta los clientes que se fueron.
+ * <p>
+ * La escritura al socket bloquea si el cliente dejó de leer, así que cada envío corre en un hilo
+ * virtual propio y el drenado lo espera como máximo {@code send-timeout-ms}. Si no terminó, el
+ * suscriptor se da de baja y el hilo del {@code sseExecutor} sigue con los demás: un cliente trabado
+ * no frena la entrega al resto.
+ */
+@Component
+@Slf4j
+public class DisponibilidadStream implements TurnoAvailabilityIndex.Oyente {
+
+    // Los eventos fijos se arman una sola vez: el Set que devuelve build() no se puede volver a armar
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> RECARGAR =
+            SseEmitter.event().name("recargar").data("{}", MediaType.APPLICATION_JSON).build();
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> LATIDO =
+            SseEmitter.event().comment("latido").build();
+
+    private final Executor executor;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int capacidadCola;
+    private final int maximoSuscriptores;
+    private final long envioTimeoutMs;
+
+    // Un hilo virtual por envío: el que queda trabado con un cliente lento no ocupa un hilo del pool
+    private final ExecutorService escritor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-envio-", 0).factory());
+
+    private final ConcurrentHashMap<TurnoAvailabilityIndex.DiaCancha, Set<Suscriptor>> suscriptores =
+            new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final Counter desbordes;
+    private final Counter lentos;
+
+    public DisponibilidadStream(TurnoAvailabilityIndex availabilityIndex,
+                                @Qualifier("sseExecutor") Executor executor,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.availability.sse.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${app.availability.sse.queue-capacity:32}") int capacidadCola,
+                                @Value("${app.availability.sse.max-subscribers:20000}") int maximoSuscriptores,
+                                @Value("${app.availability.sse.send-timeout-ms:5000}") long envioTimeoutMs) {
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.capacidadCola = capacidadCola;
+        this.maximoSuscriptores = maximoSuscriptores;
+        this.envioTimeoutMs = envioTimeoutMs;
+
+        Gauge.builder("deporturnos.disponibilidad.sse.suscriptores", total, AtomicInteger::get)
+                .description("Suscripciones SSE abiertas a la disponibilidad")
+                .register(meterRegistry);
+        this.desbordes = Counter.builder("deporturnos.disponibilidad.sse.desbordes")
+                .description("Suscriptores que no consumieron a tiempo y recibieron recargar")
+                .register(meterRegistry);
+        this.lentos = Counter.builder("deporturnos.disponibilidad.sse.lentos")
+                .description("Suscriptores dados de baja porque un envío superó send-timeout-ms")
+                .register(meterRegistry);
+
+        availabilityIndex.escuchar(this);
+    }
+
+    /**
+     * Abre una suscripción. La lista inicial se arma después de registrar al suscriptor: los
+     * cambios que lleguen mientras tanto quedan en cola detrás de ella y, como cada uno trae el
+     * estado final del turno, aplicarlos de nuevo no hace daño.
+     */
+    public SseEmitter suscribir(Long canchaId, LocalDate fecha, Supplier<List<TurnoResponseDTO>> disponibles) {
+        if (total.incrementAndGet() > maximoSuscriptores) {
+            total.decrementAndGet();
+            throw new StreamCapacityExceededException("No hay lugar para más suscripciones en este momento. Intente nuevamente más tarde.");
+        }
+
+        SseEmitter emitter = nuevoEmitter();
+        Suscriptor suscriptor = new Suscriptor(new TurnoAvailabilityIndex.DiaCancha(canchaId, fecha), emitter);
+        emitter.onCompletion(() -> quitar(suscriptor));
+        emitter.onTimeout(() -> quitar(suscriptor));
+        emitter.onError(e -> quitar(suscriptor));
+        suscriptores.compute(suscriptor.dia, (dia, actuales) -> {
+            Set<Suscriptor> conjunto = actuales != null ? actuales : ConcurrentHashMap.newKeySet();
+            conjunto.add(suscriptor);
+            return conjunto;
+        });
+
+        try {
+            suscriptor.iniciar(SseEmitter.event().name("disponibles")
+                    .data(json(disponibles.get()), MediaType.APPLICATION_JSON).build());
+        } catch (RuntimeException e) {
+            quitar(suscriptor);
+            throw e;
+        }
+        return emitter;
+    }
+
+    @Override
+    public void turnoCambiado(Long canchaId, CambioTurnoDTO cambio) {
+        Set<Suscriptor> delDia = suscriptores.get(new TurnoAvailabilityIndex.DiaCancha(canchaId, cambio.getFecha()));
+        if (delDia == null || delDia.isEmpty()) {
+            return;
+        }
+
+        // Se serializa una vez para todos los suscriptores del día
+        Set<ResponseBodyEmitter.DataWithMediaType> evento;
+        try {
+            evento = SseEmitter.event().name("turno").data(json(cambio), MediaType.APPLICATION_JSON).build();
+        } catch (RuntimeException e) {
+            evento = RECARGAR;
+        }
+        for (Suscriptor suscriptor : delDia) {
+            suscriptor.encolar(evento);
+        }
+    }
+
+    @Override
+    public void canchaCambiada(Long canchaId) {
+        suscriptores.forEach((dia, delDia) -> {
+            if (dia.canchaId().equals(canchaId)) {
+                delDia.forEach(suscriptor -> suscriptor.encolar(RECARGAR));
+            }
+        });
+    }
+
+    @Override
+    public void reconstruido() {
+        suscriptores.values().forEach(delDia -> delDia.forEach(suscriptor -> suscriptor.encolar(RECARGAR)));
+    }
+
+    // Solo a quien no tiene nada pendiente: un suscriptor con eventos en cola ya va a recibir algo
+    @Scheduled(fixedRateString = "${app.availability.sse.heartbeat-ms:20000}")
+    public void latir() {
+        suscriptores.values().forEach(delDia -> delDia.forEach(suscriptor -> {
+            if (suscriptor.pendientes.isEmpty()) {
+                suscriptor.encolar(LATIDO);
+            }
+        }));
+    }
+
+    int getSuscriptores() {
+        return total.get();
+    }
+
+    SseEmitter nuevoEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    @PreDestroy
+    public void detener() {
+        escritor.shutdownNow();
+    }
+
+    private void quitar(Suscriptor suscriptor) {
+        AtomicBoolean quitado = new AtomicBoolean();
+        suscriptores.computeIfPresent(suscriptor.dia, (dia, actuales) -> {
+            quitado.set(actuales.remove(suscriptor));
+            return actuales.isEmpty() ? null : actuales;
+        });
+        if (quitado.get()) {
+            total.decrementAndGet();
+        }
+    }
+
+    private String json(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento de disponibilidad", e);
+        }
+    }
+
+    private final class Suscriptor {
+
+        private final TurnoAvailabilityIndex.DiaCancha dia;
+        private final SseEmitter emitter;
+        private final LinkedBlockingDeque<Set<ResponseBodyEmitter.DataWithMediaType>> pendientes;
+
+        // En true mientras hay un drenado programado o corriendo; arranca tomado hasta tener la lista inicial
+        private final AtomicBoolean drenando = new AtomicBoolean(true);
+
+        // Dado de baja por un envío que no terminó a tiempo: no se le vuelve a escribir
+        private volatile boolean trabado;
+
+        private Suscriptor(TurnoAvailabilityIndex.DiaCancha dia, SseEmitter emitter) {
+            this.dia = dia;
+            this.emitter = emitter;
+            this.pendientes = new LinkedBlockingDeque<>(capacidadCola);
+        }
+
+        private void iniciar(Set<ResponseBodyEmitter.DataWithMediaType> inicial) {
+            if (!pendientes.offerFirst(inicial)) {
+                descartarPendientes();
+            }
+            drenando.set(false);
+            programar();
+        }
+
+        private void encolar(Set<ResponseBodyEmitter.DataWithMediaType> evento) {
+            if (!pendientes.offer(evento)) {
+                descartarPendientes();
+            }
+            programar();
+        }
+
+        private void descartarPendientes() {
+            pendientes.clear();
+            pendientes.offer(RECARGAR);
+            desbordes.increment();
+        }
+
+        private void programar() {
+            if (trabado || !drenando.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drenar);
+            } catch (RejectedExecutionException e) {
+                // Lo vuelve a programar el próximo evento o latido
+                drenando.set(false);
+            }
+        }
+
+        private void drenar() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> evento;
+                while ((evento = pendientes.poll()) != null) {
+                    enviar(evento);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente cerró la conexión o el emitter ya terminó; el contenedor cierra el request
+                log.debug("Suscripción SSE cerrada en {}: {}", dia, e.getMessage());
+                quitar(this);
+                return;
+            } catch (TimeoutException e) {
+                // La escritura trabada termina sola cuando el contenedor venza el socket
+                log.debug("Suscripción SSE en {} dada de baja: un envío superó {} ms", dia, envioTimeoutMs);
+                trabado = true;
+                pendientes.clear();
+                lentos.increment();
+                quitar(this);
+                return;
+            } finally {
+                drenando.set(false);
+            }
+
+            if (!pendientes.isEmpty()) {
+                programar();
+            }
+        }
+
+        private void enviar(Set<ResponseBodyEmitter.DataWithMediaType> evento) throws IOException, TimeoutException {
+            Future<?> envio = escritor.submit(() -> {
+                emitter.send(evento);
+                return null;
+            });
+            try {
+                envio.get(envioTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                envio.cancel(true);
+                throw e;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                envio.cancel(true);
+                throw new IllegalStateException("Envío SSE interrumpido", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package com.project.deporturnos.availability;
+
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.CambioTurnoDTO;
+import com.project.deporturnos.entity.dto.CanchaSimpleDTO;
+import com.project.deporturnos.entity.dto.FranjaHorariaDTO;
+import com.project.deporturnos.entity.dto.TurnoDisponibilidadDTO;
+import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.repository.ITurnoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Índice en memoria del estado de los turnos de cada cancha, por día, dentro de una ventana
+ * móvil de {@code app.availability.horizon-days} días a partir de hoy.
+ * <p>
+ * Cada día de cada cancha se guarda como arreglos primitivos ordenados por hora de inicio más
+ * un bitset con los turnos DISPONIBLES. Los días son inmutables: cada cambio reemplaza el día
+ * completo, así que las lecturas no toman locks ni consultan la base.
+ * <p>
+ * Se reconstruye desde {@link ITurnoRepository} al iniciar y todas las noches. Los servicios
+ * notifican cada cambio de estado y el índice lo aplica recién cuando la transacción confirma.
+ * Cada cambio de un turno lleva un sello tomado antes del commit, con la fila ya escrita y
+ * bloqueada: los afterCommit pueden correr en cualquier orden, pero un cambio con un sello más
+ * viejo que el último aplicado a ese turno se descarta.
+ * <p>
+ * La consulta de la reconstrucción corre sin bloquear a nadie. Los cambios aplicados mientras
+ * tanto se anotan y se vuelven a aplicar sobre el índice nuevo al reemplazar el anterior.
+ * <p>
+ * Los {@link Oyente}s registrados reciben cada cambio ya aplicado.
+ */
+@Component
+@Slf4j
+public class TurnoAvailabilityIndex {
+
+    /**
+     * Recibe los cambios de disponibilidad recién confirmados. Se llama desde el hilo que confirmó
+     * la transacción y con el índice tomado: no debe bloquear.
+     */
+    public interface Oyente {
+
+        void turnoCambiado(Long canchaId, CambioTurnoDTO cambio);
+
+        // Cambió la disponibilidad de la cancha en cualquier fecha (datos de la cancha o plantillas)
+        void canchaCambiada(Long canchaId);
+
+        void reconstruido();
+    }
+
+    private final ITurnoRepository turnoRepository;
+    private final int horizonteDias;
+
+    // Las mutaciones toman el read lock (pueden ser concurrentes entre sí); la reconstrucción el write lock
+    private final ReentrantReadWriteLock reconstruccion = new ReentrantReadWriteLock();
+
+    // Sello del último cambio aplicado a cada turno
+    private final ConcurrentHashMap<Long, Long> sellos = new ConcurrentHashMap<>();
+    // Cambios aplicados desde que empezó la consulta de la reconstrucción en curso, o null si no hay una
+    private volatile List<Runnable> anotados;
+    private long inicioReconstruccionAnterior;
+
+    private volatile Map<Long, CanchaSlots> canchas = new ConcurrentHashMap<>();
+    private volatile LocalDate desde;
+    private volatile LocalDate hasta;
+    private volatile boolean listo = false;
+
+    // De acá salen los sellos de los cambios
+    private final AtomicLong reloj = new AtomicLong();
+
+    private final List<Oyente> oyentes = new CopyOnWriteArrayList<>();
+
+    public TurnoAvailabilityIndex(ITurnoRepository turnoRepository,
+                                  @Value("${app.availability.horizon-days:120}") int horizonteDias) {
+        this.turnoRepository = turnoRepository;
+        this.horizonteDias = horizonteDias;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        reconstruir();
+    }
+
+    // Corre de madrugada para mover la ventana un día y corregir cualquier desvío
+    @Scheduled(cron = "${app.availability.rebuild-cron:0 0 4 * * *}")
+    public synchronized void reconstruir() {
+        LocalDate hoy = LocalDate.now();
+        LocalDate limite = hoy.plusDays(horizonteDias);
+
+        long inicio;
+        reconstruccion.writeLock().lock();
+        try {
+            anotados = Collections.synchronizedList(new ArrayList<>());
+            inicio = reloj.get();
+        } finally {
+            reconstruccion.writeLock().unlock();
+        }
+
+        try {
+            // Fuera del lock: los commits que llegan mientras tanto se aplican y se anotan
+            List<TurnoDisponibilidadDTO> turnos = turnoRepository.findVigentesByFechaBetween(hoy, limite);
+            Map<Long, CanchaSlots> nuevo = agrupar(turnos);
+
+            reconstruccion.writeLock().lock();
+            try {
+                // La consulta pudo no ver los cambios anotados; cada uno trae el estado final, repetirlos no hace daño
+                this.canchas = nuevo;
+                anotados.forEach(Runnable::run);
+                this.desde = hoy;
+                this.hasta = limite;
+                this.listo = true;
+
+                // Un afterCommit no tarda una noche: los sellos anteriores a la reconstrucción pasada ya no sirven
+                long vencidos = inicioReconstruccionAnterior;
+                sellos.values().removeIf(sello -> sello < vencidos);
+                inicioReconstruccionAnterior = inicio;
+
+                avisar(Oyente::reconstruido);
+            } finally {
+                reconstruccion.writeLock().unlock();
+            }
+            log.info("Índice de disponibilidad reconstruido: {} turnos, {} canchas, {} a {}",
+                    turnos.size(), nuevo.size(), hoy, limite);
+        } catch (RuntimeException e) {
+            log.error("No se pudo reconstruir el índice de disponibilidad: {}", e.getMessage());
+        } finally {
+            anotados = null;
+        }
+    }
+
+    private static Map<Long, CanchaSlots> agrupar(List<TurnoDisponibilidadDTO> turnos) {
+        Map<Long, Map<LocalDate, List<TurnoDisponibilidadDTO>>> agrupados = new HashMap<>();
+        Map<Long, CanchaSimpleDTO> datosCanchas = new HashMap<>();
+        for (TurnoDisponibilidadDTO turno : turnos) {
+            agrupados.computeIfAbsent(turno.getCanchaId(), id -> new HashMap<>())
+                    .computeIfAbsent(turno.getFecha(), f -> new ArrayList<>())
+                    .add(turno);
+            datosCanchas.putIfAbsent(turno.getCanchaId(), new CanchaSimpleDTO(
+                    turno.getCanchaId(), turno.getCanchaNombre(), turno.getCanchaTipo(),
+                    precioEntero(turno.getCanchaPrecioHora())));
+        }
+
+        Map<Long, CanchaSlots> nuevo = new ConcurrentHashMap<>();
+        agrupados.forEach((canchaId, dias) -> {
+            CanchaSlots canchaSlots = new CanchaSlots(datosCanchas.get(canchaId));
+            dias.forEach((fecha, turnosDelDia) -> canchaSlots.dias.put(fecha, DiaSlots.de(turnosDelDia)));
+            nuevo.put(canchaId, canchaSlots);
+        });
+        return nuevo;
+    }
+
+    /**
+     * Turnos DISPONIBLES de una cancha en una fecha, o vacío si la fecha está fuera de la ventana
+     * (o el índice todavía no está listo) y hay que consultar la base.
+     */
+    public Optional<List<TurnoResponseDTO>> getDisponibles(Long canchaId, LocalDate fecha) {
+        if (!cubre(fecha)) {
+            return Optional.empty();
+        }
+
+        CanchaSlots canchaSlots = canchas.get(canchaId);
+        if (canchaSlots == null) {
+            return Optional.of(new ArrayList<>());
+        }
+
+        DiaSlots dia = canchaSlots.dias.get(fecha);
+        if (dia == null) {
+            return Optional.of(new ArrayList<>());
+        }
+
+        CanchaSimpleDTO cancha = canchaSlots.cancha;
+        List<TurnoResponseDTO> disponibles = new ArrayList<>(dia.cantidadDisponibles());
+        for (int i = 0; i < dia.ids.length; i++) {
+            if (dia.disponible(i)) {
+                disponibles.add(new TurnoResponseDTO(
+                        dia.ids[i],
+                        fecha,
+                        LocalTime.ofSecondOfDay(dia.inicio(i)),
+                        LocalTime.ofSecondOfDay(dia.fin(i)),
+                        TurnoState.DISPONIBLE,
+                        new CanchaSimpleDTO(cancha.getId(), cancha.getNombre(), cancha.getTipo(), cancha.getPrecioHora())));
+            }
+        }
+        return Optional.of(disponibles);
+    }
+
+    /**
+     * Franjas ocupadas por todos los turnos guardados de la cancha en esa fecha (en cualquier
+     * estado), o vacío si hay que consultar la base.
+     */
+    public Optional<List<FranjaHorariaDTO>> getFranjas(Long canchaId, LocalDate fecha) {
+        if (!cubre(fecha)) {
+            return Optional.empty();
+        }
+
+        CanchaSlots canchaSlots = canchas.get(canchaId);
+        DiaSlots dia = canchaSlots != null ? canchaSlots.dias.get(fecha) : null;
+        if (dia == null) {
+            return Optional.of(new ArrayList<>());
+        }
+
+        List<FranjaHorariaDTO> franjas = new ArrayList<>(dia.ids.length);
+        for (int i = 0; i < dia.ids.length; i++) {
+            franjas.add(new FranjaHorariaDTO(LocalTime.ofSecondOfDay(dia.inicio(i)), LocalTime.ofSecondOfDay(dia.fin(i))));
+        }
+        return Optional.of(franjas);
+    }
+
+    public void escuchar(Oyente oyente) {
+        oyentes.add(oyente);
+    }
+
+    public boolean cubre(LocalDate fecha) {
+        return listo && fecha != null && !fecha.isBefore(desde) && !fecha.isAfter(hasta);
+    }
+
+    /**
+     * Registra el estado actual de un turno. Los turnos borrados salen del índice.
+     */
+    public void registrar(Turno turno) {
+        LongConsumer cambio = cambioPara(turno);
+        if (cambio != null) {
+            despuesDelCommit(sello -> mutar(() -> cambio.accept(sello)));
+        }
+    }
+
+    /**
+     * Igual que {@link #registrar(Turno)} pero con una sola sincronización para todo el lote.
+     */
+    public void registrarTodos(Collection<Turno> turnos) {
+        List<LongConsumer> cambios = new ArrayList<>(turnos.size());
+        for (Turno turno : turnos) {
+            LongConsumer cambio = cambioPara(turno);
+            if (cambio != null) {
+                cambios.add(cambio);
+            }
+        }
+
+        if (!cambios.isEmpty()) {
+            despuesDelCommit(sello -> mutar(() -> cambios.forEach(cambio -> cambio.accept(sello))));
+        }
+    }
+
+    // Toma una foto del turno ahora; la entidad puede seguir cambiando antes del commit
+    private LongConsumer cambioPara(Turno turno) {
+        if (turno == null || turno.getId() == null || turno.getCancha() == null || turno.getFecha() == null) {
+            return null;
+        }
+
+        Long turnoId = turno.getId();
+        Long canchaId = turno.getCancha().getId();
+        LocalDate fecha = turno.getFecha();
+        boolean vigente = !turno.isDeleted() && turno.getEstado() != TurnoState.BORRADO;
+        boolean disponible = turno.getEstado() == TurnoState.DISPONIBLE;
+        long tiempo = vigente ? DiaSlots.tiempo(turno.getHoraInicio(), turno.getHoraFin()) : 0L;
+        CanchaSimpleDTO cancha = aCanchaSimple(turno.getCancha());
+        CambioTurnoDTO cambio = new CambioTurnoDTO(turnoId, fecha, turno.getHoraInicio(), turno.getHoraFin(),
+                vigente && disponible);
+
+        Runnable datos = vigente
+                ? () -> canchas.computeIfAbsent(canchaId, id -> new CanchaSlots(cancha))
+                        .dias.compute(fecha, (f, dia) -> (dia == null ? DiaSlots.VACIO : dia)
+                                .con(turnoId, tiempo, disponible))
+                : () -> quitar(canchaId, fecha, turnoId);
+
+        return sello -> {
+            if (aplicarTurno(turnoId, sello, datos)) {
+                avisar(oyente -> oyente.turnoCambiado(canchaId, cambio));
+            }
+        };
+    }
+
+    /**
+     * Quita un turno de la posición que ocupaba antes de moverse de cancha o de fecha.
+     */
+    public void eliminar(Long canchaId, LocalDate fecha, Long turnoId) {
+        if (canchaId == null || fecha == null || turnoId == null) {
+            return;
+        }
+        despuesDelCommit(sello -> mutar(() -> {
+            if (aplicarTurno(turnoId, sello, () -> quitar(canchaId, fecha, turnoId))) {
+                avisar(oyente -> oyente.turnoCambiado(canchaId, new CambioTurnoDTO(turnoId, fecha, null, null, false)));
+            }
+        }));
+    }
+
+    public void registrarCancha(Cancha cancha) {
+        if (cancha == null || cancha.getId() == null) {
+            return;
+        }
+
+        Long canchaId = cancha.getId();
+        if (cancha.isDeleted()) {
+            despuesDelCommit(sello -> mutar(() -> {
+                aplicar(() -> canchas.remove(canchaId));
+                avisarCancha(canchaId);
+            }));
+            return;
+        }
+
+        CanchaSimpleDTO datos = aCanchaSimple(cancha);
+        despuesDelCommit(sello -> mutar(() -> {
+            aplicar(() -> {
+                CanchaSlots canchaSlots = canchas.get(canchaId);
+                if (canchaSlots != null) {
+                    canchaSlots.cancha = datos;
+                }
+            });
+            avisarCancha(canchaId);
+        }));
+    }
+
+    /**
+     * Cambió algo de la cancha que el índice no guarda pero altera su disponibilidad en cualquier
+     * fecha (sus plantillas recurrentes). Al confirmarse corre la limpieza indicada y avisa a los
+     * oyentes.
+     */
+    public void invalidarCancha(Long canchaId, Runnable limpieza) {
+        if (canchaId == null) {
+            return;
+        }
+        despuesDelCommit(sello -> mutar(() -> {
+            limpieza.run();
+            avisarCancha(canchaId);
+        }));
+    }
+
+    private void avisarCancha(Long canchaId) {
+        avisar(oyente -> oyente.canchaCambiada(canchaId));
+    }
+
+    // Un oyente que falla no puede dejar el cambio a medio aplicar
+    private void avisar(Consumer<Oyente> aviso) {
+        for (Oyente oyente : oyentes) {
+            try {
+                aviso.accept(oyente);
+            } catch (RuntimeException e) {
+                log.warn("Falló el aviso de un cambio de disponibilidad: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void quitar(Long canchaId, LocalDate fecha, Long turnoId) {
+        CanchaSlots canchaSlots = canchas.get(canchaId);
+        if (canchaSlots != null) {
+            canchaSlots.dias.computeIfPresent(fecha, (f, dia) -> dia.sin(turnoId));
+        }
+    }
+
+    // Aplica el cambio de un turno salvo que ya se haya aplicado uno con un sello posterior
+    private boolean aplicarTurno(Long turnoId, long sello, Runnable datos) {
+        AtomicBoolean aplicado = new AtomicBoolean();
+        sellos.compute(turnoId, (id, ultimo) -> {
+            if (ultimo != null && ultimo > sello) {
+                return ultimo;
+            }
+            aplicar(datos);
+            aplicado.set(true);
+            return sello;
+        });
+        return aplicado.get();
+    }
+
+    private void aplicar(Runnable datos) {
+        datos.run();
+        List<Runnable> enCurso = anotados;
+        if (enCurso != null) {
+            enCurso.add(datos);
+        }
+    }
+
+    private void mutar(Runnable cambio) {
+        reconstruccion.readLock().lock();
+        try {
+            cambio.run();
+        } finally {
+            reconstruccion.readLock().unlock();
+        }
+    }
+
+    /**
+     * Un cambio que no llega a confirmarse nunca debe verse en el índice. El sello se toma antes
+     * del commit y después de un flush: con la fila ya bloqueada, dos transacciones que cambian
+     * el mismo turno se sellan en el mismo orden en que confirman.
+     */
+    private void despuesDelCommit(LongConsumer accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private long sello;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    turnoRepository.flush();
+                    sello = reloj.incrementAndGet();
+                }
+
+                @Override
+                public void afterCommit() {
+                    accion.accept(sello);
+                }
+            });
+        } else {
+            accion.accept(reloj.incrementAndGet());
+        }
+    }
+
+    private static CanchaSimpleDTO aCanchaSimple(Cancha cancha) {
+        return new CanchaSimpleDTO(cancha.getId(), cancha.getNombre(), cancha.getTipo(),
+                precioEntero(cancha.getPrecioHora()));
+    }
+
+    private static int precioEntero(BigDecimal precio) {
+        return precio != null ? precio.intValue() : 0;
+    }
+
+    record DiaCancha(Long canchaId, LocalDate fecha) {
+    }
+
+    private static final class CanchaSlots {
+        private volatile CanchaSimpleDTO cancha;
+        private final ConcurrentHashMap<LocalDate, DiaSlots> dias = new ConcurrentHashMap<>();
+
+        private CanchaSlots(CanchaSimpleDTO cancha) {
+            this.cancha = cancha;
+        }
+    }
+
+    /**
+     * Turnos de una cancha en un día. Inmutable: ids y horarios ordenados por inicio y un bit
+     * por turno que indica si está DISPONIBLE.
+     */
+    static final class DiaSlots {
+
+        static final DiaSlots VACIO = new DiaSlots(new long[0], new long[0], new long[0]);
+
+        final long[] ids;
+        // segundo del día de inicio en los 32 bits altos, de fin en los bajos
+        final long[] tiempos;
+        final long[] disponibles;
+
+        private DiaSlots(long[] ids, long[] tiempos, long[] disponibles) {
+            this.ids = ids;
+            this.tiempos = tiempos;
+            this.disponibles = disponibles;
+        }
+
+        static DiaSlots de(List<TurnoDisponibilidadDTO> turnos) {
+            DiaSlots dia = VACIO;
+            for (TurnoDisponibilidadDTO turno : turnos) {
+                dia = dia.con(turno.getId(), tiempo(turno.getHoraInicio(), turno.getHoraFin()),
+                        turno.getEstado() == TurnoState.DISPONIBLE);
+            }
+            return dia;
+        }
+
+        static long tiempo(LocalTime inicio, LocalTime fin) {
+            return ((long) inicio.toSecondOfDay() << 32) | fin.toSecondOfDay();
+        }
+
+        int inicio(int i) {
+            return (int) (tiempos[i] >>> 32);
+        }
+
+        int fin(int i) {
+            return (int) tiempos[i];
+        }
+
+        boolean disponible(int i) {
+            return (disponibles[i >>> 6] & (1L << i)) != 0;
+        }
+
+        int cantidadDisponibles() {
+            int total = 0;
+            for (long palabra : disponibles) {
+                total += Long.bitCount(palabra);
+            }
+            return total;
+        }
+
+        int indiceDe(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        DiaSlots con(long id, long tiempo, boolean disponible) {
+            int actual = indiceDe(id);
+            if (actual >= 0 && tiempos[actual] == tiempo) {
+                if (disponible(actual) == disponible) {
+                    return this;
+                }
+                long[] bits = disponibles.clone();
+                bits[actual >>> 6] ^= 1L << actual;
+                return new DiaSlots(ids, tiempos, bits);
+            }
+
+            DiaSlots base = actual >= 0 ? sin(id) : this;
+            int n = base.ids.length;
+            int pos = 0;
+            while (pos < n && base.tiempos[pos] <= tiempo) {
+                pos++;
+            }
+
+            long[] nuevosIds = new long[n + 1];
+            long[] nuevosTiempos = new long[n + 1];
+            long[] bits = new long[(n + 64) >>> 6];
+            for (int i = 0, j = 0; i <= n; i++) {
+                boolean libre;
+                if (i == pos) {
+                    nuevosIds[i] = id;
+                    nuevosTiempos[i] = tiempo;
+                    libre = disponible;
+                } else {
+                    nuevosIds[i] = base.ids[j];
+                    nuevosTiempos[i] = base.tiempos[j];
+                    libre = base.disponible(j);
+                    j++;
+                }
+                if (libre) {
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+            return new DiaSlots(nuevosIds, nuevosTiempos, bits);
+        }
+
+        DiaSlots sin(long id) {
+            int actual = indiceDe(id);
+            if (actual < 0) {
+                return this;
+            }
+
+            int n = ids.length - 1;
+            long[] nuevosIds = new long[n];
+            long[] nuevosTiempos = new long[n];
+            long[] bits = new long[(n + 63) >>> 6];
+            for (int i = 0, j = 0; i <= n; i++) {
+                if (i == actual) {
+                    continue;
+                }
+                nuevosIds[j] = ids[i];
+                nuevosTiempos[j] = tiempos[i];
+                if (disponible(i)) {
+                    bits[j >>> 6] |= 1L << j;
+                }
+                j++;
+            }
+            return new DiaSlots(nuevosIds, nuevosTiempos, bits);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.deporturnos.configuration;
+
+import com.project.deporturnos.utils.ExecutorMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors con nombre, cola acotada y métricas para cada carga de trabajo en segundo plano.
+ * Reemplazan al executor por defecto de Spring Boot, cuya cola no tiene límite: ante un pico
+ * las tareas se acumulaban en memoria sin que nada lo mostrara.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfiguration {
+
+    /**
+     * Executor de {@code @Async} y del MVC asíncrono (por eso conserva los nombres del de Boot).
+     * Con la cola llena la tarea corre en el hilo que la pidió: frena al productor en vez de perderla.
+     * En modo de hilos virtuales sus hilos son virtuales; la cola y el límite se mantienen.
+     */
+    @Primary
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(MeterRegistry meterRegistry,
+                                                          @Value("${app.executors.async.threads:8}") int hilos,
+                                                          @Value("${app.executors.async.queue-capacity:500}") int capacidadCola,
+                                                          @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        ThreadPoolTaskExecutor executor = crear("async", hilos, capacidadCola,
+                new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+        if (hilosVirtuales) {
+            executor.setThreadFactory(Thread.ofVirtual().name("async-", 1).factory());
+        }
+        return executor;
+    }
+
+    /**
+     * Executor del envío de emails del outbox. Cada tarea drena lotes pendientes; si está saturado
+     * la tarea se descarta, porque los emails siguen guardados y los toma la próxima pasada.
+     * Usa hilos de plataforma aun en modo virtual: Jakarta Mail hace la E/S SMTP dentro de bloques
+     * synchronized, que fijarían el hilo virtual a su carrier durante todo el envío.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emailExecutor(MeterRegistry meterRegistry,
+                                                @Value("${app.executors.email.threads:2}") int hilos,
+                                                @Value("${app.executors.email.queue-capacity:2}") int capacidadCola) {
+        return crear("email", hilos, capacidadCola, new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+    }
+
+    /**
+     * Executor que escribe los eventos SSE de disponibilidad. Cada tarea drena la cola de un
+     * suscriptor; las conexiones ociosas no ocupan hilos. Si está saturado la tarea se descarta y
+     * la cola del suscriptor se vuelve a programar con el próximo evento o latido.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor sseExecutor(MeterRegistry meterRegistry,
+                                              @Value("${app.availability.sse.threads:2}") int hilos,
+                                              @Value("${app.availability.sse.executor-queue-capacity:20000}") int capacidadCola) {
+        return crear("sse", hilos, capacidadCola, new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+    }
+
+    static ThreadPoolTaskExecutor crear(String nombre, int hilos, int capacidadCola,
+                                        RejectedExecutionHandler politica, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        ExecutorMetrics metricas = new ExecutorMetrics(meterRegistry, nombre,
+                executor::getQueueSize, executor::getActiveCount);
+
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix(nombre + "-");
+        executor.setTaskDecorator(metricas::medir);
+        executor.setRejectedExecutionHandler(metricas.contarRechazos(politica));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.deporturnos.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource que limita cuántas conexiones pueden estar tomadas a la vez. Con hilos virtuales
+ * puede haber miles de requests pidiendo conexión al mismo tiempo: en vez de amontonarlos sobre
+ * Hikari esperan acá, en orden de llegada, y el permiso se devuelve al cerrar la conexión.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permisos;
+    private final int maximo;
+    private final long esperaMaximaMs;
+    private final AtomicLong rechazos = new AtomicLong();
+
+    public ConcurrencyLimitedDataSource(DataSource dataSource, int maximo, long esperaMaximaMs) {
+        super(dataSource);
+        this.permisos = new Semaphore(maximo, true);
+        this.maximo = maximo;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    public int getDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    public int getEsperando() {
+        return permisos.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("deporturnos.jdbc.limitador.esperando", permisos, Semaphore::getQueueLength)
+                .description("Hilos esperando permiso para tomar una conexión")
+                .register(meterRegistry);
+        Gauge.builder("deporturnos.jdbc.limitador.en.uso", permisos, p -> maximo - p.availablePermits())
+                .description("Conexiones tomadas a través del limitador")
+                .register(meterRegistry);
+        FunctionCounter.builder("deporturnos.jdbc.limitador.rechazos", rechazos, AtomicLong::get)
+                .description("Pedidos de conexión que agotaron la espera")
+                .register(meterRegistry);
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                rechazos.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "No hay conexiones disponibles tras esperar " + esperaMaximaMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    // El permiso se devuelve una sola vez, aunque la conexión se cierre más de una
+    private Connection liberarAlCerrar(Connection conexion) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    switch (metodo.getName()) {
+                        case "equals":
+                            return proxy == argumentos[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if ("close".equals(metodo.getName()) && liberada.compareAndSet(false, true)) {
+                        try {
+                            conexion.close();
+                        } finally {
+                            permisos.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexion, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -5,12 +5,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
-import org.springframework.scheduling.annotation.EnableAsync;
 
 import java.util.Properties;
 
 @Configuration
-@EnableAsync
 public class EmailConfiguration {
 
     @Value("${spring.mail.username}")
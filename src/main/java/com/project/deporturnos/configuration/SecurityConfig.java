@@ -1,6 +1,7 @@
 package com.project.deporturnos.configuration;
 
 import com.project.deporturnos.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -40,6 +41,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authRequest ->
                         authRequest
+                                // Los despachos asíncronos (SSE) continúan un request que ya pasó la autorización
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .requestMatchers("/doc/**").permitAll()
                                 .requestMatchers("/api/auth/**", "/v3/api-docs/**").permitAll()
                                 .anyRequest().authenticated()
@@ -0,0 +1,96 @@
+package com.project.deporturnos.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Escucha el evento JFR {@code jdk.VirtualThreadPinned}: un hilo virtual que bloquea dentro de un
+ * {@code synchronized} (o de código nativo) retiene su carrier y deja de escalar. Cuenta cada caso
+ * por el primer frame propio de la aplicación y loguea la pila la primera vez que aparece cada uno.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final String PAQUETE_PROPIO = "com.project.deporturnos.";
+    private static final int FRAMES_LOGUEADOS = 15;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration umbral;
+    private final Map<String, Counter> contadores = new ConcurrentHashMap<>();
+    private final Set<String> logueados = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration umbral) {
+        this.meterRegistry = meterRegistry;
+        this.umbral = umbral;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Monitor de pinning de hilos virtuales activo (umbral {} ms)", umbral.toMillis());
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    void registrar(RecordedEvent evento) {
+        RecordedStackTrace pila = evento.getStackTrace();
+        String origen = origen(pila);
+
+        contadores.computeIfAbsent(origen, o -> Counter.builder("deporturnos.virtual.pinned")
+                        .description("Veces que un hilo virtual bloqueó su carrier")
+                        .tag("origen", o)
+                        .register(meterRegistry))
+                .increment();
+
+        if (logueados.add(origen)) {
+            log.warn("Hilo virtual fijado a su carrier durante {} ms en {}:\n{}", evento.getDuration().toMillis(),
+                    origen, pila == null ? "(sin pila)" : pila.getFrames().stream()
+                            .limit(FRAMES_LOGUEADOS)
+                            .map(frame -> "\tat " + frame.getMethod().getType().getName() + "."
+                                    + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                            .collect(Collectors.joining("\n")));
+        }
+    }
+
+    // Clase.metodo del primer frame de la aplicación; si no hay ninguno, el primero de la pila
+    static String origen(RecordedStackTrace pila) {
+        if (pila == null || pila.getFrames().isEmpty()) {
+            return "desconocido";
+        }
+        RecordedFrame elegido = pila.getFrames().stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(PAQUETE_PROPIO))
+                .findFirst()
+                .orElse(pila.getFrames().get(0));
+        String clase = elegido.getMethod().getType().getName();
+        return clase.substring(clase.lastIndexOf('.') + 1) + "." + elegido.getMethod().getName();
+    }
+}
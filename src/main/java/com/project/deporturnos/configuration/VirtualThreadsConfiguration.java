@@ -0,0 +1,52 @@
+package com.project.deporturnos.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Piezas que solo hacen falta con {@code spring.threads.virtual.enabled=true}. Spring Boot ya
+ * corre Tomcat y los {@code @Scheduled} en hilos virtuales; acá se limita la concurrencia contra
+ * la base y se vigila el pinning de carriers.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(
+            @Value("${app.jdbc.max-concurrency:100}") int maximo,
+            @Value("${app.jdbc.acquire-timeout-ms:30000}") long esperaMaximaMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maximo, esperaMaximaMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder jdbcConcurrencyLimiterMetrics(DataSource dataSource) throws SQLException {
+        ConcurrencyLimitedDataSource limitado = dataSource.unwrap(ConcurrencyLimitedDataSource.class);
+        return limitado::bindTo;
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinning-threshold-ms:20}") long umbralMs) {
+        return new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(umbralMs));
+    }
+}
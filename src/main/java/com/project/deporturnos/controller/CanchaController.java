@@ -1,5 +1,6 @@
 package com.project.deporturnos.controller;
 
+import com.project.deporturnos.availability.CanchaCatalog;
 import com.project.deporturnos.entity.dto.CanchaRequestDTO;
 import com.project.deporturnos.entity.dto.CanchaRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.CanchaResponseDTO;
@@ -8,6 +9,7 @@ import com.project.deporturnos.service.ICanchaService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,11 +18,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @CrossOrigin
@@ -35,12 +39,13 @@ public class CanchaController {
     // ADMIN ENDPOINTS
     // ============================================================
 
-    @Operation(summary = "Obtener todas las canchas", description = "Devuelve una lista completa de todas las canchas registradas en el sistema.")
-    @ApiResponse(responseCode = "200", description = "Listado obtenido correctamente")
+    @Operation(summary = "Obtener todas las canchas", description = "Devuelve una lista completa de todas las canchas registradas en el sistema. Responde con ETag; si el If-None-Match coincide, devuelve 304 sin cuerpo.")
+    @ApiResponse(responseCode = "200", description = "Listado obtenido correctamente", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CanchaResponseDTO.class))))
+    @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde el ETag indicado", content = @Content(schema = @Schema(hidden = true)))
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping
-    public ResponseEntity<List<CanchaResponseDTO>> getAll() {
-        return ResponseEntity.ok(canchaService.getAll());
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
+        return catalogo(canchaService.getCatalogo(), request);
     }
 
     // ----------------------------------------------------
@@ -85,13 +90,31 @@ public class CanchaController {
     // CLIENTE + ADMIN ENDPOINTS
     // ============================================================
 
-    @Operation(summary = "Obtener canchas disponibles por deporte", description = "Devuelve el listado de canchas que se encuentran disponibles para el deporte indicado.")
-    @ApiResponse(responseCode = "200", description = "Canchas disponibles obtenidas correctamente")
+    @Operation(summary = "Obtener canchas disponibles por deporte", description = "Devuelve el listado de canchas que se encuentran disponibles para el deporte indicado. Responde con ETag; si el If-None-Match coincide, devuelve 304 sin cuerpo.")
+    @ApiResponse(responseCode = "200", description = "Canchas disponibles obtenidas correctamente", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CanchaResponseDTO.class))))
+    @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde el ETag indicado", content = @Content(schema = @Schema(hidden = true)))
     @PreAuthorize("hasRole('ROLE_CLIENTE') or hasRole('ROLE_ADMIN')")
     @GetMapping("/disponibles/{deporte}")
-    public ResponseEntity<List<CanchaResponseDTO>> getAvailableByDeporte(
-            @Parameter(description = "Nombre del deporte (FUTBOL, PADEL, TENIS)", example = "FUTBOL") @PathVariable String deporte) {
+    public ResponseEntity<byte[]> getAvailableByDeporte(
+            @Parameter(description = "Nombre del deporte (FUTBOL, PADEL, TENIS)", example = "FUTBOL") @PathVariable String deporte,
+            WebRequest request) {
+
+        return catalogo(canchaService.getCatalogoDisponibles(deporte), request);
+    }
 
-        return ResponseEntity.ok(canchaService.getAvailableByDeporte(deporte));
+    // El JSON ya viene serializado del catálogo; no-cache hace que el cliente revalide siempre con el ETag
+    private ResponseEntity<byte[]> catalogo(CanchaCatalog.Vista vista, WebRequest request) {
+        if (request.checkNotModified(vista.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(vista.etag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(vista.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(vista.json());
     }
 }
\ No newline at end of file
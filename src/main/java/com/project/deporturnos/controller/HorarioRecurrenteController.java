@@ -0,0 +1,70 @@
+package com.project.deporturnos.controller;
+
+import com.project.deporturnos.entity.dto.GeneralResponseDTO;
+import com.project.deporturnos.entity.dto.HorarioRecurrenteRequestDTO;
+import com.project.deporturnos.entity.dto.HorarioRecurrenteResponseDTO;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/horarios")
+@RequiredArgsConstructor
+@Tag(name = "Horarios", description = "Plantillas recurrentes de turnos por cancha. Sus turnos se calculan al consultar disponibilidad y se guardan solo al reservarlos o bloquearlos.")
+public class HorarioRecurrenteController {
+
+    private final IHorarioRecurrenteService horarioRecurrenteService;
+
+    // ============================================================
+    // ROLE_ADMIN — Gestión de horarios
+    // ============================================================
+
+    @Operation(summary = "Registrar horario recurrente", description = "Crea una plantilla de turnos para una cancha, por ejemplo de lunes a viernes de 08:00 a 23:00 cada 60 minutos.")
+    @ApiResponse(responseCode = "200", description = "Horario creado exitosamente")
+    @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content(schema = @Schema(hidden = true)))
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping
+    public ResponseEntity<HorarioRecurrenteResponseDTO> save(
+            @Valid @RequestBody HorarioRecurrenteRequestDTO horarioRecurrenteRequestDTO) {
+
+        return ResponseEntity.ok(horarioRecurrenteService.save(horarioRecurrenteRequestDTO));
+    }
+
+    // ----------------------------------------------------
+
+    @Operation(summary = "Listar horarios de una cancha", description = "Devuelve las plantillas recurrentes vigentes de una cancha.")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/cancha/{canchaId}")
+    public ResponseEntity<List<HorarioRecurrenteResponseDTO>> getByCancha(
+            @Parameter(description = "ID de la cancha", example = "1") @PathVariable("canchaId") Long canchaId) {
+
+        return ResponseEntity.ok(horarioRecurrenteService.getByCancha(canchaId));
+    }
+
+    // ----------------------------------------------------
+
+    @Operation(summary = "Eliminar horario recurrente", description = "Elimina una plantilla. Los turnos ya reservados o bloqueados se conservan.")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> delete(
+            @Parameter(description = "ID del horario a eliminar", example = "3") @PathVariable("id") Long id) {
+
+        horarioRecurrenteService.delete(id);
+        return ResponseEntity.ok(new GeneralResponseDTO("Horario eliminado correctamente."));
+    }
+}
@@ -1,5 +1,8 @@
 package com.project.deporturnos.controller;
 
+import com.project.deporturnos.entity.domain.AgrupacionGanancias;
+import com.project.deporturnos.entity.dto.GananciaGrupoDTO;
+import com.project.deporturnos.service.IOcupacionRollupService;
 import com.project.deporturnos.service.IReportsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @CrossOrigin
@@ -20,6 +24,7 @@ import java.time.LocalDate;
 public class ReportsController {
 
     private final IReportsService reportsService;
+    private final IOcupacionRollupService ocupacionRollupService;
 
 
     @Operation(summary = "Calcula las ganancias del centro deportivo en un rango de fechas")
@@ -33,5 +38,26 @@ public class ReportsController {
         return ResponseEntity.ok(ganancias);
     }
 
+    @Operation(summary = "Calcula las ganancias en un rango de fechas agrupadas por cancha, deporte, mes o día")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/profits")
+    public ResponseEntity<List<GananciaGrupoDTO>> calcularProfitsAgrupados(
+            @RequestParam(value = "fechaDesde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(value = "fechaHasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @RequestParam(value = "agruparPor", defaultValue = "CANCHA") AgrupacionGanancias agruparPor
+    ) {
+        List<GananciaGrupoDTO> ganancias = reportsService.calcularGananciasAgrupadas(fechaDesde, fechaHasta, agruparPor);
+        return ResponseEntity.ok(ganancias);
+    }
 
+    @Operation(summary = "Reconstruye desde turnos y reservas el rollup de ocupación y ganancias de un rango de fechas")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Integer> reconstruirRollup(
+            @RequestParam(value = "fechaDesde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(value = "fechaHasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta
+    ) {
+        int filas = ocupacionRollupService.reconstruir(fechaDesde, fechaHasta);
+        return ResponseEntity.ok(filas);
+    }
 }
@@ -1,9 +1,11 @@
 package com.project.deporturnos.controller;
 
+import com.project.deporturnos.entity.dto.CursorPageDTO;
 import com.project.deporturnos.entity.dto.GeneralResponseDTO;
 import com.project.deporturnos.entity.dto.ReservaRequestDTO;
 import com.project.deporturnos.entity.dto.ReservaRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.ReservaResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
 import com.project.deporturnos.service.IReservaService;
 
 import jakarta.validation.Valid;
@@ -117,6 +119,24 @@ public class ReservaController {
 
     // ----------------------------------------------------
 
+    @Operation(summary = "Listar reservas por cursor", description = "Obtiene reservas paginadas por cursor (keyset), con filtro opcional por rango de fechas. Cada página trae el cursor de la siguiente en `nextCursor`; el costo no crece con la profundidad y el total solo se calcula si se pide con `conTotal`.")
+    @ApiResponse(responseCode = "200", description = "Página obtenida con éxito")
+    @ApiResponse(responseCode = "400", description = "Cursor, orden o tamaño inválidos", content = @Content(schema = @Schema(hidden = true)))
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDTO<ReservaResponseDTO>> scroll(
+            @Parameter(description = "Cursor devuelto por la página anterior; vacío para la primera") @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Fecha desde (formato YYYY-MM-DD)", example = "2023-10-01") @RequestParam(value = "fechaDesde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @Parameter(description = "Fecha hasta (formato YYYY-MM-DD)", example = "2023-10-31") @RequestParam(value = "fechaHasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @Parameter(description = "Cantidad de elementos por página (máximo 100)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo por el cual ordenar: id o fecha", example = "fecha") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Incluir el total de elementos (ejecuta un COUNT)", example = "false") @RequestParam(defaultValue = "false") boolean conTotal) {
+
+        return ResponseEntity.ok(reservaService.getCursorPage(fechaDesde, fechaHasta, cursor, size, sortBy, conTotal));
+    }
+
+    // ----------------------------------------------------
+
     @Operation(summary = "Iniciar proceso de reserva", description = "Cambia el estado de la reserva a EN_PROCESO.")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PutMapping("/{id}/empezar")
@@ -142,6 +162,17 @@ public class ReservaController {
 
     // ----------------------------------------------------
 
+    @Operation(summary = "Registrar reserva por horario (Usuario)", description = "Reserva un turno indicando cancha, fecha y hora de inicio. Admite turnos de plantillas recurrentes que todavía no existen como turno guardado.")
+    @PreAuthorize("hasRole('ROLE_CLIENTE') or hasRole('ROLE_ADMIN')")
+    @PostMapping("/byuser/slot")
+    public ResponseEntity<?> saveReservaBySlot(
+            @Valid @RequestBody TurnoSlotRequestDTO turnoSlotRequestDTO) {
+
+        return ResponseEntity.ok(reservaService.saveReservaBySlot(turnoSlotRequestDTO));
+    }
+
+    // ----------------------------------------------------
+
     @Operation(summary = "Cancelar reserva", description = "El usuario o el administrador pueden cancelar una reserva existente.")
     @PreAuthorize("hasRole('ROLE_CLIENTE') or hasRole('ROLE_ADMIN')")
     @PutMapping("/{id}/cancelar")
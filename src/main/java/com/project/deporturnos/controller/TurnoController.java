@@ -1,6 +1,7 @@
 package com.project.deporturnos.controller;
 
 import com.project.deporturnos.entity.dto.*;
+import com.project.deporturnos.service.ICargaMasivaJobService;
 import com.project.deporturnos.service.ITurnoService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,11 +15,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -29,6 +36,7 @@ import java.util.List;
 public class TurnoController {
 
     private final ITurnoService turnoService;
+    private final ICargaMasivaJobService cargaMasivaJobService;
 
     // ============================================================
     // ROLE_ADMIN — Gestión de turnos
@@ -89,9 +97,43 @@ public class TurnoController {
     public ResponseEntity<String> cargaMasivaTurnos(
             @RequestBody CargaMasivaTurnosDTO cargaMasivaTurnosDTO) {
 
-        int turnosCreados = turnoService.cargaMasivaTurnos(cargaMasivaTurnosDTO);
+        CargaMasivaResultadoDTO resultado = turnoService.cargaMasivaTurnos(cargaMasivaTurnosDTO);
         return ResponseEntity.ok(
-                String.format("Carga masiva de turnos completada con éxito, se cargaron %d turnos.", turnosCreados));
+                String.format("Carga masiva de turnos completada con éxito, se cargaron %d turnos (%d ya existían).",
+                        resultado.getTurnosCreados(), resultado.getTurnosOmitidos()));
+    }
+
+    // ----------------------------------------------------
+
+    @Operation(summary = "Bloquear turno", description = "Bloquea un turno por cancha, fecha y hora de inicio para que no pueda reservarse. Si el turno sale de una plantilla recurrente y todavía no existe, se crea bloqueado.")
+    @ApiResponse(responseCode = "409", description = "El turno no está disponible", content = @Content(schema = @Schema(hidden = true)))
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/bloquear")
+    public ResponseEntity<TurnoResponseDTO> bloquear(
+            @Valid @RequestBody TurnoSlotRequestDTO turnoSlotRequestDTO) {
+
+        return ResponseEntity.ok(turnoService.bloquear(turnoSlotRequestDTO));
+    }
+
+    // ----------------------------------------------------
+
+    @Operation(summary = "Encolar carga masiva de turnos", description = "Encola la generación de turnos para varias canchas y rangos de fechas. Se procesa en segundo plano por semanas y el progreso se consulta con el id devuelto.")
+    @ApiResponse(responseCode = "202", description = "Carga masiva encolada")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/massive-charge/jobs")
+    public ResponseEntity<CargaMasivaJobResponseDTO> encolarCargaMasiva(
+            @Valid @RequestBody CargaMasivaJobRequestDTO cargaMasivaJobRequestDTO) {
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(cargaMasivaJobService.submit(cargaMasivaJobRequestDTO));
+    }
+
+    @Operation(summary = "Estado de una carga masiva", description = "Devuelve el estado, el progreso, los turnos creados y omitidos y los errores de una carga masiva encolada.")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/massive-charge/jobs/{id}")
+    public ResponseEntity<CargaMasivaJobResponseDTO> getCargaMasiva(
+            @Parameter(description = "ID de la carga masiva") @PathVariable("id") String id) {
+
+        return ResponseEntity.ok(cargaMasivaJobService.getById(id));
     }
 
     // ----------------------------------------------------
@@ -112,17 +154,85 @@ public class TurnoController {
                 turnoService.getTurnosEntreFechas(fechaDesde, fechaHasta, page, size, sortBy));
     }
 
+    // ----------------------------------------------------
+
+    @Operation(summary = "Listar turnos por cursor", description = "Obtiene turnos paginados por cursor (keyset), con filtro opcional por rango de fechas. Cada página trae el cursor de la siguiente en `nextCursor`; el costo no crece con la profundidad y el total solo se calcula si se pide con `conTotal`.")
+    @ApiResponse(responseCode = "200", description = "Página obtenida con éxito")
+    @ApiResponse(responseCode = "400", description = "Cursor, orden o tamaño inválidos", content = @Content(schema = @Schema(hidden = true)))
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDTO<TurnoResponseDTO>> scroll(
+            @Parameter(description = "Cursor devuelto por la página anterior; vacío para la primera") @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Fecha desde (formato YYYY-MM-DD)", example = "2023-11-01") @RequestParam(value = "fechaDesde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @Parameter(description = "Fecha hasta (formato YYYY-MM-DD)", example = "2023-11-30") @RequestParam(value = "fechaHasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @Parameter(description = "Cantidad de elementos por página (máximo 100)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo por el cual ordenar: id o fecha", example = "fecha") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Incluir el total de elementos (ejecuta un COUNT)", example = "false") @RequestParam(defaultValue = "false") boolean conTotal) {
+
+        return ResponseEntity.ok(turnoService.getCursorPage(fechaDesde, fechaHasta, cursor, size, sortBy, conTotal));
+    }
+
     // ============================================================
     // CLIENTE + ADMIN — Consultas de disponibilidad
     // ============================================================
 
-    @Operation(summary = "Turnos disponibles de una cancha", description = "Devuelve la lista de turnos con estado DISPONIBLE para una cancha y una fecha específica.")
+    @Operation(summary = "Buscar turnos libres entre canchas", description = "Devuelve en una sola consulta los turnos libres de todas las canchas habilitadas de un deporte en un rango de fechas (hasta 14 días), opcionalmente dentro de una franja horaria y con una duración mínima. Se ordenan por fecha y hora de inicio.")
+    @ApiResponse(responseCode = "200", description = "Búsqueda realizada con éxito")
+    @ApiResponse(responseCode = "400", description = "Rango de fechas u horario inválido", content = @Content(schema = @Schema(hidden = true)))
+    @PreAuthorize("hasRole('ROLE_CLIENTE') or hasRole('ROLE_ADMIN')")
+    @GetMapping("/disponibles/buscar")
+    public ResponseEntity<List<TurnoResponseDTO>> buscarDisponibles(
+            @Parameter(description = "Deporte de las canchas", example = "FUTBOL") @RequestParam String deporte,
+            @Parameter(description = "Fecha desde (formato YYYY-MM-DD)", example = "2023-11-15") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @Parameter(description = "Fecha hasta (formato YYYY-MM-DD); por defecto la fecha desde", example = "2023-11-17") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @Parameter(description = "Hora mínima de inicio (formato HH:mm)", example = "18:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaDesde,
+            @Parameter(description = "Hora máxima de fin (formato HH:mm)", example = "22:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaHasta,
+            @Parameter(description = "Duración mínima del turno en minutos", example = "60") @RequestParam(required = false) Integer duracionMinima,
+            @Parameter(description = "Cantidad máxima de resultados", example = "50") @RequestParam(defaultValue = "50") int size) {
+
+        return ResponseEntity.ok(turnoService.buscarDisponibles(deporte, fechaDesde,
+                fechaHasta != null ? fechaHasta : fechaDesde, horaDesde, horaHasta, duracionMinima, size));
+    }
+
+    // ----------------------------------------------------
+
+    @Operation(summary = "Turnos disponibles de una cancha", description = "Devuelve la lista de turnos con estado DISPONIBLE para una cancha y una fecha específica. La respuesta lleva un ETag calculado sobre la lista; con If-None-Match responde 304 sin cuerpo si la lista no cambió.")
+    @ApiResponse(responseCode = "200", description = "Lista obtenida con éxito")
+    @ApiResponse(responseCode = "304", description = "La disponibilidad no cambió desde el ETag enviado", content = @Content(schema = @Schema(hidden = true)))
     @PreAuthorize("hasRole('ROLE_CLIENTE') or hasRole('ROLE_ADMIN')")
     @GetMapping("/disponibles/{id}/cancha")
     public ResponseEntity<List<TurnoResponseDTO>> getAllAvailableByCanchaAndDate(
+            @Parameter(description = "ID de la cancha", example = "3") @PathVariable("id") Long id,
+            @Parameter(description = "Fecha a consultar (formato YYYY-MM-DD)", example = "2023-11-15") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            WebRequest request) {
+
+        // El ETag sale de la misma lista que se enviaría, así nunca responde 304 a un contenido distinto
+        List<TurnoResponseDTO> disponibles = turnoService.getAllAvailableByCanchaAndDate(id, fecha);
+        String etag = turnoService.getDisponiblesEtag(disponibles);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(disponibles);
+    }
+
+    // ----------------------------------------------------
+
+    @Operation(summary = "Suscribirse a la disponibilidad de una cancha", description = "Abre un stream SSE con la disponibilidad de la cancha en la fecha. El primer evento (`disponibles`) trae la lista de turnos DISPONIBLES; cada evento `turno` trae el estado final de un turno que cambió (`disponible`, y sin horario si el turno dejó esa fecha). Un evento `recargar` indica que hay que volver a pedir la lista. Cada tanto se envía un comentario de latido.")
+    @ApiResponse(responseCode = "200", description = "Stream abierto")
+    @ApiResponse(responseCode = "503", description = "La instancia alcanzó el máximo de suscripciones", content = @Content(schema = @Schema(hidden = true)))
+    @PreAuthorize("hasRole('ROLE_CLIENTE') or hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/disponibles/{id}/cancha/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailableByCanchaAndDate(
             @Parameter(description = "ID de la cancha", example = "3") @PathVariable("id") Long id,
             @Parameter(description = "Fecha a consultar (formato YYYY-MM-DD)", example = "2023-11-15") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
 
-        return ResponseEntity.ok(turnoService.getAllAvailableByCanchaAndDate(id, fecha));
+        return turnoService.suscribirDisponibles(id, fecha);
     }
 }
\ No newline at end of file
@@ -55,6 +55,23 @@ public class UsuarioController {
 
     // ----------------------------------------------------
 
+    @Operation(summary = "Listar usuarios por cursor", description = "Obtiene usuarios paginados por cursor (keyset), con búsqueda opcional por nombre o email. Cada página trae el cursor de la siguiente en `nextCursor`; el total solo se calcula si se pide con `conTotal`.")
+    @ApiResponse(responseCode = "200", description = "Página obtenida con éxito")
+    @ApiResponse(responseCode = "400", description = "Cursor, orden o tamaño inválidos", content = @Content(schema = @Schema(hidden = true)))
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDTO<UsuarioSimpleDTO>> scroll(
+            @Parameter(description = "Texto a buscar por nombre o email.", example = "joaquin") @RequestParam(name = "search", required = false) String search,
+            @Parameter(description = "Cursor devuelto por la página anterior; vacío para la primera") @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página (máximo 100)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo por el cual ordenar: id o email", example = "id") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Incluir el total de elementos (ejecuta un COUNT)", example = "false") @RequestParam(defaultValue = "false") boolean conTotal) {
+
+        return ResponseEntity.ok(usuarioService.getCursorPage(search, cursor, size, sortBy, conTotal));
+    }
+
+    // ----------------------------------------------------
+
     @Operation(summary = "Actualizar usuario", description = "Modifica los datos de un usuario existente identificado por su ID.")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PutMapping("/{id}")
@@ -0,0 +1,8 @@
+package com.project.deporturnos.entity.domain;
+
+public enum AgrupacionGanancias {
+    CANCHA,
+    DEPORTE,
+    MES,
+    DIA
+}
@@ -0,0 +1,8 @@
+package com.project.deporturnos.entity.domain;
+
+public enum CargaMasivaJobState {
+    PENDIENTE,
+    EN_CURSO,
+    COMPLETADO,
+    COMPLETADO_CON_ERRORES
+}
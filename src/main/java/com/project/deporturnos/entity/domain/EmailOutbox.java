@@ -0,0 +1,56 @@
+package com.project.deporturnos.entity.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email pendiente de envío. Se guarda en la misma transacción que el cambio que lo origina, así que
+ * solo sale si ese cambio confirma; EmailOutboxDispatcher lo envía después y reintenta si falla.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_estado_proximo_intento", columnList = "estado, proximo_intento")
+})
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String asunto;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String cuerpo;
+
+    // Contenido del código QR a adjuntar; se genera recién al enviar
+    @Column(length = 1000)
+    private String qr;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EmailOutboxState estado;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(length = 1000)
+    private String ultimoError;
+
+    @Column(nullable = false)
+    private LocalDateTime creado;
+
+    @Column
+    private LocalDateTime enviado;
+}
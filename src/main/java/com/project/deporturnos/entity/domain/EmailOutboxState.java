@@ -0,0 +1,7 @@
+package com.project.deporturnos.entity.domain;
+
+public enum EmailOutboxState {
+    PENDIENTE,
+    ENVIADO,
+    FALLIDO
+}
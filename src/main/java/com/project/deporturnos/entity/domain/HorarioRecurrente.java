@@ -0,0 +1,58 @@
+package com.project.deporturnos.entity.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.SQLDelete;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Plantilla de turnos de una cancha (por ejemplo "lunes a viernes de 08:00 a 23:00, 60 minutos").
+ * Los turnos que genera son virtuales: solo se guarda una fila en turno cuando se reservan o bloquean.
+ */
+@Entity
+@Getter
+@Setter
+@Table(indexes = {
+        @Index(name = "idx_horario_recurrente_cancha_deleted", columnList = "cancha_id, deleted")
+})
+@SQLDelete(sql = "UPDATE horario_recurrente SET deleted = true WHERE id=?")
+public class HorarioRecurrente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "cancha_id", nullable = false)
+    private Cancha cancha;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "horario_recurrente_dia", joinColumns = @JoinColumn(name = "horario_recurrente_id"))
+    @Column(name = "dia", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Set<DayOfWeek> dias;
+
+    @Column(nullable = false)
+    private LocalTime horaDesde;
+
+    @Column(nullable = false)
+    private LocalTime horaHasta;
+
+    @Column(nullable = false)
+    private int duracionEnMinutos;
+
+    @Column(nullable = false)
+    private LocalDate vigenteDesde;
+
+    // Sin fecha de fin, la plantilla sigue vigente
+    @Column
+    private LocalDate vigenteHasta;
+
+    @Column
+    private boolean deleted = Boolean.FALSE;
+}
@@ -0,0 +1,53 @@
+package com.project.deporturnos.entity.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ocupación y ganancias ya agregadas por cancha, día y hora de inicio. La mantiene
+ * OcupacionRollupRepository con upserts SQL; los reportes leen de acá en lugar de recorrer turnos y reservas.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "ocupacion_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ocupacion_rollup_cancha_fecha_hora", columnNames = {"cancha_id", "fecha", "hora"})
+}, indexes = {
+        @Index(name = "idx_ocupacion_rollup_fecha", columnList = "fecha")
+})
+public class OcupacionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cancha_id", nullable = false)
+    private Long canchaId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(nullable = false)
+    private int hora;
+
+    // Minutos de turnos RESERVADO o COMPLETADO
+    @Column(nullable = false)
+    private long minutosReservados;
+
+    @Column(nullable = false)
+    private long minutosCompletados;
+
+    @Column(nullable = false)
+    private long turnosCompletados;
+
+    // Reservas CANCELADA de los turnos de la hora
+    @Column(nullable = false)
+    private long cancelaciones;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal ganancias;
+}
@@ -14,6 +14,11 @@ import java.time.LocalDate;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_reserva_estado", columnList = "estado"),
+        @Index(name = "idx_reserva_turno", columnList = "turno_id"),
+        @Index(name = "idx_reserva_fecha_id", columnList = "fecha, id")
+})
 @SQLDelete(sql = "UPDATE reserva SET deleted = true WHERE id=?")
 public class Reserva {
 
@@ -0,0 +1,31 @@
+package com.project.deporturnos.entity.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Momento desde el cual los tokens de un usuario dejan de valer: todo token emitido hasta ese
+ * instante se rechaza en el modo de autenticación por claims. Cada instancia lo replica en memoria.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "token_revocacion", indexes = {
+        @Index(name = "idx_token_revocacion_revocado", columnList = "revocado")
+})
+public class TokenRevocacion {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private LocalDateTime revocado;
+}
@@ -14,6 +14,11 @@ import java.util.Set;
 @Entity
 @Getter
 @Setter
+@Table(indexes = {
+        @Index(name = "idx_turno_cancha_fecha_estado_deleted", columnList = "cancha_id, fecha, estado, deleted"),
+        @Index(name = "idx_turno_estado_fecha", columnList = "estado, fecha"),
+        @Index(name = "idx_turno_fecha_id", columnList = "fecha, id")
+})
 @SQLDelete(sql = "UPDATE turno SET deleted = true WHERE id=?")
 public class Turno {
 
@@ -4,5 +4,6 @@ public enum TurnoState {
     DISPONIBLE,
     RESERVADO,
     COMPLETADO,
-    BORRADO
+    BORRADO,
+    BLOQUEADO
 }
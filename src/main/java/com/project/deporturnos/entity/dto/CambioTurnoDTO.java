@@ -0,0 +1,27 @@
+package com.project.deporturnos.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Estado final de un turno tras un cambio confirmado. Sin horario cuando el turno solo dejó esa fecha.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CambioTurnoDTO {
+
+    private Long turnoId;
+
+    private LocalDate fecha;
+
+    private LocalTime horaInicio;
+
+    private LocalTime horaFin;
+
+    private boolean disponible;
+}
@@ -0,0 +1,22 @@
+package com.project.deporturnos.entity.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CargaMasivaJobRequestDTO {
+
+    // Una entrada por cancha y rango de fechas
+    @NotEmpty
+    @Valid
+    private List<CargaMasivaTurnosDTO> cargas;
+}
@@ -0,0 +1,36 @@
+package com.project.deporturnos.entity.dto;
+
+import com.project.deporturnos.entity.domain.CargaMasivaJobState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CargaMasivaJobResponseDTO {
+
+    private String id;
+
+    private CargaMasivaJobState estado;
+
+    // Cada bloque es una semana de una cancha, cargada en su propia transacción
+    private int bloquesTotales;
+
+    private int bloquesProcesados;
+
+    private int turnosCreados;
+
+    private int turnosOmitidos;
+
+    private List<String> errores;
+
+    private LocalDateTime creado;
+
+    private LocalDateTime finalizado;
+}
@@ -0,0 +1,18 @@
+package com.project.deporturnos.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CargaMasivaResultadoDTO {
+
+    private int turnosCreados;
+
+    // Turnos que ya existían para esa cancha, fecha y hora de inicio
+    private int turnosOmitidos;
+}
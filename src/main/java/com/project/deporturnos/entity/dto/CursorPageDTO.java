@@ -0,0 +1,31 @@
+package com.project.deporturnos.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+
+    // Cursor para pedir la página siguiente; null cuando no hay más resultados
+    private String nextCursor;
+
+    private int size;
+
+    // Solo se calcula si se pide con conTotal=true
+    private Long totalElements;
+
+    public <R> CursorPageDTO<R> map(Function<? super T, ? extends R> conversor) {
+        List<R> convertido = content.stream().<R>map(conversor).toList();
+        return new CursorPageDTO<>(convertido, nextCursor, size, totalElements);
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.deporturnos.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalTime;
+
+// Intervalo [horaInicio, horaFin) ocupado por un turno guardado, en cualquier estado.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FranjaHorariaDTO {
+
+    private LocalTime horaInicio;
+
+    private LocalTime horaFin;
+
+    public boolean seSuperponeCon(LocalTime inicio, LocalTime fin) {
+        return horaInicio.isBefore(fin) && inicio.isBefore(horaFin);
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.deporturnos.entity.dto;
+
+import com.project.deporturnos.entity.domain.Deporte;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Ganancias de los turnos completados de una cancha en un día, ya sumadas en la base.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class GananciaDiariaDTO {
+
+    private Long canchaId;
+
+    private String canchaNombre;
+
+    private Deporte deporte;
+
+    private LocalDate fecha;
+
+    private long turnos;
+
+    private BigDecimal ganancias;
+}
@@ -0,0 +1,24 @@
+package com.project.deporturnos.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class GananciaGrupoDTO {
+
+    // Id de la cancha, deporte, mes (yyyy-MM) o día (yyyy-MM-dd) según la agrupación pedida
+    private String clave;
+
+    private String descripcion;
+
+    private long turnos;
+
+    private BigDecimal ganancias;
+}
@@ -0,0 +1,37 @@
+package com.project.deporturnos.entity.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.lang.Nullable;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HorarioRecurrenteRequestDTO {
+
+    @NotNull(message = "El ID de la cancha no puede estar vacío")
+    private Long canchaId;
+    @NotEmpty(message = "Debe indicar al menos un día de la semana")
+    private Set<DayOfWeek> dias;
+    @NotNull(message = "La hora desde no puede estar vacía")
+    private LocalTime horaDesde;
+    @NotNull(message = "La hora hasta no puede estar vacía")
+    private LocalTime horaHasta;
+    @Positive(message = "La duración debe ser mayor a cero")
+    private int duracionEnMinutos;
+    @NotNull(message = "La fecha de inicio de vigencia no puede estar vacía")
+    private LocalDate vigenteDesde;
+    @Nullable
+    private LocalDate vigenteHasta;
+}
@@ -0,0 +1,34 @@
+package com.project.deporturnos.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HorarioRecurrenteResponseDTO {
+
+    private Long id;
+
+    private Long canchaId;
+
+    private Set<DayOfWeek> dias;
+
+    private LocalTime horaDesde;
+
+    private LocalTime horaHasta;
+
+    private int duracionEnMinutos;
+
+    private LocalDate vigenteDesde;
+
+    private LocalDate vigenteHasta;
+}
@@ -0,0 +1,25 @@
+package com.project.deporturnos.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Reserva EN_PROCESO con los datos de su turno necesarios para saber cuándo termina.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservaVencimientoDTO {
+
+    private Long reservaId;
+
+    private LocalDate fecha;
+
+    private LocalTime horaInicio;
+
+    private LocalTime horaFin;
+}
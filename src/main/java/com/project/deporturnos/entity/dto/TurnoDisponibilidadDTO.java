@@ -0,0 +1,37 @@
+package com.project.deporturnos.entity.dto;
+
+import com.project.deporturnos.entity.domain.TurnoState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Proyección plana de un turno y su cancha, construida directamente desde JPQL.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TurnoDisponibilidadDTO {
+
+    private Long id;
+
+    private LocalDate fecha;
+
+    private LocalTime horaInicio;
+
+    private LocalTime horaFin;
+
+    private TurnoState estado;
+
+    private Long canchaId;
+
+    private String canchaNombre;
+
+    private String canchaTipo;
+
+    private BigDecimal canchaPrecioHora;
+}
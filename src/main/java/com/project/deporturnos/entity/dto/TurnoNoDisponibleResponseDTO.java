@@ -0,0 +1,20 @@
+package com.project.deporturnos.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Respuesta de un conflicto de reserva: el mensaje de siempre más los turnos libres más cercanos
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TurnoNoDisponibleResponseDTO {
+
+    private String message;
+
+    private List<TurnoResponseDTO> alternativas;
+}
@@ -0,0 +1,25 @@
+package com.project.deporturnos.entity.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Identifica un turno por cancha, fecha y hora de inicio, exista o no todavía como fila.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TurnoSlotRequestDTO {
+
+    @NotNull(message = "El ID de la cancha no puede estar vacío")
+    private Long canchaId;
+    @NotNull(message = "La fecha no puede estar vacía")
+    private LocalDate fecha;
+    @NotNull(message = "La hora de inicio no puede estar vacía")
+    private LocalTime horaInicio;
+}
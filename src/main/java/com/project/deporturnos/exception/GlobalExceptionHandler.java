@@ -1,6 +1,7 @@
 package com.project.deporturnos.exception;
 
 import com.project.deporturnos.entity.dto.GeneralResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoNoDisponibleResponseDTO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -56,9 +57,9 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(TurnoAlreadyReservedException.class)
-    public ResponseEntity<GeneralResponseDTO> handlerTurnoAlreadyReserved(TurnoAlreadyReservedException ex)
+    public ResponseEntity<TurnoNoDisponibleResponseDTO> handlerTurnoAlreadyReserved(TurnoAlreadyReservedException ex)
     {
-        return new ResponseEntity<>(new GeneralResponseDTO(ex.getMessage()),HttpStatus.CONFLICT);
+        return new ResponseEntity<>(new TurnoNoDisponibleResponseDTO(ex.getMessage(), ex.getAlternativas()),HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(InvalidEmailException.class)
@@ -106,6 +107,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(new GeneralResponseDTO(ex.getMessage()),HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(StreamCapacityExceededException.class)
+    public ResponseEntity<GeneralResponseDTO> handlerStreamCapacityExceededException(StreamCapacityExceededException ex)
+    {
+        return new ResponseEntity<>(new GeneralResponseDTO(ex.getMessage()),HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 
 
 
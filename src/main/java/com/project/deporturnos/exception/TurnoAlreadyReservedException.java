@@ -1,7 +1,22 @@
 package com.project.deporturnos.exception;
 
+import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import lombok.Getter;
+
+import java.util.List;
+
+// Puede traer los turnos libres más cercanos, para que el cliente no tenga que volver a consultar
+@Getter
 public class TurnoAlreadyReservedException extends RuntimeException{
+
+    private final List<TurnoResponseDTO> alternativas;
+
     public TurnoAlreadyReservedException(String message) {
+        this(message, List.of());
+    }
+
+    public TurnoAlreadyReservedException(String message, List<TurnoResponseDTO> alternativas) {
         super(message);
+        this.alternativas = alternativas;
     }
 }
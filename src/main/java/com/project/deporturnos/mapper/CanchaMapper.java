@@ -0,0 +1,46 @@
+package com.project.deporturnos.mapper;
+
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.dto.CanchaRequestDTO;
+import com.project.deporturnos.entity.dto.CanchaResponseDTO;
+import com.project.deporturnos.entity.dto.CanchaSimpleDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CanchaMapper {
+
+    public Cancha toEntity(CanchaRequestDTO dto) {
+        Cancha cancha = new Cancha();
+        cancha.setNombre(dto.getNombre());
+        cancha.setTipo(dto.getTipo());
+        cancha.setPrecioHora(dto.getPrecioHora());
+        cancha.setDisponibilidad(dto.isDisponibilidad());
+        cancha.setDescripcion(dto.getDescripcion());
+        cancha.setDeporte(dto.getDeporte());
+        return cancha;
+    }
+
+    public CanchaResponseDTO toResponseDTO(Cancha cancha) {
+        if (cancha == null) {
+            return null;
+        }
+        CanchaResponseDTO dto = new CanchaResponseDTO();
+        dto.setId(cancha.getId());
+        dto.setNombre(cancha.getNombre());
+        dto.setTipo(cancha.getTipo());
+        dto.setPrecioHora(cancha.getPrecioHora());
+        dto.setDisponibilidad(cancha.isDisponibilidad());
+        dto.setDescripcion(cancha.getDescripcion());
+        dto.setDeporte(cancha.getDeporte());
+        return dto;
+    }
+
+    public CanchaSimpleDTO toSimpleDTO(Cancha cancha) {
+        if (cancha == null) {
+            return null;
+        }
+        // El DTO expone el precio como entero: se trunca igual que lo hacía Jackson
+        int precioHora = cancha.getPrecioHora() != null ? cancha.getPrecioHora().intValue() : 0;
+        return new CanchaSimpleDTO(cancha.getId(), cancha.getNombre(), cancha.getTipo(), precioHora);
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.deporturnos.mapper;
+
+import com.project.deporturnos.entity.domain.Reserva;
+import com.project.deporturnos.entity.dto.ReservaRequestDTO;
+import com.project.deporturnos.entity.dto.ReservaResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversión directa entre reservas y sus DTOs. Reemplaza a ObjectMapper.convertValue, que
+ * serializaba cada entidad (con usuario, turno y cancha) a un buffer de tokens y lo volvía a
+ * deserializar por cada fila de cada página.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservaMapper {
+
+    private final UsuarioMapper usuarioMapper;
+    private final TurnoMapper turnoMapper;
+
+    // Usuario y turno se resuelven aparte a partir de sus ids
+    public Reserva toEntity(ReservaRequestDTO dto) {
+        Reserva reserva = new Reserva();
+        reserva.setEstado(dto.getEstado());
+        return reserva;
+    }
+
+    public ReservaResponseDTO toResponseDTO(Reserva reserva) {
+        if (reserva == null) {
+            return null;
+        }
+        return new ReservaResponseDTO(reserva.getId(), reserva.getFecha(), reserva.getEstado(),
+                usuarioMapper.toSimpleDTO(reserva.getUsuario()), turnoMapper.toResponseDTO(reserva.getTurno()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.project.deporturnos.mapper;
+
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.dto.TurnoRequestDTO;
+import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TurnoMapper {
+
+    private final CanchaMapper canchaMapper;
+
+    // La cancha se resuelve aparte a partir de canchaId
+    public Turno toEntity(TurnoRequestDTO dto) {
+        Turno turno = new Turno();
+        turno.setFecha(dto.getFecha());
+        turno.setHoraInicio(dto.getHoraInicio());
+        turno.setHoraFin(dto.getHoraFin());
+        turno.setEstado(dto.getEstado());
+        return turno;
+    }
+
+    public TurnoResponseDTO toResponseDTO(Turno turno) {
+        if (turno == null) {
+            return null;
+        }
+        return new TurnoResponseDTO(turno.getId(), turno.getFecha(), turno.getHoraInicio(), turno.getHoraFin(),
+                turno.getEstado(), canchaMapper.toSimpleDTO(turno.getCancha()));
+    }
+}
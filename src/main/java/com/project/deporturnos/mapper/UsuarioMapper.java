@@ -0,0 +1,40 @@
+package com.project.deporturnos.mapper;
+
+import com.project.deporturnos.entity.domain.Usuario;
+import com.project.deporturnos.entity.dto.LockUnlockResponseDTO;
+import com.project.deporturnos.entity.dto.PasswordChangeRequestDTO;
+import com.project.deporturnos.entity.dto.PasswordResetRequestDTO;
+import com.project.deporturnos.entity.dto.ProfileResUpdateDTO;
+import com.project.deporturnos.entity.dto.UsuarioResponseDTO;
+import com.project.deporturnos.entity.dto.UsuarioSimpleDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UsuarioMapper {
+
+    public UsuarioSimpleDTO toSimpleDTO(Usuario usuario) {
+        if (usuario == null) {
+            return null;
+        }
+        return new UsuarioSimpleDTO(usuario.getId(), usuario.getNombre(), usuario.getEmail(), usuario.getTelefono(),
+                usuario.getRol(), usuario.isActivada(), usuario.isNotificaciones());
+    }
+
+    // La contraseña nunca sale en la respuesta
+    public UsuarioResponseDTO toResponseDTO(Usuario usuario) {
+        return new UsuarioResponseDTO(usuario.getId(), usuario.getNombre(), usuario.getEmail(), null,
+                usuario.getTelefono(), usuario.getRol(), usuario.isActivada(), usuario.isNotificaciones());
+    }
+
+    public LockUnlockResponseDTO toLockUnlockDTO(Usuario usuario) {
+        return new LockUnlockResponseDTO(usuario.getId(), usuario.getEmail(), usuario.isActivada());
+    }
+
+    public ProfileResUpdateDTO toProfileDTO(Usuario usuario) {
+        return new ProfileResUpdateDTO(usuario.getNombre(), usuario.getTelefono(), usuario.isNotificaciones());
+    }
+
+    public PasswordResetRequestDTO toPasswordReset(PasswordChangeRequestDTO dto) {
+        return new PasswordResetRequestDTO(dto.getNewPassword(), dto.getConfirmNewPassword());
+    }
+}
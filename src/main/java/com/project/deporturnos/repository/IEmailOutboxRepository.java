@@ -0,0 +1,36 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@EnableJpaRepositories
+@Repository
+public interface IEmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Toma un lote de pendientes vencidos; SKIP LOCKED deja pasar de largo los que otra instancia ya está tomando
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE estado = 'PENDIENTE'
+            AND proximo_intento <= :ahora
+            ORDER BY proximo_intento
+            LIMIT :lote
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> reclamarPendientes(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    @Modifying
+    @Query("""
+            DELETE FROM EmailOutbox e
+            WHERE e.estado = com.project.deporturnos.entity.domain.EmailOutboxState.ENVIADO
+            AND e.enviado < :limite
+            """)
+    int eliminarEnviadosAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,23 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.HorarioRecurrente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@EnableJpaRepositories
+@Repository
+public interface IHorarioRecurrenteRepository extends JpaRepository<HorarioRecurrente, Long> {
+
+    @Query("""
+            SELECT h FROM HorarioRecurrente h
+            WHERE h.cancha.id = :canchaId
+            AND h.deleted = false
+            AND h.cancha.deleted = false
+            """)
+    List<HorarioRecurrente> findVigentesByCanchaId(@Param("canchaId") Long canchaId);
+}
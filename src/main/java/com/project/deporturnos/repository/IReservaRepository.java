@@ -2,27 +2,72 @@ package com.project.deporturnos.repository;
 
 import com.project.deporturnos.entity.domain.Reserva;
 import com.project.deporturnos.entity.domain.ReservaState;
+import com.project.deporturnos.entity.dto.ReservaVencimientoDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @EnableJpaRepositories
 @Repository
 public interface IReservaRepository extends JpaRepository<Reserva, Long>, JpaSpecificationExecutor<Reserva> {
 
+    // Relaciones que se serializan en ReservaResponseDTO: los listados las traen en el mismo SELECT
+    String[] GRAFO_LISTADO = {"usuario", "turno", "turno.cancha"};
+
+    @EntityGraph(attributePaths = {"usuario", "turno", "turno.cancha"})
     Page<Reserva> findByUsuarioIdAndEstadoInAndDeletedFalse(Long id, List<ReservaState> estados, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"usuario", "turno", "turno.cancha"})
     Page<Reserva> findByUsuarioIdAndDeletedFalse(Long id, Pageable pageable);
 
     List<Reserva> findByEstado(ReservaState state);
 
+    @EntityGraph(attributePaths = {"usuario", "turno", "turno.cancha"})
     @Query("SELECT r FROM Reserva r WHERE r.deleted = false")
     Page<Reserva> findAllByDeletedFalse(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "turno", "turno.cancha"})
+    Page<Reserva> findAll(Specification<Reserva> spec, Pageable pageable);
+
+    // Reservas EN_PROCESO cuyo turno ya terminó (fecha + horaFin; si horaFin no supera a horaInicio, termina al día siguiente)
+    @Query("""
+            SELECT r.id FROM Reserva r JOIN r.turno t
+            WHERE r.estado = com.project.deporturnos.entity.domain.ReservaState.EN_PROCESO
+            AND ((t.horaFin > t.horaInicio AND (t.fecha < :hoy OR (t.fecha = :hoy AND t.horaFin <= :ahora)))
+                OR (t.horaFin <= t.horaInicio AND (t.fecha < :ayer OR (t.fecha = :ayer AND t.horaFin <= :ahora))))
+            ORDER BY r.id
+            """)
+    List<Long> findIdsFinalizadas(@Param("hoy") LocalDate hoy,
+                                  @Param("ayer") LocalDate ayer,
+                                  @Param("ahora") LocalTime ahora);
+
+    @Modifying
+    @Query("""
+            UPDATE Reserva r SET r.estado = com.project.deporturnos.entity.domain.ReservaState.COMPLETADA
+            WHERE r.id IN :ids
+            AND r.estado = com.project.deporturnos.entity.domain.ReservaState.EN_PROCESO
+            """)
+    int completarPorIds(@Param("ids") List<Long> ids);
+
+    @Query("""
+            SELECT new com.project.deporturnos.entity.dto.ReservaVencimientoDTO(r.id, t.fecha, t.horaInicio, t.horaFin)
+            FROM Reserva r JOIN r.turno t
+            WHERE r.estado = com.project.deporturnos.entity.domain.ReservaState.EN_PROCESO
+            AND r.deleted = false
+            """)
+    List<ReservaVencimientoDTO> findVencimientosEnProceso();
 }
@@ -0,0 +1,24 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.TokenRevocacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@EnableJpaRepositories
+@Repository
+public interface ITokenRevocacionRepository extends JpaRepository<TokenRevocacion, Long> {
+
+    List<TokenRevocacion> findByRevocadoAfter(LocalDateTime desde);
+
+    // Pasado el vencimiento de los tokens ya no queda ninguno que rechazar
+    @Modifying
+    @Query("DELETE FROM TokenRevocacion t WHERE t.revocado < :limite")
+    int eliminarAnterioresA(@Param("limite") LocalDateTime limite);
+}
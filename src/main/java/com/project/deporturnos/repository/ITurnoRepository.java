@@ -1,29 +1,144 @@
 package com.project.deporturnos.repository;
 
-import com.project.deporturnos.entity.domain.Cancha;
 import com.project.deporturnos.entity.domain.Turno;
 import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.FranjaHorariaDTO;
+import com.project.deporturnos.entity.dto.TurnoDisponibilidadDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @EnableJpaRepositories
 @Repository
 public interface ITurnoRepository extends JpaRepository<Turno, Long>, JpaSpecificationExecutor<Turno> {
 
+    // Relaciones que se serializan en TurnoResponseDTO: los listados las traen en el mismo SELECT
+    String[] GRAFO_LISTADO = {"cancha"};
+
+    @EntityGraph(attributePaths = "cancha")
     @Query("SELECT t FROM Turno t WHERE t.deleted = false")
     Page<Turno> findAllByDeletedFalse(Pageable pageable);
 
-    boolean existsByCanchaAndFechaAndHoraInicio(Cancha cancha, LocalDate fecha, LocalTime horaInicio);
+    @Override
+    @EntityGraph(attributePaths = "cancha")
+    Page<Turno> findAll(Specification<Turno> spec, Pageable pageable);
+
+    // Transición condicional de estado en una sola sentencia: devuelve 0 si el turno ya no estaba en el estado esperado
+    @Modifying
+    @Query("""
+            UPDATE Turno t SET t.estado = :nuevoEstado
+            WHERE t.id = :id
+            AND t.estado = :estadoEsperado
+            AND t.deleted = false
+            """)
+    int compareAndSetEstado(@Param("id") Long id,
+                            @Param("estadoEsperado") TurnoState estadoEsperado,
+                            @Param("nuevoEstado") TurnoState nuevoEstado);
+
+    // Resuelto por el índice (cancha_id, fecha, estado, deleted): solo lee las filas del día pedido
+    @Query("""
+            SELECT new com.project.deporturnos.entity.dto.TurnoDisponibilidadDTO(
+                t.id, t.fecha, t.horaInicio, t.horaFin, t.estado,
+                c.id, c.nombre, c.tipo, c.precioHora)
+            FROM Turno t JOIN t.cancha c
+            WHERE c.id = :canchaId
+            AND t.fecha = :fecha
+            AND t.estado = :estado
+            AND t.deleted = false
+            ORDER BY t.horaInicio
+            """)
+    List<TurnoDisponibilidadDTO> findDisponibilidadByCanchaAndFecha(@Param("canchaId") Long canchaId,
+                                                                   @Param("fecha") LocalDate fecha,
+                                                                   @Param("estado") TurnoState estado);
+
+    @Query("""
+            SELECT new com.project.deporturnos.entity.dto.TurnoDisponibilidadDTO(
+                t.id, t.fecha, t.horaInicio, t.horaFin, t.estado,
+                c.id, c.nombre, c.tipo, c.precioHora)
+            FROM Turno t JOIN t.cancha c
+            WHERE t.fecha BETWEEN :fechaDesde AND :fechaHasta
+            AND t.deleted = false
+            AND t.estado <> com.project.deporturnos.entity.domain.TurnoState.BORRADO
+            """)
+    List<TurnoDisponibilidadDTO> findVigentesByFechaBetween(@Param("fechaDesde") LocalDate fechaDesde,
+                                                           @Param("fechaHasta") LocalDate fechaHasta);
+
+    // Búsqueda entre canchas fuera de la ventana del índice de disponibilidad: una consulta para todo el rango
+    @Query("""
+            SELECT new com.project.deporturnos.entity.dto.TurnoDisponibilidadDTO(
+                t.id, t.fecha, t.horaInicio, t.horaFin, t.estado,
+                c.id, c.nombre, c.tipo, c.precioHora)
+            FROM Turno t JOIN t.cancha c
+            WHERE c.id IN :canchaIds
+            AND t.fecha BETWEEN :fechaDesde AND :fechaHasta
+            AND t.deleted = false
+            AND t.estado <> com.project.deporturnos.entity.domain.TurnoState.BORRADO
+            """)
+    List<TurnoDisponibilidadDTO> findVigentesByCanchaIdInAndFechaBetween(@Param("canchaIds") Collection<Long> canchaIds,
+                                                                        @Param("fechaDesde") LocalDate fechaDesde,
+                                                                        @Param("fechaHasta") LocalDate fechaHasta);
+
+    @Query("""
+            SELECT new com.project.deporturnos.entity.dto.FranjaHorariaDTO(t.horaInicio, t.horaFin)
+            FROM Turno t
+            WHERE t.cancha.id = :canchaId
+            AND t.fecha = :fecha
+            AND t.deleted = false
+            AND t.estado <> com.project.deporturnos.entity.domain.TurnoState.BORRADO
+            """)
+    List<FranjaHorariaDTO> findFranjasByCanchaAndFecha(@Param("canchaId") Long canchaId,
+                                                      @Param("fecha") LocalDate fecha);
+
+    @Query("""
+            SELECT t FROM Turno t
+            WHERE t.cancha.id = :canchaId
+            AND t.fecha = :fecha
+            AND t.horaInicio = :horaInicio
+            AND t.deleted = false
+            AND t.estado <> com.project.deporturnos.entity.domain.TurnoState.BORRADO
+            """)
+    Optional<Turno> findVigenteByCanchaAndFechaAndHoraInicio(@Param("canchaId") Long canchaId,
+                                                             @Param("fecha") LocalDate fecha,
+                                                             @Param("horaInicio") LocalTime horaInicio);
+
+    // Turnos de las reservas indicadas que siguen EN_PROCESO; debe correr antes de completar las reservas
+    @Modifying
+    @Query("""
+            UPDATE Turno t SET t.estado = com.project.deporturnos.entity.domain.TurnoState.COMPLETADO
+            WHERE t.id IN (
+                SELECT r.turno.id FROM Reserva r
+                WHERE r.id IN :reservaIds
+                AND r.estado = com.project.deporturnos.entity.domain.ReservaState.EN_PROCESO
+            )
+            """)
+    int completarPorReservas(@Param("reservaIds") List<Long> reservaIds);
+
+    // Serializa, hasta el fin de la transacción, a quienes crean turnos de la misma cancha y día (plantillas y carga masiva)
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(CAST(:canchaId AS integer), :dia)", nativeQuery = true)
+    Integer bloquearDia(@Param("canchaId") Long canchaId, @Param("dia") int dia);
 
-    List<Turno> findAllByEstadoAndDeletedFalseAndFechaBetween(TurnoState estado, LocalDate fechaDesde, LocalDate fechaHasta);
+    // Los mismos locks de bloquearDia para cada día del rango, en orden de fecha y en una sola sentencia
+    @Query(value = """
+            SELECT CAST(COUNT(*) AS integer) FROM (
+                SELECT pg_advisory_xact_lock(CAST(:canchaId AS integer), dia)
+                FROM generate_series(CAST(:desde AS date) - DATE '1970-01-01', CAST(:hasta AS date) - DATE '1970-01-01') dia
+                ORDER BY dia
+            ) dias
+            """, nativeQuery = true)
+    Integer bloquearDias(@Param("canchaId") Long canchaId, @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 }
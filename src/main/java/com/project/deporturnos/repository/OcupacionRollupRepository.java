@@ -0,0 +1,144 @@
+package com.project.deporturnos.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Mantiene ocupacion_rollup. Cada operación recalcula desde turno y reserva las horas (cancha, fecha,
+ * hora de inicio) afectadas y las guarda con un upsert, así que repetirla no duplica nada.
+ * <p>
+ * Antes de recalcular se toma un advisory lock de la transacción por cada hora, siempre en el mismo
+ * orden. Dos transacciones que cambian turnos distintos de la misma hora se serializan: la segunda
+ * recalcula recién cuando la primera confirmó y, como en READ COMMITTED cada sentencia ve lo ya
+ * confirmado, suma también lo de la otra en lugar de pisarlo con su propia foto. Por eso cada
+ * operación corre en una transacción (la de quien llama, si hay una): fuera de ella el lock se
+ * soltaría al terminar su propia sentencia, antes del upsert.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OcupacionRollupRepository {
+
+    // Duración del turno en minutos; si horaFin no supera a horaInicio termina al día siguiente
+    private static final String MINUTOS = """
+            (EXTRACT(EPOCH FROM t.hora_fin - t.hora_inicio) / 60
+             + CASE WHEN t.hora_fin <= t.hora_inicio THEN 1440 ELSE 0 END)""";
+
+    // Recalcula las horas que devuelve la subconsulta (cancha_id, fecha, hora); una hora sin turnos queda en cero
+    private static final String UPSERT = """
+            INSERT INTO ocupacion_rollup (cancha_id, fecha, hora, minutos_reservados, minutos_completados,
+                                          turnos_completados, cancelaciones, ganancias)
+            SELECT b.cancha_id, b.fecha, b.hora,
+                   COALESCE(CAST(SUM(CASE WHEN t.estado IN ('RESERVADO', 'COMPLETADO') THEN %1$s END) AS bigint), 0),
+                   COALESCE(CAST(SUM(CASE WHEN t.estado = 'COMPLETADO' THEN %1$s END) AS bigint), 0),
+                   COUNT(CASE WHEN t.estado = 'COMPLETADO' THEN 1 END),
+                   COALESCE(SUM(rc.canceladas), 0),
+                   COALESCE(SUM(CASE WHEN t.estado = 'COMPLETADO'
+                                     THEN ROUND(CAST(%1$s AS numeric) / 60, 2) * c.precio_hora END), 0)
+            FROM (%2$s) b
+            LEFT JOIN turno t ON t.cancha_id = b.cancha_id AND t.fecha = b.fecha
+                             AND EXTRACT(HOUR FROM t.hora_inicio) = b.hora AND t.deleted = false
+            LEFT JOIN cancha c ON c.id = t.cancha_id
+            LEFT JOIN LATERAL (SELECT COUNT(*) AS canceladas FROM reserva r
+                               WHERE r.turno_id = t.id AND r.estado = 'CANCELADA' AND r.deleted = false) rc ON true
+            GROUP BY b.cancha_id, b.fecha, b.hora
+            ON CONFLICT (cancha_id, fecha, hora) DO UPDATE SET
+                minutos_reservados = EXCLUDED.minutos_reservados,
+                minutos_completados = EXCLUDED.minutos_completados,
+                turnos_completados = EXCLUDED.turnos_completados,
+                cancelaciones = EXCLUDED.cancelaciones,
+                ganancias = EXCLUDED.ganancias
+            """;
+
+    private static final String HORA_INICIO = "CAST(EXTRACT(HOUR FROM t.hora_inicio) AS integer)";
+
+    private static final String RANGO = """
+            (CAST(? AS date) IS NULL OR fecha >= CAST(? AS date))
+            AND (CAST(? AS date) IS NULL OR fecha <= CAST(? AS date))""";
+
+    // Forma de un solo bigint: no comparte espacio de claves con el lock (cancha, día) de los turnos
+    private static final String BLOQUEAR_HORA = "SELECT pg_advisory_xact_lock(CAST(? AS bigint))";
+
+    private static final Comparator<Hora> ORDEN = Comparator.comparing(Hora::canchaId)
+            .thenComparing(Hora::fecha)
+            .thenComparingInt(Hora::hora);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Recalcula las horas indicadas, en un solo lote.
+     */
+    @Transactional
+    public void recalcular(Collection<Hora> horas) {
+        if (horas.isEmpty()) {
+            return;
+        }
+
+        List<Hora> ordenadas = horas.stream().distinct().sorted(ORDEN).toList();
+        List<Object[]> parametros = new ArrayList<>(ordenadas.size());
+        for (Hora hora : ordenadas) {
+            jdbcTemplate.queryForList(BLOQUEAR_HORA, hora.clave());
+            parametros.add(new Object[]{hora.canchaId(), hora.fecha(), hora.hora()});
+        }
+        jdbcTemplate.batchUpdate(UPSERT.formatted(MINUTOS,
+                "SELECT CAST(? AS bigint) AS cancha_id, CAST(? AS date) AS fecha, CAST(? AS integer) AS hora"),
+                parametros);
+    }
+
+    /**
+     * Recalcula las horas de los turnos de esas reservas.
+     */
+    @Transactional
+    public void recalcularPorReservas(List<Long> reservaIds) {
+        if (reservaIds.isEmpty()) {
+            return;
+        }
+
+        // Primero las horas, para bloquearlas antes de recalcular como cualquier otro cambio
+        String marcadores = String.join(", ", Collections.nCopies(reservaIds.size(), "?"));
+        List<Hora> horas = jdbcTemplate.query("""
+                        SELECT DISTINCT t.cancha_id, t.fecha, %s AS hora
+                        FROM turno t JOIN reserva r ON r.turno_id = t.id
+                        WHERE r.id IN (%s)""".formatted(HORA_INICIO, marcadores),
+                (rs, fila) -> new Hora(rs.getLong("cancha_id"), rs.getObject("fecha", LocalDate.class), rs.getInt("hora")),
+                reservaIds.toArray());
+        recalcular(horas);
+    }
+
+    /**
+     * Vuelve a armar desde cero las filas del rango; un extremo nulo deja el rango abierto.
+     * Devuelve la cantidad de filas generadas.
+     */
+    @Transactional
+    public int reconstruir(LocalDate fechaDesde, LocalDate fechaHasta) {
+        jdbcTemplate.update("DELETE FROM ocupacion_rollup WHERE " + RANGO,
+                fechaDesde, fechaDesde, fechaHasta, fechaHasta);
+        return jdbcTemplate.update(UPSERT.formatted(MINUTOS, """
+                        SELECT DISTINCT t.cancha_id, t.fecha, %s AS hora
+                        FROM turno t
+                        WHERE t.deleted = false AND %s""".formatted(HORA_INICIO, RANGO.replace("fecha", "t.fecha"))),
+                fechaDesde, fechaDesde, fechaHasta, fechaHasta);
+    }
+
+    public boolean estaVacia() {
+        return Boolean.FALSE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM ocupacion_rollup)", Boolean.class));
+    }
+
+    // Una hora de una cancha en un día
+    public record Hora(Long canchaId, LocalDate fecha, int hora) {
+
+        // Clave del advisory lock: cancha en los 32 bits altos, hora desde 1970 en los bajos
+        long clave() {
+            return (canchaId << 32) | (fecha.toEpochDay() * 24 + hora);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.dto.CursorPageDTO;
+import com.project.deporturnos.utils.Cursor;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Paginación por cursor (keyset) sobre un repositorio con especificaciones. En lugar de OFFSET,
+ * cada página sigue a la anterior con {@code (campo, id) > (valor, id)} ordenado por campo e id,
+ * así que pedir la página 500 cuesta lo mismo que pedir la primera si hay un índice por
+ * (campo, id). Se lee una fila de más para saber si hay página siguiente y el COUNT solo se
+ * ejecuta si se pide el total. Las relaciones indicadas en {@link #grafo} se cargan en el mismo
+ * SELECT de la página.
+ */
+public class PaginacionKeyset<T> {
+
+    public static final int TAMANIO_MAXIMO = 100;
+
+    private record Campo<T>(Function<T, Object> valor, Function<String, Comparable<?>> parser) {
+    }
+
+    private final Function<T, Long> id;
+    private final Map<String, Campo<T>> campos = new HashMap<>();
+    private List<String> grafo = List.of();
+
+    public PaginacionKeyset(Function<T, Long> id) {
+        this.id = id;
+        campos.put("id", new Campo<>(id::apply, Long::valueOf));
+    }
+
+    // Habilita un campo de orden: cómo leerlo de la entidad y cómo reconstruirlo desde el cursor
+    public PaginacionKeyset<T> campo(String nombre, Function<T, Object> valor, Function<String, Comparable<?>> parser) {
+        campos.put(nombre, new Campo<>(valor, parser));
+        return this;
+    }
+
+    public PaginacionKeyset<T> grafo(String... relaciones) {
+        this.grafo = List.of(relaciones);
+        return this;
+    }
+
+    public CursorPageDTO<T> buscar(JpaSpecificationExecutor<T> repository, Specification<T> filtro,
+                                   String sortBy, String cursor, int size, boolean conTotal) {
+        Campo<T> campo = campos.get(sortBy);
+        if (campo == null) {
+            throw new IllegalArgumentException("No se puede paginar por cursor ordenando por '" + sortBy
+                    + "'. Valores admitidos: " + campos.keySet() + ".");
+        }
+        if (size < 1 || size > TAMANIO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANIO_MAXIMO + ".");
+        }
+
+        Specification<T> consulta = filtro;
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor posicion = Cursor.decodificar(cursor, sortBy);
+            Comparable<?> valor;
+            try {
+                valor = campo.parser().apply(posicion.valor());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+            consulta = filtro.and(despuesDe(sortBy, valor, posicion.id()));
+        }
+
+        Sort orden = "id".equals(sortBy) ? Sort.by("id") : Sort.by(sortBy).and(Sort.by("id"));
+        List<T> filas = repository.findBy(consulta, q -> q.sortBy(orden).limit(size + 1).project(grafo).all());
+
+        boolean hayMas = filas.size() > size;
+        List<T> contenido = hayMas ? filas.subList(0, size) : filas;
+        String siguiente = null;
+        if (hayMas) {
+            T ultima = contenido.get(contenido.size() - 1);
+            siguiente = new Cursor(sortBy, String.valueOf(campo.valor().apply(ultima)), id.apply(ultima)).codificar();
+        }
+
+        Long total = conTotal ? repository.count(filtro) : null;
+        return new CursorPageDTO<>(contenido, siguiente, size, total);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> despuesDe(String campo, Comparable valor, Long id) {
+        return (root, query, cb) -> {
+            if ("id".equals(campo)) {
+                return cb.greaterThan(root.get("id"), id);
+            }
+            Path<Comparable> path = root.get(campo);
+            return cb.or(
+                    cb.greaterThan(path, valor),
+                    cb.and(cb.equal(path, valor), cb.greaterThan(root.get("id"), id)));
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.Deporte;
+import com.project.deporturnos.entity.dto.GananciaDiariaDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Consultas de reportes resueltas en la base: devuelven filas ya agregadas en lugar de entidades.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReporteRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ganancias de los turnos COMPLETADO agrupadas por cancha y día, leídas de ocupacion_rollup:
+     * el costo es proporcional a días por canchas, no a la cantidad de turnos. Un extremo nulo deja
+     * el rango abierto.
+     */
+    public List<GananciaDiariaDTO> findGananciasPorCanchaYDia(LocalDate fechaDesde, LocalDate fechaHasta) {
+        return jdbcTemplate.query("""
+                        SELECT c.id AS cancha_id, c.nombre AS cancha_nombre, c.deporte AS deporte, o.fecha AS fecha,
+                               SUM(o.turnos_completados) AS turnos, SUM(o.ganancias) AS ganancias
+                        FROM ocupacion_rollup o JOIN cancha c ON c.id = o.cancha_id
+                        WHERE o.turnos_completados > 0
+                        AND (CAST(? AS date) IS NULL OR o.fecha >= CAST(? AS date))
+                        AND (CAST(? AS date) IS NULL OR o.fecha <= CAST(? AS date))
+                        GROUP BY c.id, c.nombre, c.deporte, o.fecha
+                        ORDER BY o.fecha, c.id
+                        """,
+                (rs, rowNum) -> {
+                    Integer deporte = rs.getObject("deporte", Integer.class);
+                    return new GananciaDiariaDTO(
+                            rs.getLong("cancha_id"),
+                            rs.getString("cancha_nombre"),
+                            deporte != null ? Deporte.values()[deporte] : null,
+                            rs.getObject("fecha", LocalDate.class),
+                            rs.getLong("turnos"),
+                            rs.getBigDecimal("ganancias"));
+                },
+                fechaDesde, fechaDesde, fechaHasta, fechaHasta);
+    }
+}
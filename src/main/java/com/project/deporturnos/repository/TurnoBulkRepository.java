@@ -0,0 +1,76 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.Turno;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Operaciones masivas sobre la tabla turno por JDBC. Hibernate no agrupa inserts cuando el id es
+ * IDENTITY, así que la carga masiva reserva los ids de la secuencia de la columna en una sola
+ * consulta y después inserta en lotes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TurnoBulkRepository {
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Fecha y hora de inicio de los turnos vigentes de una cancha dentro del rango, en una sola consulta.
+     */
+    public Set<LocalDateTime> findHorariosExistentes(Long canchaId, LocalDate fechaDesde, LocalDate fechaHasta,
+                                                     LocalTime horaDesde, LocalTime horaHasta) {
+        Set<LocalDateTime> existentes = new HashSet<>();
+        jdbcTemplate.query("""
+                        SELECT fecha, hora_inicio FROM turno
+                        WHERE cancha_id = ?
+                        AND fecha BETWEEN ? AND ?
+                        AND hora_inicio >= ? AND hora_inicio < ?
+                        AND deleted = false
+                        """,
+                (RowCallbackHandler) rs -> existentes.add(LocalDateTime.of(
+                        rs.getObject("fecha", LocalDate.class),
+                        rs.getObject("hora_inicio", LocalTime.class))),
+                canchaId, fechaDesde, fechaHasta, horaDesde, horaHasta);
+        return existentes;
+    }
+
+    /**
+     * Toma {@code cantidad} valores de la secuencia detrás de turno.id en un solo viaje a la base.
+     */
+    public List<Long> reservarIds(int cantidad) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('turno', 'id')) FROM generate_series(1, ?)",
+                Long.class, cantidad);
+    }
+
+    /**
+     * Inserta turnos que ya tienen id asignado, en lotes de {@value #TAMANIO_LOTE}.
+     */
+    public void insertar(List<Turno> turnos) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO turno (id, fecha, hora_inicio, hora_fin, estado, cancha_id, deleted)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)
+                        """,
+                turnos, TAMANIO_LOTE, (ps, turno) -> {
+                    ps.setLong(1, turno.getId());
+                    ps.setObject(2, turno.getFecha());
+                    ps.setObject(3, turno.getHoraInicio());
+                    ps.setObject(4, turno.getHoraFin());
+                    ps.setString(5, turno.getEstado().name());
+                    ps.setLong(6, turno.getCancha().getId());
+                    ps.setBoolean(7, turno.isDeleted());
+                });
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.Usuario;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UsuarioSpecification implements Specification<Usuario> {
+
+    private final String search;
+
+    public UsuarioSpecification(String search) {
+        this.search = search;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<Usuario> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        predicates.add(cb.equal(root.get("deleted"), false));
+
+        if (search != null && !search.isEmpty()) {
+            String patron = "%" + search.toLowerCase() + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("nombre")), patron),
+                    cb.like(cb.lower(root.get("email")), patron)));
+        }
+
+        return cb.and(predicates.toArray(new Predicate[0]));
+    }
+}
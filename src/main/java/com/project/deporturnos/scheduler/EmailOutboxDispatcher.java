@@ -0,0 +1,238 @@
+package com.project.deporturnos.scheduler;
+
+import com.project.deporturnos.entity.domain.EmailOutbox;
+import com.project.deporturnos.entity.domain.EmailOutboxState;
+import com.project.deporturnos.repository.IEmailOutboxRepository;
+import com.project.deporturnos.service.implementation.EmailService;
+import com.project.deporturnos.utils.QRCodeGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía los emails del outbox. Cada pasada reclama un lote de pendientes (SKIP LOCKED, con un
+ * plazo durante el cual ninguna otra instancia los vuelve a tomar), los manda todos por una
+ * misma conexión SMTP y registra el resultado. Los que fallan se reintentan con espera
+ * exponencial hasta {@code app.mail.outbox.max-attempts}; después quedan FALLIDO. El envío corre
+ * en el executor {@code emailExecutor}, no en el hilo del scheduler, que comparten las demás tareas.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final IEmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final TaskExecutor emailExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean mailEnabled;
+    private final int tamanioLote;
+    private final int maxIntentos;
+    private final long esperaBaseSegundos;
+    private final long esperaMaximaSegundos;
+    private final long plazoReclamoSegundos;
+    private final Counter enviados;
+    private final Counter reintentos;
+    private final Counter fallidos;
+    private final int concurrencia;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    public EmailOutboxDispatcher(IEmailOutboxRepository emailOutboxRepository,
+                                 EmailService emailService,
+                                 @Qualifier("emailExecutor") TaskExecutor emailExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.mail.enabled:true}") boolean mailEnabled,
+                                 @Value("${app.mail.outbox.batch-size:50}") int tamanioLote,
+                                 @Value("${app.mail.outbox.max-attempts:8}") int maxIntentos,
+                                 @Value("${app.mail.outbox.backoff-base-seconds:30}") long esperaBaseSegundos,
+                                 @Value("${app.mail.outbox.backoff-max-seconds:3600}") long esperaMaximaSegundos,
+                                 @Value("${app.mail.outbox.claim-seconds:300}") long plazoReclamoSegundos,
+                                 @Value("${app.executors.email.threads:2}") int concurrencia) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.emailExecutor = emailExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailEnabled = mailEnabled;
+        this.tamanioLote = tamanioLote;
+        this.maxIntentos = maxIntentos;
+        this.esperaBaseSegundos = esperaBaseSegundos;
+        this.esperaMaximaSegundos = esperaMaximaSegundos;
+        this.plazoReclamoSegundos = plazoReclamoSegundos;
+        this.concurrencia = concurrencia;
+        this.enviados = Counter.builder("deporturnos.email.outbox.enviados")
+                .description("Emails del outbox enviados")
+                .register(meterRegistry);
+        this.reintentos = Counter.builder("deporturnos.email.outbox.reintentos")
+                .description("Envíos fallidos que se vuelven a intentar")
+                .register(meterRegistry);
+        this.fallidos = Counter.builder("deporturnos.email.outbox.fallidos")
+                .description("Emails descartados tras agotar los reintentos")
+                .register(meterRegistry);
+    }
+
+    // Ocupa los hilos libres del executor; los lotes que no entran quedan para la próxima pasada
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-ms:2000}")
+    public void despachar() {
+        for (int libres = concurrencia - enCurso.get(); libres > 0; libres--) {
+            enCurso.incrementAndGet();
+            try {
+                emailExecutor.execute(this::drenar);
+            } catch (TaskRejectedException e) {
+                enCurso.decrementAndGet();
+                log.debug("Executor de emails saturado, se despacha en la próxima pasada");
+                return;
+            }
+        }
+    }
+
+    // Vacía los lotes completos seguidos para absorber picos sin esperar a la próxima pasada
+    private void drenar() {
+        try {
+            int procesados;
+            do {
+                procesados = despacharLote();
+            } while (procesados == tamanioLote);
+        } catch (RuntimeException e) {
+            log.error("Error despachando el outbox de emails: {}", e.getMessage(), e);
+        } finally {
+            enCurso.decrementAndGet();
+        }
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.cleanup-cron:0 30 3 * * *}")
+    public void limpiarEnviados() {
+        Integer eliminados = transactionTemplate.execute(status ->
+                emailOutboxRepository.eliminarEnviadosAntesDe(LocalDateTime.now().minusDays(7)));
+        log.info("Outbox de emails: {} enviados eliminados", eliminados);
+    }
+
+    int despacharLote() {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<EmailOutbox> lote = transactionTemplate.execute(status -> {
+            List<EmailOutbox> reclamados = emailOutboxRepository.reclamarPendientes(ahora, tamanioLote);
+            reclamados.forEach(email -> email.setProximoIntento(ahora.plusSeconds(plazoReclamoSegundos)));
+            return reclamados;
+        });
+        if (lote == null || lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> errores = mailEnabled ? enviar(lote) : Map.of();
+        if (!mailEnabled) {
+            lote.forEach(email -> log.warn("[TEST MODE] Email not sent to {} - subject: {}",
+                    email.getDestinatario(), email.getAsunto()));
+        }
+
+        registrarResultado(lote, errores);
+        return lote.size();
+    }
+
+    // Devuelve el error de cada email que no salió, por id
+    private Map<Long, String> enviar(List<EmailOutbox> lote) {
+        Map<Long, String> errores = new HashMap<>();
+        Map<MimeMessage, EmailOutbox> mensajes = new IdentityHashMap<>();
+
+        for (EmailOutbox email : lote) {
+            try {
+                mensajes.put(crearMensaje(email), email);
+            } catch (Exception e) {
+                errores.put(email.getId(), mensajeDe(e));
+            }
+        }
+
+        if (mensajes.isEmpty()) {
+            return errores;
+        }
+
+        try {
+            emailService.sendAll(mensajes.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                mensajes.values().forEach(email -> errores.put(email.getId(), e.getMessage()));
+            } else {
+                e.getFailedMessages().forEach((mensaje, error) -> {
+                    EmailOutbox email = mensajes.get(mensaje);
+                    if (email != null) {
+                        errores.put(email.getId(), mensajeDe(error));
+                    }
+                });
+            }
+        } catch (MailException e) {
+            mensajes.values().forEach(email -> errores.put(email.getId(), e.getMessage()));
+        }
+
+        return errores;
+    }
+
+    private MimeMessage crearMensaje(EmailOutbox email) throws Exception {
+        if (email.getQr() == null) {
+            return emailService.createMessage(email.getDestinatario(), email.getAsunto(), email.getCuerpo());
+        }
+
+        byte[] qrPng = QRCodeGenerator.generateQRCodePng(email.getQr(), 200, 200);
+        return emailService.createMessage(email.getDestinatario(), email.getAsunto(), email.getCuerpo(),
+                "codigoQR.png", qrPng, MediaType.IMAGE_PNG_VALUE);
+    }
+
+    private void registrarResultado(List<EmailOutbox> lote, Map<Long, String> errores) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        for (EmailOutbox email : lote) {
+            String error = errores.get(email.getId());
+            if (error == null) {
+                email.setEstado(EmailOutboxState.ENVIADO);
+                email.setEnviado(ahora);
+                email.setUltimoError(null);
+                enviados.increment();
+                continue;
+            }
+
+            email.setIntentos(email.getIntentos() + 1);
+            email.setUltimoError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            if (email.getIntentos() >= maxIntentos) {
+                email.setEstado(EmailOutboxState.FALLIDO);
+                fallidos.increment();
+                log.error("Email {} a {} descartado tras {} intentos: {}", email.getId(), email.getDestinatario(),
+                        email.getIntentos(), error);
+            } else {
+                email.setProximoIntento(ahora.plusSeconds(espera(email.getIntentos())));
+                reintentos.increment();
+                log.warn("Email {} a {} falló (intento {}), se reintenta: {}", email.getId(),
+                        email.getDestinatario(), email.getIntentos(), error);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(lote));
+    }
+
+    private static String mensajeDe(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    // base, 2×base, 4×base... hasta el máximo
+    long espera(int intentos) {
+        long factor = 1L << Math.min(intentos - 1, 20);
+        return Math.min(esperaBaseSegundos * factor, esperaMaximaSegundos);
+    }
+}
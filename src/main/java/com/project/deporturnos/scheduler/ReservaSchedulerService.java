@@ -1,39 +1,72 @@
 package com.project.deporturnos.scheduler;
 
-import com.project.deporturnos.entity.domain.Reserva;
-import com.project.deporturnos.entity.domain.ReservaState;
-import com.project.deporturnos.entity.domain.TurnoState;
 import com.project.deporturnos.repository.IReservaRepository;
+import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.service.IOcupacionRollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalTime;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
+@Slf4j
 public class ReservaSchedulerService {
 
+    // Acota la lista de ids de cada UPDATE si la pasada encuentra muchas reservas atrasadas
+    static final int TAMANIO_LOTE = 500;
+
     private final IReservaRepository reservaRepository;
+    private final ITurnoRepository turnoRepository;
+    private final IOcupacionRollupService ocupacionRollupService;
+    private final Counter reservasCompletadas;
+    private final Counter turnosCompletados;
 
-    public ReservaSchedulerService(IReservaRepository reservaRepository) {
+    public ReservaSchedulerService(IReservaRepository reservaRepository,
+                                   ITurnoRepository turnoRepository,
+                                   IOcupacionRollupService ocupacionRollupService,
+                                   MeterRegistry meterRegistry) {
         this.reservaRepository = reservaRepository;
+        this.turnoRepository = turnoRepository;
+        this.ocupacionRollupService = ocupacionRollupService;
+        this.reservasCompletadas = Counter.builder("deporturnos.scheduler.reservas.completadas")
+                .description("Reservas pasadas de EN_PROCESO a COMPLETADA por el scheduler")
+                .register(meterRegistry);
+        this.turnosCompletados = Counter.builder("deporturnos.scheduler.turnos.completados")
+                .description("Turnos pasados a COMPLETADO por el scheduler")
+                .register(meterRegistry);
     }
 
-    // Scheduler que corre cada minuto
-    @Scheduled(fixedRate = 60000)
+    // Reconciliación: ReservaVencimientoTimer completa cada reserva al vencer; esta pasada solo recoge lo
+    // que se le haya escapado. Completa por ids igual que el timer, así el rollup recalcula solo las horas
+    // afectadas, bajo sus locks, en lugar de rearmar días enteros por encima de otras reservas en curso
+    @Scheduled(fixedRateString = "${app.reservas.reconciliation-rate-ms:900000}")
     @Transactional
     public void completarReservasEnProceso() {
-        LocalTime ahora = LocalTime.now();
-        List<Reserva> reservasEnProceso = reservaRepository.findByEstado(ReservaState.EN_PROCESO);
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate hoy = ahora.toLocalDate();
+
+        List<Long> finalizadas = reservaRepository.findIdsFinalizadas(hoy, hoy.minusDays(1), ahora.toLocalTime());
+        int turnos = 0;
+        int reservas = 0;
+        for (int desde = 0; desde < finalizadas.size(); desde += TAMANIO_LOTE) {
+            List<Long> ids = finalizadas.subList(desde, Math.min(desde + TAMANIO_LOTE, finalizadas.size()));
+            // Los turnos primero: se identifican por sus reservas que todavía están EN_PROCESO
+            turnos += turnoRepository.completarPorReservas(ids);
+            reservas += reservaRepository.completarPorIds(ids);
+            ocupacionRollupService.registrarReservas(ids);
+        }
 
-        for (Reserva reserva : reservasEnProceso) {
-            if (reserva.getTurno().getHoraFin().isBefore(ahora)) {
-                reserva.setEstado(ReservaState.COMPLETADA);
+        turnosCompletados.increment(turnos);
+        reservasCompletadas.increment(reservas);
 
-                reserva.getTurno().setEstado(TurnoState.COMPLETADO);
-                reservaRepository.save(reserva);
-            }
+        if (reservas > 0) {
+            log.info("Scheduler: {} reservas y {} turnos completados", reservas, turnos);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,226 @@
+package com.project.deporturnos.scheduler;
+
+import com.project.deporturnos.entity.domain.Reserva;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.dto.ReservaVencimientoDTO;
+import com.project.deporturnos.repository.IReservaRepository;
+import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.service.IOcupacionRollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completa cada reserva EN_PROCESO en el momento en que termina su turno. Guarda el vencimiento
+ * exacto de cada reserva en una DelayQueue: un único hilo duerme hasta el próximo vencimiento y
+ * completa juntas las que vencen a la vez, sin recorrer la tabla. Se carga al iniciar y lo
+ * mantienen al día empezarReserva, cancel, update y delete. El scheduler de reservas queda como
+ * reconciliación de baja frecuencia para lo que se pierda (por ejemplo, un reinicio a mitad de lote).
+ */
+@Component
+@Slf4j
+public class ReservaVencimientoTimer {
+
+    private static final int TAMANIO_LOTE = 500;
+    private static final long REINTENTO_MS = 30_000;
+
+    private final IReservaRepository reservaRepository;
+    private final ITurnoRepository turnoRepository;
+    private final IOcupacionRollupService ocupacionRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter reservasCompletadas;
+
+    private final DelayQueue<Vencimiento> cola = new DelayQueue<>();
+    // Vencimiento vigente de cada reserva; lo que sale de la cola y ya no está acá se descarta
+    private final Map<Long, Vencimiento> pendientes = new ConcurrentHashMap<>();
+
+    private volatile Thread hilo;
+
+    public ReservaVencimientoTimer(IReservaRepository reservaRepository,
+                                   ITurnoRepository turnoRepository,
+                                   IOcupacionRollupService ocupacionRollupService,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.reservaRepository = reservaRepository;
+        this.turnoRepository = turnoRepository;
+        this.ocupacionRollupService = ocupacionRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservasCompletadas = Counter.builder("deporturnos.reservas.vencimientos.completadas")
+                .description("Reservas completadas al vencer su turno")
+                .register(meterRegistry);
+        Gauge.builder("deporturnos.reservas.vencimientos.pendientes", pendientes, Map::size)
+                .description("Reservas EN_PROCESO esperando el fin de su turno")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (hilo != null) {
+            return;
+        }
+
+        List<ReservaVencimientoDTO> enProceso = reservaRepository.findVencimientosEnProceso();
+        for (ReservaVencimientoDTO reserva : enProceso) {
+            agendar(reserva.getReservaId(), finDelTurno(reserva.getFecha(), reserva.getHoraInicio(), reserva.getHoraFin()));
+        }
+        log.info("Vencimientos de reservas cargados: {}", enProceso.size());
+
+        hilo = new Thread(this::procesar, "reserva-vencimientos");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        if (hilo != null) {
+            hilo.interrupt();
+            hilo = null;
+        }
+    }
+
+    /**
+     * Agenda (o reagenda) el fin de una reserva que acaba de pasar a EN_PROCESO.
+     */
+    public void programar(Reserva reserva) {
+        Turno turno = reserva.getTurno();
+        if (reserva.getId() == null || turno == null || turno.getFecha() == null || turno.getHoraFin() == null) {
+            return;
+        }
+
+        Long reservaId = reserva.getId();
+        long fin = finDelTurno(turno.getFecha(), turno.getHoraInicio(), turno.getHoraFin());
+        despuesDelCommit(() -> agendar(reservaId, fin));
+    }
+
+    public void cancelar(Long reservaId) {
+        if (reservaId != null) {
+            despuesDelCommit(() -> {
+                Vencimiento vencimiento = pendientes.remove(reservaId);
+                if (vencimiento != null) {
+                    cola.remove(vencimiento);
+                }
+            });
+        }
+    }
+
+    public int cantidadPendientes() {
+        return pendientes.size();
+    }
+
+    private void agendar(Long reservaId, long finEpochMilli) {
+        Vencimiento vencimiento = new Vencimiento(reservaId, finEpochMilli);
+        Vencimiento anterior = pendientes.put(reservaId, vencimiento);
+        if (anterior != null) {
+            cola.remove(anterior);
+        }
+        cola.put(vencimiento);
+    }
+
+    private void procesar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Vencimiento> vencidos = new ArrayList<>();
+                vencidos.add(cola.take());
+                cola.drainTo(vencidos, TAMANIO_LOTE - 1);
+                completar(vencidos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void completar(List<Vencimiento> vencidos) {
+        List<Long> ids = new ArrayList<>(vencidos.size());
+        List<Vencimiento> vigentes = new ArrayList<>(vencidos.size());
+        for (Vencimiento vencimiento : vencidos) {
+            // Descarta los cancelados y los reagendados con otro vencimiento
+            if (pendientes.remove(vencimiento.reservaId, vencimiento)) {
+                ids.add(vencimiento.reservaId);
+                vigentes.add(vencimiento);
+            }
+        }
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try {
+            Integer completadas = transactionTemplate.execute(status -> {
+                turnoRepository.completarPorReservas(ids);
+                int actualizadas = reservaRepository.completarPorIds(ids);
+                ocupacionRollupService.registrarReservas(ids);
+                return actualizadas;
+            });
+            reservasCompletadas.increment(completadas != null ? completadas : 0);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron completar {} reservas vencidas, se reintenta: {}", ids.size(), e.getMessage());
+            long reintento = System.currentTimeMillis() + REINTENTO_MS;
+            for (Vencimiento vencimiento : vigentes) {
+                // Salvo que mientras tanto se haya reagendado
+                if (!pendientes.containsKey(vencimiento.reservaId)) {
+                    agendar(vencimiento.reservaId, reintento);
+                }
+            }
+        }
+    }
+
+    // Si horaFin no supera a horaInicio el turno termina al día siguiente
+    static long finDelTurno(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        LocalDate dia = horaInicio != null && !horaFin.isAfter(horaInicio) ? fecha.plusDays(1) : fecha;
+        return dia.atTime(horaFin).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Un cambio que no llega a confirmarse nunca debe alterar la cola
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private static final class Vencimiento implements Delayed {
+        private final Long reservaId;
+        private final long finEpochMilli;
+
+        private Vencimiento(Long reservaId, long finEpochMilli) {
+            this.reservaId = reservaId;
+            this.finEpochMilli = finEpochMilli;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(finEpochMilli - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed otro) {
+            return Long.compare(finEpochMilli, ((Vencimiento) otro).finEpochMilli);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.project.deporturnos.security;
 
+import com.project.deporturnos.entity.domain.Usuario;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +10,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -17,19 +17,25 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Autentica cada request con su JWT. Por defecto el principal sale de PrincipalCache; con
+ * {@code app.security.auth-mode=claims} se arma solo con los claims verificados y se controla
+ * contra las revocaciones en memoria, sin tocar la base.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         final String token = getTokenFromRequest(request);
-        final String username;
 
         if (token==null)
         {
@@ -37,20 +43,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        username = jwtService.getUsernameFromToken(token);
+        // Único parseo del token: firma y vencimiento quedan verificados acá
+        final Claims claims = jwtService.parseClaims(token);
+        final String username = claims.getSubject();
 
         if (username!=null && SecurityContextHolder.getContext().getAuthentication()==null)
         {
-            UserDetails userDetails=userDetailsService.loadUserByUsername(username);
+            Usuario usuario=resolverPrincipal(claims);
 
-            if (jwtService.isTokenValid(token, userDetails))
+            // Un usuario bloqueado o eliminado no se autentica aunque su token siga vigente
+            if (usuario != null && usuario.isEnabled() && !usuario.isDeleted() && jwtService.isTokenValid(claims, usuario))
             {
                 UsernamePasswordAuthenticationToken authToken= new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        usuario,
                         null,
-                        userDetails.getAuthorities());
+                        usuario.getAuthorities());
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authToken.setDetails(detailsSource.buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -59,6 +68,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Usuario resolverPrincipal(Claims claims) {
+        if (tokenRevocationService.isModoClaims()) {
+            Usuario usuario = jwtService.principalFromClaims(claims);
+            if (usuario != null) {
+                return tokenRevocationService.estaRevocado(usuario.getId(), claims.getIssuedAt()) ? null : usuario;
+            }
+        }
+        return principalCache.obtener(claims.getSubject());
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         final String authHeader=request.getHeader(HttpHeaders.AUTHORIZATION);
 
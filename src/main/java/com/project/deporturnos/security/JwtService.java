@@ -1,7 +1,9 @@
 package com.project.deporturnos.security;
 
+import com.project.deporturnos.entity.domain.Rol;
 import com.project.deporturnos.entity.domain.Usuario;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -17,71 +19,92 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Emite y verifica los JWT. La clave HMAC y el parser se arman una sola vez al iniciar (el
+ * parser es inmutable y seguro entre hilos), y cada token se verifica con un único parseo:
+ * firma y vencimiento se validan ahí mismo, el resto se lee de los claims ya obtenidos.
+ * Los tokens de sesión llevan además id y estado de la cuenta, para el modo de autenticación por
+ * claims ({@code app.security.auth-mode=claims}), que arma el principal sin ir a la base.
+ */
 @Service
 public class JwtService {
 
-    @Value("${security.jwt.secret-key}")
-    private String SECRET_KEY;
+    static final String CLAIM_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_ACTIVADA = "activada";
+
+    private final Key key;
+    private final JwtParser parser;
 
     @Getter
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpirationTime;
+    private final long jwtExpirationTime;
 
+    public JwtService(@Value("${security.jwt.secret-key}") String secretKey,
+                      @Value("${security.jwt.expiration-time}") long jwtExpirationTime) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.jwtExpirationTime = jwtExpirationTime;
+    }
 
     public String getToken(Usuario user) {
-        Map<String, Object> claims = Map.of("roles", List.of(user.getRol()));
-        return getToken(claims, user);
+        Map<String, Object> claims = Map.of(
+                CLAIM_ROLES, List.of(user.getRol()),
+                CLAIM_ID, user.getId(),
+                CLAIM_ACTIVADA, user.isActivada());
+        return getToken(user.getUsername(), claims);
     }
 
-    private String getToken(Map<String,Object> extraClaims, UserDetails user) {
+    public String getToken(String subject, Map<String, Object> extraClaims) {
+        long ahora = System.currentTimeMillis();
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
-                .setSubject(user.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationTime))
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .setSubject(subject)
+                .setIssuedAt(new Date(ahora))
+                .setExpiration(new Date(ahora + jwtExpirationTime))
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifica firma y vencimiento y devuelve los claims. Lanza JwtException si el token es
+     * inválido o está vencido.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String getUsernameFromToken(String token) {
         return getClaim(token, Claims::getSubject);
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username=getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername())&& !isTokenExpired(token));
-    }
-
-    private Claims getAllClaims(String token)
-    {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    public <T> T getClaim(String token, Function<Claims,T> claimsResolver)
-    {
-        final Claims claims=getAllClaims(token);
-        return claimsResolver.apply(claims);
+    public <T> T getClaim(String token, Function<Claims, T> claimsResolver) {
+        return claimsResolver.apply(parseClaims(token));
     }
 
-    private Date getExpiration(String token)
-    {
-        return getClaim(token, Claims::getExpiration);
+    // Sobre claims ya verificados por parseClaims: no vuelve a parsear el token
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        Date expiration = claims.getExpiration();
+        return userDetails.getUsername().equals(claims.getSubject())
+                && (expiration == null || expiration.after(new Date()));
     }
 
-    private boolean isTokenExpired(String token)
-    {
-        return getExpiration(token).before(new Date());
+    /**
+     * Principal armado solo con los claims de un token de sesión ya verificado. Devuelve null si
+     * el token no trae id (tokens emitidos antes de este modo), para que se resuelva por la base.
+     */
+    public Usuario principalFromClaims(Claims claims) {
+        Number id = claims.get(CLAIM_ID, Number.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (id == null || roles == null || roles.isEmpty()) {
+            return null;
+        }
+
+        Usuario usuario = new Usuario();
+        usuario.setId(id.longValue());
+        usuario.setEmail(claims.getSubject());
+        usuario.setRol(Rol.valueOf(roles.get(0).toString()));
+        usuario.setActivada(Boolean.TRUE.equals(claims.get(CLAIM_ACTIVADA, Boolean.class)));
+        return usuario;
     }
-
 }
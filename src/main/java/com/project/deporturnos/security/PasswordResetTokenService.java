@@ -2,33 +2,19 @@ package com.project.deporturnos.security;
 
 import com.project.deporturnos.entity.domain.Usuario;
 import com.project.deporturnos.exception.ResourceNotFoundException;
-import com.project.deporturnos.service.implementation.EmailService;
+import com.project.deporturnos.service.IEmailOutboxService;
 import com.project.deporturnos.service.implementation.UsuarioService;
 import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import jakarta.mail.MessagingException;
-import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PasswordResetTokenService {
-    @Value("${security.jwt.secret-key}")
-    private String SECRET_KEY;
-
-    @Getter
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpirationTime;
-
     @Autowired
-    private EmailService emailService;
+    private IEmailOutboxService emailOutboxService;
 
     @Autowired
     private JwtService jwtService;
@@ -37,19 +23,12 @@ public class PasswordResetTokenService {
     private UsuarioService usuarioService;
 
     public String generateToken(String email, List<String> roles) {
-        return Jwts.builder()
-                .setSubject(email)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationTime))
-                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)), SignatureAlgorithm.HS256)
-                .claim("roles", roles)
-                .compact();
+        return jwtService.getToken(email, Map.of("roles", roles));
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
-                    .build().parseClaimsJws(token);
+            jwtService.parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -70,11 +49,7 @@ public class PasswordResetTokenService {
                 + "</div>"
                 + "</body>"
                 + "</html>";
-        try {
-            emailService.sendEmail(email, subject, htmlMessage);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Error al enviar el correo de restablecimiento de contraseña.");
-        }
+        emailOutboxService.encolar(email, subject, htmlMessage);
     }
 
     public Usuario getUserByToken(String token){
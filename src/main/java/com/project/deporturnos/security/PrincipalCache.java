@@ -0,0 +1,95 @@
+package com.project.deporturnos.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.deporturnos.entity.domain.Usuario;
+import com.project.deporturnos.repository.IUsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Principales autenticados por email, para que JwtAuthenticationFilter no consulte la base en
+ * cada request. Acotada en tamaño y con TTL, que es el límite de desfase entre instancias.
+ * En esta instancia cualquier cambio en un usuario invalida su entrada al confirmarse: la
+ * carga y la invalidación de una misma clave son atómicas, así que una carga que leyó el estado
+ * anterior nunca sobrevive a la invalidación. El login no pasa por acá: siempre lee la base.
+ */
+@Component
+public class PrincipalCache {
+
+    private final IUsuarioRepository usuarioRepository;
+    private final Cache<String, Usuario> principales;
+
+    public PrincipalCache(IUsuarioRepository usuarioRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSegundos,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maximo) {
+        this.usuarioRepository = usuarioRepository;
+        this.principales = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .maximumSize(maximo)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principales, "principales");
+    }
+
+    /**
+     * Devuelve una copia propia del principal: cada request puede modificar la suya sin afectar
+     * a las demás ni a la entrada cacheada.
+     */
+    public Usuario obtener(String email) {
+        Usuario usuario = principales.get(email, clave -> usuarioRepository.findByEmail(clave)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found.")));
+        return copia(usuario);
+    }
+
+    // Después del commit: invalidar antes dejaría que una carga concurrente cachee el estado viejo
+    public void invalidar(String... emails) {
+        Runnable invalidacion = () -> {
+            for (String email : emails) {
+                if (email != null) {
+                    principales.invalidate(email);
+                }
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidacion.run();
+                }
+            });
+        } else {
+            invalidacion.run();
+        }
+    }
+
+    public long tamanio() {
+        principales.cleanUp();
+        return principales.estimatedSize();
+    }
+
+    private static Usuario copia(Usuario usuario) {
+        return Usuario.builder()
+                .id(usuario.getId())
+                .nombre(usuario.getNombre())
+                .email(usuario.getEmail())
+                .password(usuario.getPassword())
+                .telefono(usuario.getTelefono())
+                .rol(usuario.getRol())
+                .activada(usuario.isActivada())
+                .verificationCode(usuario.getVerificationCode())
+                .verificationCodeExpiresAt(usuario.getVerificationCodeExpiresAt())
+                .deleted(usuario.isDeleted())
+                .notificaciones(usuario.isNotificaciones())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.project.deporturnos.security;
+
+import com.project.deporturnos.entity.domain.TokenRevocacion;
+import com.project.deporturnos.repository.ITokenRevocacionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocación de tokens para el modo de autenticación por claims, donde el filtro no consulta la
+ * base. Bloquear, eliminar o cambiar el rol de un usuario invalida todos los tokens que tenía
+ * emitidos. La revocación se guarda en la tabla token_revocacion y cada instancia la replica en
+ * un mapa en memoria (usuario → instante), que sincroniza cada {@code app.security.revocation.refresh-ms}.
+ * El mapa solo guarda revocaciones más recientes que la duración de un token, así que su tamaño
+ * queda acotado por los cambios de ese período y una consulta exacta alcanza.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final ITokenRevocacionRepository tokenRevocacionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long vidaTokenMs;
+    private final boolean modoClaims;
+    private final Counter rechazados;
+
+    // Usuario → segundo epoch hasta el cual (inclusive) sus tokens no valen
+    private final Map<Long, Long> revocados = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(ITokenRevocacionRepository tokenRevocacionRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.jwt.expiration-time}") long vidaTokenMs,
+                                  @Value("${app.security.auth-mode:principal}") String modo) {
+        this.tokenRevocacionRepository = tokenRevocacionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.vidaTokenMs = vidaTokenMs;
+        this.modoClaims = "claims".equalsIgnoreCase(modo);
+        this.rechazados = Counter.builder("deporturnos.auth.tokens.revocados.rechazados")
+                .description("Requests rechazados por presentar un token revocado")
+                .register(meterRegistry);
+        Gauge.builder("deporturnos.auth.tokens.revocados", revocados, Map::size)
+                .description("Usuarios con tokens revocados aún vigentes")
+                .register(meterRegistry);
+    }
+
+    public boolean isModoClaims() {
+        return modoClaims;
+    }
+
+    /**
+     * Invalida todos los tokens emitidos hasta ahora para el usuario. Se persiste en la transacción
+     * en curso y se aplica en memoria recién al confirmarse.
+     */
+    public void revocar(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+
+        // Los tokens guardan la emisión en segundos: todo lo emitido en este mismo segundo también cae
+        Instant hasta = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        tokenRevocacionRepository.save(new TokenRevocacion(usuarioId, LocalDateTime.ofInstant(hasta, ZoneId.systemDefault())));
+
+        Runnable aplicar = () -> revocados.merge(usuarioId, hasta.getEpochSecond(), Math::max);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar.run();
+                }
+            });
+        } else {
+            aplicar.run();
+        }
+    }
+
+    public boolean estaRevocado(Long usuarioId, Date emitido) {
+        Long hasta = revocados.get(usuarioId);
+        if (hasta == null) {
+            return false;
+        }
+
+        boolean revocado = emitido == null || emitido.getTime() / 1000 <= hasta;
+        if (revocado) {
+            rechazados.increment();
+        }
+        return revocado;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (modoClaims) {
+            sincronizar();
+        }
+    }
+
+    // Trae las revocaciones hechas en otras instancias
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms:5000}")
+    public void sincronizar() {
+        if (!modoClaims) {
+            return;
+        }
+
+        LocalDateTime limite = LocalDateTime.now().minus(vidaTokenMs, ChronoUnit.MILLIS);
+        List<TokenRevocacion> vigentes = tokenRevocacionRepository.findByRevocadoAfter(limite);
+        for (TokenRevocacion revocacion : vigentes) {
+            long hasta = revocacion.getRevocado().atZone(ZoneId.systemDefault()).toEpochSecond();
+            revocados.merge(revocacion.getUsuarioId(), hasta, Math::max);
+        }
+
+        long limiteEpoch = limite.atZone(ZoneId.systemDefault()).toEpochSecond();
+        revocados.values().removeIf(hasta -> hasta < limiteEpoch);
+    }
+
+    @Scheduled(cron = "${app.security.revocation.cleanup-cron:0 45 3 * * *}")
+    public void limpiar() {
+        LocalDateTime limite = LocalDateTime.now().minus(vidaTokenMs, ChronoUnit.MILLIS);
+        Integer eliminadas = transactionTemplate.execute(status -> tokenRevocacionRepository.eliminarAnterioresA(limite));
+        log.info("Revocaciones de tokens vencidas eliminadas: {}", eliminadas);
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.deporturnos.service;
 
+import com.project.deporturnos.availability.CanchaCatalog;
 import com.project.deporturnos.entity.dto.CanchaRequestDTO;
 import com.project.deporturnos.entity.dto.CanchaRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.CanchaResponseDTO;
@@ -18,4 +19,8 @@ public interface ICanchaService {
 
     List<CanchaResponseDTO> getAvailableByDeporte(String deporte);
 
+    CanchaCatalog.Vista getCatalogo();
+
+    CanchaCatalog.Vista getCatalogoDisponibles(String deporte);
+
 }
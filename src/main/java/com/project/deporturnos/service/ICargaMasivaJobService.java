@@ -0,0 +1,10 @@
+package com.project.deporturnos.service;
+
+import com.project.deporturnos.entity.dto.CargaMasivaJobRequestDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaJobResponseDTO;
+
+public interface ICargaMasivaJobService {
+    CargaMasivaJobResponseDTO submit(CargaMasivaJobRequestDTO cargaMasivaJobRequestDTO);
+
+    CargaMasivaJobResponseDTO getById(String id);
+}
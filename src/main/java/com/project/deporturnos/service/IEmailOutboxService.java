@@ -0,0 +1,8 @@
+package com.project.deporturnos.service;
+
+public interface IEmailOutboxService {
+
+    void encolar(String destinatario, String asunto, String cuerpo);
+
+    void encolarConQr(String destinatario, String asunto, String cuerpo, String qr);
+}
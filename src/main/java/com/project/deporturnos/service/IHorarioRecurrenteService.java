@@ -0,0 +1,25 @@
+package com.project.deporturnos.service;
+
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.HorarioRecurrenteRequestDTO;
+import com.project.deporturnos.entity.dto.HorarioRecurrenteResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IHorarioRecurrenteService {
+    HorarioRecurrenteResponseDTO save(HorarioRecurrenteRequestDTO horarioRecurrenteRequestDTO);
+
+    List<HorarioRecurrenteResponseDTO> getByCancha(Long canchaId);
+
+    void delete(Long id);
+
+    List<TurnoResponseDTO> expandir(Long canchaId, LocalDate fecha);
+
+    Turno materializar(TurnoSlotRequestDTO turnoSlotRequestDTO, TurnoState estado);
+
+    void invalidarCancha(Long canchaId);
+}
@@ -0,0 +1,18 @@
+package com.project.deporturnos.service;
+
+import com.project.deporturnos.entity.domain.Turno;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface IOcupacionRollupService {
+
+    void registrar(Turno turno);
+
+    void registrar(Long canchaId, LocalDate fecha, LocalTime horaInicio);
+
+    void registrarReservas(List<Long> reservaIds);
+
+    int reconstruir(LocalDate fechaDesde, LocalDate fechaHasta);
+}
@@ -1,9 +1,15 @@
 package com.project.deporturnos.service;
 
+import com.project.deporturnos.entity.domain.AgrupacionGanancias;
+import com.project.deporturnos.entity.dto.GananciaGrupoDTO;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 public interface IReportsService {
 
     BigDecimal calcularGananciasGenerales(LocalDate fechaDesde, LocalDate fechaHasta);
+
+    List<GananciaGrupoDTO> calcularGananciasAgrupadas(LocalDate fechaDesde, LocalDate fechaHasta, AgrupacionGanancias agrupacion);
 }
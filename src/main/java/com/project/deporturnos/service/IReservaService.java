@@ -1,8 +1,10 @@
 package com.project.deporturnos.service;
 
+import com.project.deporturnos.entity.dto.CursorPageDTO;
 import com.project.deporturnos.entity.dto.ReservaRequestDTO;
 import com.project.deporturnos.entity.dto.ReservaRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.ReservaResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
 
 import java.time.LocalDate;
 
@@ -19,10 +21,14 @@ public interface IReservaService {
 
     ReservaResponseDTO saveReservaByUser(ReservaRequestDTO reservaRequestDTO);
 
+    ReservaResponseDTO saveReservaBySlot(TurnoSlotRequestDTO turnoSlotRequestDTO);
+
     void cancel(Long id);
 
     Page<ReservaResponseDTO> getReservasEntreFechas(LocalDate fechaDesde, LocalDate fechaHasta, int page, int size, String sortBy);
 
+    CursorPageDTO<ReservaResponseDTO> getCursorPage(LocalDate fechaDesde, LocalDate fechaHasta, String cursor, int size, String sortBy, boolean conTotal);
+
     ReservaResponseDTO getById(Long id);
 
     void empezarReserva(Long reservaId);
@@ -1,14 +1,19 @@
 package com.project.deporturnos.service;
 
+import com.project.deporturnos.entity.dto.CargaMasivaResultadoDTO;
 import com.project.deporturnos.entity.dto.CargaMasivaTurnosDTO;
+import com.project.deporturnos.entity.dto.CursorPageDTO;
 import com.project.deporturnos.entity.dto.TurnoRequestDTO;
 import com.project.deporturnos.entity.dto.TurnoRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface ITurnoService {
     TurnoResponseDTO save(TurnoRequestDTO turnoRequestDTO);
@@ -21,7 +26,24 @@ public interface ITurnoService {
 
     List<TurnoResponseDTO> getAllAvailableByCanchaAndDate(Long id, LocalDate fecha);
 
-    int cargaMasivaTurnos(CargaMasivaTurnosDTO cargaMasivaTurnosDTO);
+    // Turnos libres más cercanos a uno ocupado (que nunca se sugiere), solo desde memoria
+    List<TurnoResponseDTO> getAlternativas(Long turnoId, Long canchaId, LocalDate fecha, LocalTime horaInicio,
+                                           LocalTime horaFin, int cantidad);
+
+    List<TurnoResponseDTO> buscarDisponibles(String deporte, LocalDate fechaDesde, LocalDate fechaHasta,
+                                             LocalTime horaDesde, LocalTime horaHasta, Integer duracionMinima, int size);
+
+    // ETag de una lista de turnos disponibles, calculado sobre su contenido
+    String getDisponiblesEtag(List<TurnoResponseDTO> disponibles);
+
+    // Lista inicial de disponibles y después los cambios de cada turno de ese día, por SSE
+    SseEmitter suscribirDisponibles(Long id, LocalDate fecha);
+
+    TurnoResponseDTO bloquear(TurnoSlotRequestDTO turnoSlotRequestDTO);
+
+    CargaMasivaResultadoDTO cargaMasivaTurnos(CargaMasivaTurnosDTO cargaMasivaTurnosDTO);
 
     Page<TurnoResponseDTO> getTurnosEntreFechas(LocalDate fechaDesde, LocalDate fechaHasta, int page, int size, String sortBy);
+
+    CursorPageDTO<TurnoResponseDTO> getCursorPage(LocalDate fechaDesde, LocalDate fechaHasta, String cursor, int size, String sortBy, boolean conTotal);
 }
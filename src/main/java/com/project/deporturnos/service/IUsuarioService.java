@@ -16,6 +16,8 @@ public interface IUsuarioService {
 
     Page<UsuarioSimpleDTO> getPaginatedData(Pageable pageable, String search);
 
+    CursorPageDTO<UsuarioSimpleDTO> getCursorPage(String search, String cursor, int size, String sortBy, boolean conTotal);
+
     void delete(Long id);
 
     UsuarioResponseDTO changeRole(Long id);
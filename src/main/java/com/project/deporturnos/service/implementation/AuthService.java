@@ -9,16 +9,14 @@ import com.project.deporturnos.entity.dto.VerifyUserDTO;
 import com.project.deporturnos.exception.InvalidEmailException;
 import com.project.deporturnos.exception.InvalidPasswordException;
 import com.project.deporturnos.exception.UserAlreadyExistsException;
-import com.project.deporturnos.exception.VerificationEmailException;
 import com.project.deporturnos.repository.IUsuarioRepository;
 import com.project.deporturnos.security.JwtService;
-import jakarta.mail.MessagingException;
+import com.project.deporturnos.service.IEmailOutboxService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -38,7 +36,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
-    private final EmailService emailService;
+    private final IEmailOutboxService emailOutboxService;
 
     @Transactional
     public RegistrationResponseDTO signup(RegistrationRequestDTO request) {
@@ -66,7 +64,7 @@ public class AuthService {
 
             userRepository.save(user);
 
-            sendVerificationEmailAsync(user);
+            sendVerificationEmail(user);
 
             String token = jwtService.getToken(user);
 
@@ -83,15 +81,6 @@ public class AuthService {
         }
     }
 
-    @Async
-    public void sendVerificationEmailAsync(Usuario user) {
-        try {
-            sendVerificationEmail(user);
-        } catch (Exception e) {
-            log.error("No se pudo enviar el email de verificación a {}: {}", user.getEmail(), e.getMessage());
-        }
-    }
-
     public String generateVerificationCode() {
         Random random = new Random();
         int code = random.nextInt(900000) + 100000;
@@ -116,11 +105,8 @@ public class AuthService {
                 + "</body>"
                 + "</html>";
 
-        try {
-            emailService.sendEmail(user.getEmail(), subject, body);
-        } catch (MessagingException e) {
-            throw new VerificationEmailException("Error al enviar el código de verificación.");
-        }
+        // Sale por el outbox junto con el alta o el nuevo código del usuario
+        emailOutboxService.encolar(user.getEmail(), subject, body);
     }
 
     public void verifyUser(VerifyUserDTO input) {
@@ -143,6 +129,7 @@ public class AuthService {
         }
     }
 
+    @Transactional
     public void resendVerificationCode(String email) {
         Optional<Usuario> optionalUser = userRepository.findByEmail(email);
         if (optionalUser.isPresent()) {
@@ -152,8 +139,8 @@ public class AuthService {
             }
             user.setVerificationCode(generateVerificationCode());
             user.setVerificationCodeExpiresAt(LocalDateTime.now().plusHours(1));
-            sendVerificationEmail(user);
             userRepository.save(user);
+            sendVerificationEmail(user);
         } else {
             throw new RuntimeException("Usuario no encontrado.");
         }
@@ -1,14 +1,17 @@
 package com.project.deporturnos.service.implementation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.availability.CanchaCatalog;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
 import com.project.deporturnos.entity.domain.Cancha;
 import com.project.deporturnos.entity.domain.TurnoState;
 import com.project.deporturnos.entity.dto.CanchaRequestDTO;
 import com.project.deporturnos.entity.dto.CanchaRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.CanchaResponseDTO;
 import com.project.deporturnos.exception.ResourceNotFoundException;
+import com.project.deporturnos.mapper.CanchaMapper;
 import com.project.deporturnos.repository.ICanchaRepository;
 import com.project.deporturnos.service.ICanchaService;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -21,33 +24,37 @@ import java.util.Optional;
 public class CanchaService implements ICanchaService {
 
     private final ICanchaRepository canchaRepository;
-    private final ObjectMapper mapper;
+    private final CanchaMapper canchaMapper;
+    private final TurnoAvailabilityIndex availabilityIndex;
+    private final IHorarioRecurrenteService horarioRecurrenteService;
+    private final CanchaCatalog canchaCatalog;
 
 
     @Override
     public CanchaResponseDTO save(CanchaRequestDTO canchaRequestDTO){
-        Cancha cancha = mapper.convertValue(canchaRequestDTO, Cancha.class);
+        Cancha cancha = canchaMapper.toEntity(canchaRequestDTO);
         cancha.setDisponibilidad(true);
 
         Cancha canchaSaved = canchaRepository.save(cancha);
-        return mapper.convertValue(canchaSaved, CanchaResponseDTO.class);
+        canchaCatalog.invalidar();
+        return canchaMapper.toResponseDTO(canchaSaved);
     }
 
 
     @Override
     public List<CanchaResponseDTO> getAll(){
-        List<Cancha> canchas = canchaRepository.findAllByDeletedFalse();
+        return getCatalogo().canchas();
+    }
 
-        if(canchas.isEmpty()){
-            throw new ResourceNotFoundException("No se encontraron canchas para listar.");
-        }
+    @Override
+    public CanchaCatalog.Vista getCatalogo() {
+        CanchaCatalog.Vista catalogo = canchaCatalog.todas();
 
-        List<CanchaResponseDTO> canchaResponseDTOS = new ArrayList<>();
-        for(Cancha cancha : canchas){
-            canchaResponseDTOS.add(mapper.convertValue(cancha, CanchaResponseDTO.class));
+        if(catalogo.canchas().isEmpty()){
+            throw new ResourceNotFoundException("No se encontraron canchas para listar.");
         }
 
-        return canchaResponseDTOS;
+        return catalogo;
     }
 
 
@@ -81,7 +88,10 @@ public class CanchaService implements ICanchaService {
         cancha.setDisponibilidad(canchaRequestUpdateDTO.isDisponibilidad());
 
         Cancha canchaUpdated = canchaRepository.save(cancha);
-        return mapper.convertValue(canchaUpdated, CanchaResponseDTO.class);
+        availabilityIndex.registrarCancha(canchaUpdated);
+        horarioRecurrenteService.invalidarCancha(canchaUpdated.getId());
+        canchaCatalog.invalidar();
+        return canchaMapper.toResponseDTO(canchaUpdated);
     }
 
 
@@ -97,6 +107,9 @@ public class CanchaService implements ICanchaService {
                 turno.getReservas().forEach(reserva -> reserva.setDeleted(true));
             });
             canchaRepository.save(cancha);
+            availabilityIndex.registrarCancha(cancha);
+            horarioRecurrenteService.invalidarCancha(cancha.getId());
+            canchaCatalog.invalidar();
         });
 
         if (canchaOptional.isEmpty()) {
@@ -108,20 +121,15 @@ public class CanchaService implements ICanchaService {
 
     @Override
     public List<CanchaResponseDTO> getAvailableByDeporte(String deporte) {
+        return getCatalogoDisponibles(deporte).canchas();
+    }
 
-        List<Cancha> canchas = canchaRepository.findAll();
-
-        if(canchas.isEmpty()){
+    @Override
+    public CanchaCatalog.Vista getCatalogoDisponibles(String deporte) {
+        if(canchaCatalog.todas().canchas().isEmpty()){
             throw new ResourceNotFoundException("No se encontraron canchas para listar.");
         }
 
-        List<CanchaResponseDTO> canchaAvailableResponseDTOS = new ArrayList<>();
-       for(Cancha cancha : canchas){
-           if(!cancha.isDeleted() && cancha.isDisponibilidad() && cancha.getDeporte().toString().equals(deporte.toUpperCase())){
-              canchaAvailableResponseDTOS.add(mapper.convertValue(cancha, CanchaResponseDTO.class));
-          }
-       }
-
-        return canchaAvailableResponseDTOS;
+        return canchaCatalog.disponibles(deporte);
     }
 }
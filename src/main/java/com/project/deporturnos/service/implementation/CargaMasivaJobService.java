@@ -0,0 +1,218 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.entity.domain.CargaMasivaJobState;
+import com.project.deporturnos.entity.dto.CargaMasivaJobRequestDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaJobResponseDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaResultadoDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaTurnosDTO;
+import com.project.deporturnos.exception.BusinessRuleException;
+import com.project.deporturnos.exception.ResourceNotFoundException;
+import com.project.deporturnos.service.ICargaMasivaJobService;
+import com.project.deporturnos.service.ITurnoService;
+import com.project.deporturnos.utils.ExecutorMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta cargas masivas de turnos en segundo plano. Cada carga se parte en bloques de una
+ * semana por cancha; cada bloque corre en su propia transacción sobre un pool acotado, así un
+ * error en una semana no deshace el resto y ningún request queda esperando.
+ */
+@Service
+@Slf4j
+public class CargaMasivaJobService implements ICargaMasivaJobService {
+
+    private static final int DIAS_POR_BLOQUE = 7;
+
+    private final ITurnoService turnoService;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorMetrics metricas;
+    private final long retencionHoras;
+
+    private final Map<String, CargaMasivaJob> jobs = new ConcurrentHashMap<>();
+
+    public CargaMasivaJobService(ITurnoService turnoService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.carga-masiva.threads:4}") int hilos,
+                                 @Value("${app.carga-masiva.queue-capacity:2000}") int capacidadCola,
+                                 @Value("${app.carga-masiva.retention-hours:24}") long retencionHoras) {
+        this.turnoService = turnoService;
+        this.retencionHoras = retencionHoras;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "carga-masiva-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        this.metricas = new ExecutorMetrics(meterRegistry, "carga-masiva",
+                () -> executor.getQueue().size(), executor::getActiveCount);
+        this.executor.setRejectedExecutionHandler(metricas.contarRechazos(new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    @Override
+    public CargaMasivaJobResponseDTO submit(CargaMasivaJobRequestDTO cargaMasivaJobRequestDTO) {
+        List<CargaMasivaTurnosDTO> bloques = new ArrayList<>();
+        for (CargaMasivaTurnosDTO carga : cargaMasivaJobRequestDTO.getCargas()) {
+            bloques.addAll(partirPorSemana(carga));
+        }
+
+        if (bloques.isEmpty()) {
+            throw new IllegalArgumentException("La carga masiva no contiene turnos para generar.");
+        }
+
+        // Se rechaza entera antes de encolar nada, para no dejar trabajos a medias
+        if (bloques.size() > executor.getQueue().remainingCapacity()) {
+            throw new BusinessRuleException("Hay demasiadas cargas masivas en curso, intente nuevamente más tarde.");
+        }
+
+        CargaMasivaJob job = new CargaMasivaJob(UUID.randomUUID().toString(), bloques.size());
+        jobs.put(job.id, job);
+
+        for (CargaMasivaTurnosDTO bloque : bloques) {
+            try {
+                executor.execute(metricas.medir(() -> procesarBloque(job, bloque)));
+            } catch (RejectedExecutionException e) {
+                job.registrarError(bloque, "Bloque rechazado por la cola de carga masiva.");
+            }
+        }
+
+        log.info("Carga masiva {} encolada: {} bloques", job.id, bloques.size());
+        return job.aDTO();
+    }
+
+    @Override
+    public CargaMasivaJobResponseDTO getById(String id) {
+        CargaMasivaJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Carga masiva no encontrada.");
+        }
+        return job.aDTO();
+    }
+
+    // Los trabajos terminados se conservan un tiempo para poder consultarlos
+    @Scheduled(fixedRate = 3600000)
+    public void limpiarFinalizados() {
+        LocalDateTime limite = LocalDateTime.now().minusHours(retencionHoras);
+        jobs.values().removeIf(job -> job.finalizado != null && job.finalizado.isBefore(limite));
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    private void procesarBloque(CargaMasivaJob job, CargaMasivaTurnosDTO bloque) {
+        job.bloqueIniciado();
+        try {
+            CargaMasivaResultadoDTO resultado = turnoService.cargaMasivaTurnos(bloque);
+            job.registrarResultado(resultado);
+        } catch (RuntimeException e) {
+            log.warn("Carga masiva {}: falló el bloque de la cancha {} desde {}: {}",
+                    job.id, bloque.getCanchaId(), bloque.getFechaDesde(), e.getMessage());
+            job.registrarError(bloque, e.getMessage());
+        }
+    }
+
+    private List<CargaMasivaTurnosDTO> partirPorSemana(CargaMasivaTurnosDTO carga) {
+        if (carga.getCanchaId() == null || carga.getFechaDesde() == null || carga.getFechaHasta() == null
+                || carga.getHoraDesde() == null || carga.getHoraHasta() == null) {
+            throw new IllegalArgumentException("Cada carga debe indicar cancha, fechas y horarios.");
+        }
+        if (carga.getFechaHasta().isBefore(carga.getFechaDesde())) {
+            throw new IllegalArgumentException("La fecha hasta no puede ser anterior a la fecha desde.");
+        }
+        if (carga.getDuracionEnMinutos() <= 0) {
+            throw new IllegalArgumentException("La duración de los turnos debe ser mayor a cero.");
+        }
+
+        List<CargaMasivaTurnosDTO> bloques = new ArrayList<>();
+        LocalDate inicio = carga.getFechaDesde();
+        while (!inicio.isAfter(carga.getFechaHasta())) {
+            LocalDate fin = inicio.plusDays(DIAS_POR_BLOQUE - 1);
+            if (fin.isAfter(carga.getFechaHasta())) {
+                fin = carga.getFechaHasta();
+            }
+            bloques.add(new CargaMasivaTurnosDTO(inicio, fin, carga.getHoraDesde(), carga.getHoraHasta(),
+                    carga.getDuracionEnMinutos(), carga.getCanchaId()));
+            inicio = fin.plusDays(1);
+        }
+        return bloques;
+    }
+
+    private static class CargaMasivaJob {
+        private final String id;
+        private final int bloquesTotales;
+        private final LocalDateTime creado = LocalDateTime.now();
+        private final AtomicInteger bloquesProcesados = new AtomicInteger();
+        private final AtomicInteger turnosCreados = new AtomicInteger();
+        private final AtomicInteger turnosOmitidos = new AtomicInteger();
+        private final ConcurrentLinkedQueue<String> errores = new ConcurrentLinkedQueue<>();
+        // Algún bloque empezó a ejecutarse, aunque todavía no haya terminado ninguno
+        private volatile boolean iniciado;
+        private volatile LocalDateTime finalizado;
+
+        private CargaMasivaJob(String id, int bloquesTotales) {
+            this.id = id;
+            this.bloquesTotales = bloquesTotales;
+        }
+
+        private void bloqueIniciado() {
+            iniciado = true;
+        }
+
+        private void registrarResultado(CargaMasivaResultadoDTO resultado) {
+            turnosCreados.addAndGet(resultado.getTurnosCreados());
+            turnosOmitidos.addAndGet(resultado.getTurnosOmitidos());
+            bloqueTerminado();
+        }
+
+        private void registrarError(CargaMasivaTurnosDTO bloque, String mensaje) {
+            errores.add(String.format("Cancha %d, %s a %s: %s",
+                    bloque.getCanchaId(), bloque.getFechaDesde(), bloque.getFechaHasta(), mensaje));
+            bloqueTerminado();
+        }
+
+        private void bloqueTerminado() {
+            if (bloquesProcesados.incrementAndGet() == bloquesTotales) {
+                finalizado = LocalDateTime.now();
+            }
+        }
+
+        private CargaMasivaJobState estado() {
+            int procesados = bloquesProcesados.get();
+            if (procesados == 0 && !iniciado) {
+                return CargaMasivaJobState.PENDIENTE;
+            }
+            if (procesados < bloquesTotales) {
+                return CargaMasivaJobState.EN_CURSO;
+            }
+            return errores.isEmpty() ? CargaMasivaJobState.COMPLETADO : CargaMasivaJobState.COMPLETADO_CON_ERRORES;
+        }
+
+        private CargaMasivaJobResponseDTO aDTO() {
+            return new CargaMasivaJobResponseDTO(id, estado(), bloquesTotales, bloquesProcesados.get(),
+                    turnosCreados.get(), turnosOmitidos.get(), new ArrayList<>(errores), creado, finalizado);
+        }
+    }
+}
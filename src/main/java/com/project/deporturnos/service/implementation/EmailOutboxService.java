@@ -0,0 +1,46 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.entity.domain.EmailOutbox;
+import com.project.deporturnos.entity.domain.EmailOutboxState;
+import com.project.deporturnos.repository.IEmailOutboxRepository;
+import com.project.deporturnos.service.IEmailOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+// Encola en la transacción de quien llama: si esa transacción se revierte, el email no existe
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService implements IEmailOutboxService {
+
+    private final IEmailOutboxRepository emailOutboxRepository;
+
+    @Override
+    public void encolar(String destinatario, String asunto, String cuerpo) {
+        encolarConQr(destinatario, asunto, cuerpo, null);
+    }
+
+    @Override
+    public void encolarConQr(String destinatario, String asunto, String cuerpo, String qr) {
+        if (destinatario == null || asunto == null || cuerpo == null) {
+            log.warn("❌ Email no encolado: parámetros nulos (to={}, subject={})", destinatario, asunto);
+            return;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+
+        EmailOutbox email = new EmailOutbox();
+        email.setDestinatario(destinatario);
+        email.setAsunto(asunto);
+        email.setCuerpo(cuerpo);
+        email.setQr(qr);
+        email.setEstado(EmailOutboxState.PENDIENTE);
+        email.setIntentos(0);
+        email.setProximoIntento(ahora);
+        email.setCreado(ahora);
+        emailOutboxRepository.save(email);
+    }
+}
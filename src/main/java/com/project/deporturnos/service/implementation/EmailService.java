@@ -5,70 +5,48 @@ import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Value;
-
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-
+/**
+ * Arma y envía los mensajes. Nadie la llama directamente para notificar: los emails pasan por el
+ * outbox (EmailOutboxService) y los envía EmailOutboxDispatcher en lotes.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    @Value("${app.mail.enabled:true}")
-    private boolean mailEnabled;
-
     private final JavaMailSender emailSender;
 
-    @Async
-    public void sendEmail(String to, String subject, String body) throws MessagingException {
-        if (to == null || subject == null || body == null) {
-            log.warn("❌ Email no enviado: parámetros nulos (to={}, subject={})", to, subject);
-            return;
-        }
-
-        if (!mailEnabled) {
-            log.warn("[TEST MODE] Email not sent to {} - subject: {}", to, subject);
-            return;
-        }
+    public MimeMessage createMessage(String to, String subject, String body) throws MessagingException {
+        return createMessage(to, subject, body, null, null, null);
+    }
 
+    public MimeMessage createMessage(String to, String subject, String body, String attachmentName,
+                                     byte[] attachment, String contentType) throws MessagingException {
         MimeMessage message = emailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true);
 
         helper.setTo(to);
         helper.setSubject(subject);
         helper.setText(body, true);
-        emailSender.send(message);
-    }
-
-    public void sendEmailWithAttachment(String to, String subject, String body, String attachmentPath)
-            throws MessagingException {
-        if (to == null || subject == null || body == null) {
-            log.warn("❌ Email no enviado: parámetros nulos (to={}, subject={})", to, subject);
-            return;
-        }
 
-        if (!mailEnabled) {
-            log.warn("[TEST MODE] Email not sent to {} - subject: {}", to, subject);
-            return;
+        // El adjunto viaja en memoria: no se escribe ningún archivo
+        if (attachment != null) {
+            helper.addAttachment(attachmentName, new ByteArrayResource(attachment), contentType);
         }
 
-        MimeMessage message = emailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(body, true);
-
-        // Adjuntar archivo QR al correo
-        FileSystemResource file = new FileSystemResource(new File(attachmentPath));
-        helper.addAttachment("codigoQR.png", file);
+        return message;
+    }
 
-        emailSender.send(message);
+    /**
+     * Envía todos los mensajes por una misma conexión SMTP. Si alguno falla se lanza
+     * MailSendException con los mensajes fallidos; el resto queda enviado.
+     */
+    public void sendAll(MimeMessage... messages) {
+        emailSender.send(messages);
     }
 }
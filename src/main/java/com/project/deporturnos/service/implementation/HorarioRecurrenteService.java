@@ -0,0 +1,266 @@
+package com.project.deporturnos.service.implementation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.HorarioRecurrente;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.CanchaSimpleDTO;
+import com.project.deporturnos.entity.dto.FranjaHorariaDTO;
+import com.project.deporturnos.entity.dto.HorarioRecurrenteRequestDTO;
+import com.project.deporturnos.entity.dto.HorarioRecurrenteResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
+import com.project.deporturnos.exception.CanchaNotAvailableException;
+import com.project.deporturnos.exception.ResourceNotFoundException;
+import com.project.deporturnos.exception.TurnoAlreadyReservedException;
+import com.project.deporturnos.repository.ICanchaRepository;
+import com.project.deporturnos.repository.IHorarioRecurrenteRepository;
+import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Plantillas recurrentes de turnos. Los turnos que describen se calculan al vuelo para consultar
+ * disponibilidad y solo se guardan como fila de turno cuando alguien los reserva o los bloquea.
+ */
+@Service
+public class HorarioRecurrenteService implements IHorarioRecurrenteService {
+
+    private final IHorarioRecurrenteRepository horarioRecurrenteRepository;
+    private final ICanchaRepository canchaRepository;
+    private final ITurnoRepository turnoRepository;
+    private final TurnoAvailabilityIndex availabilityIndex;
+
+    // Plantillas vigentes por cancha; se cargan al primer uso y se descartan cuando cambian en esta
+    // instancia. El TTL acota cuánto tarda en verse un cambio hecho en otra
+    private final Cache<Long, List<Plantilla>> plantillas;
+
+    public HorarioRecurrenteService(IHorarioRecurrenteRepository horarioRecurrenteRepository,
+                                    ICanchaRepository canchaRepository,
+                                    ITurnoRepository turnoRepository,
+                                    TurnoAvailabilityIndex availabilityIndex,
+                                    @Value("${app.horarios-recurrentes.ttl-seconds:60}") long ttlSegundos) {
+        this.horarioRecurrenteRepository = horarioRecurrenteRepository;
+        this.canchaRepository = canchaRepository;
+        this.turnoRepository = turnoRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.plantillas = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public HorarioRecurrenteResponseDTO save(HorarioRecurrenteRequestDTO horarioRecurrenteRequestDTO) {
+        Cancha cancha = canchaRepository.findById(horarioRecurrenteRequestDTO.getCanchaId())
+                .orElseThrow(() -> new ResourceNotFoundException("Cancha no encontrada."));
+
+        if (cancha.isDeleted()) {
+            throw new ResourceNotFoundException("Cancha no encontrada.");
+        }
+
+        if (!horarioRecurrenteRequestDTO.getHoraDesde().isBefore(horarioRecurrenteRequestDTO.getHoraHasta())) {
+            throw new IllegalArgumentException("La hora desde debe ser anterior a la hora hasta.");
+        }
+
+        if (horarioRecurrenteRequestDTO.getDuracionEnMinutos() <= 0) {
+            throw new IllegalArgumentException("La duración de los turnos debe ser mayor a cero.");
+        }
+
+        if (horarioRecurrenteRequestDTO.getVigenteHasta() != null
+                && horarioRecurrenteRequestDTO.getVigenteHasta().isBefore(horarioRecurrenteRequestDTO.getVigenteDesde())) {
+            throw new IllegalArgumentException("La fecha de fin de vigencia no puede ser anterior a la de inicio.");
+        }
+
+        HorarioRecurrente horario = new HorarioRecurrente();
+        horario.setCancha(cancha);
+        horario.setDias(EnumSet.copyOf(horarioRecurrenteRequestDTO.getDias()));
+        horario.setHoraDesde(horarioRecurrenteRequestDTO.getHoraDesde());
+        horario.setHoraHasta(horarioRecurrenteRequestDTO.getHoraHasta());
+        horario.setDuracionEnMinutos(horarioRecurrenteRequestDTO.getDuracionEnMinutos());
+        horario.setVigenteDesde(horarioRecurrenteRequestDTO.getVigenteDesde());
+        horario.setVigenteHasta(horarioRecurrenteRequestDTO.getVigenteHasta());
+
+        HorarioRecurrente horarioSaved = horarioRecurrenteRepository.save(horario);
+        invalidarCancha(cancha.getId());
+        return toResponseDTO(horarioSaved);
+    }
+
+    @Override
+    public List<HorarioRecurrenteResponseDTO> getByCancha(Long canchaId) {
+        List<HorarioRecurrenteResponseDTO> horarios = new ArrayList<>();
+        for (HorarioRecurrente horario : horarioRecurrenteRepository.findVigentesByCanchaId(canchaId)) {
+            horarios.add(toResponseDTO(horario));
+        }
+        return horarios;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long id) {
+        HorarioRecurrente horario = horarioRecurrenteRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Horario no encontrado."));
+
+        // Los turnos ya reservados o bloqueados son filas propias y no se ven afectados
+        horario.setDeleted(true);
+        horarioRecurrenteRepository.save(horario);
+        invalidarCancha(horario.getCancha().getId());
+    }
+
+    /**
+     * Turnos virtuales (sin id) que las plantillas de la cancha generan para esa fecha, ordenados
+     * por hora de inicio. No descuenta los turnos ya guardados.
+     */
+    @Override
+    public List<TurnoResponseDTO> expandir(Long canchaId, LocalDate fecha) {
+        List<TurnoResponseDTO> turnos = new ArrayList<>();
+        for (Plantilla plantilla : plantillasDe(canchaId)) {
+            if (!plantilla.aplica(fecha)) {
+                continue;
+            }
+
+            LocalTime horaInicio = plantilla.horaDesde;
+            LocalTime horaFin = horaInicio.plusMinutes(plantilla.duracionEnMinutos);
+            while (horaInicio.isBefore(horaFin) && !horaFin.isAfter(plantilla.horaHasta)) {
+                turnos.add(new TurnoResponseDTO(null, fecha, horaInicio, horaFin, TurnoState.DISPONIBLE,
+                        plantilla.cancha));
+                horaInicio = horaFin;
+                horaFin = horaInicio.plusMinutes(plantilla.duracionEnMinutos);
+            }
+        }
+
+        turnos.sort(Comparator.comparing(TurnoResponseDTO::getHoraInicio));
+        return turnos;
+    }
+
+    /**
+     * Pasa un turno al estado pedido (RESERVADO o BLOQUEADO). Si ya existe la fila se usa la misma
+     * transición condicional desde DISPONIBLE que en las reservas; si no, se valida contra las
+     * plantillas y se crea la fila. Quienes materializan en la misma cancha y día se serializan con
+     * un advisory lock de la transacción, así dos reservas simultáneas no crean dos filas.
+     */
+    @Override
+    @Transactional
+    public Turno materializar(TurnoSlotRequestDTO turnoSlotRequestDTO, TurnoState estado) {
+        Cancha cancha = canchaRepository.findById(turnoSlotRequestDTO.getCanchaId())
+                .orElseThrow(() -> new ResourceNotFoundException("Cancha no encontrada."));
+
+        if (cancha.isDeleted() || !cancha.isDisponibilidad()) {
+            throw new CanchaNotAvailableException("La cancha no está disponible.");
+        }
+
+        LocalDate fecha = turnoSlotRequestDTO.getFecha();
+        LocalTime horaInicio = turnoSlotRequestDTO.getHoraInicio();
+
+        turnoRepository.bloquearDia(cancha.getId(), (int) fecha.toEpochDay());
+
+        Optional<Turno> existente = turnoRepository.findVigenteByCanchaAndFechaAndHoraInicio(
+                cancha.getId(), fecha, horaInicio);
+
+        Turno turno;
+        if (existente.isPresent()) {
+            turno = existente.get();
+            if (turnoRepository.compareAndSetEstado(turno.getId(), TurnoState.DISPONIBLE, estado) == 0) {
+                throw new TurnoAlreadyReservedException("Turno no disponible.");
+            }
+            turno.setEstado(estado);
+        } else {
+            TurnoResponseDTO virtual = expandir(cancha.getId(), fecha).stream()
+                    .filter(t -> t.getHoraInicio().equals(horaInicio))
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Turno no encontrado."));
+
+            for (FranjaHorariaDTO franja : turnoRepository.findFranjasByCanchaAndFecha(cancha.getId(), fecha)) {
+                if (franja.seSuperponeCon(virtual.getHoraInicio(), virtual.getHoraFin())) {
+                    throw new TurnoAlreadyReservedException("Turno no disponible.");
+                }
+            }
+
+            Turno nuevoTurno = new Turno();
+            nuevoTurno.setFecha(fecha);
+            nuevoTurno.setHoraInicio(virtual.getHoraInicio());
+            nuevoTurno.setHoraFin(virtual.getHoraFin());
+            nuevoTurno.setEstado(estado);
+            nuevoTurno.setCancha(cancha);
+            nuevoTurno.setDeleted(false);
+            turno = turnoRepository.save(nuevoTurno);
+        }
+
+        availabilityIndex.registrar(turno);
+        return turno;
+    }
+
+    @Override
+    public void invalidarCancha(Long canchaId) {
+        plantillas.invalidate(canchaId);
+        // Una lectura anterior al commit pudo volver a cargar las plantillas viejas
+        availabilityIndex.invalidarCancha(canchaId, () -> plantillas.invalidate(canchaId));
+    }
+
+    private List<Plantilla> plantillasDe(Long canchaId) {
+        return plantillas.get(canchaId, id -> {
+            List<Plantilla> vigentes = new ArrayList<>();
+            for (HorarioRecurrente horario : horarioRecurrenteRepository.findVigentesByCanchaId(id)) {
+                vigentes.add(new Plantilla(horario));
+            }
+            return vigentes;
+        });
+    }
+
+    private HorarioRecurrenteResponseDTO toResponseDTO(HorarioRecurrente horario) {
+        return new HorarioRecurrenteResponseDTO(
+                horario.getId(),
+                horario.getCancha().getId(),
+                horario.getDias(),
+                horario.getHoraDesde(),
+                horario.getHoraHasta(),
+                horario.getDuracionEnMinutos(),
+                horario.getVigenteDesde(),
+                horario.getVigenteHasta());
+    }
+
+    // Copia inmutable de una plantilla, independiente de la sesión de JPA
+    private static final class Plantilla {
+        private final Set<DayOfWeek> dias;
+        private final LocalTime horaDesde;
+        private final LocalTime horaHasta;
+        private final int duracionEnMinutos;
+        private final LocalDate vigenteDesde;
+        private final LocalDate vigenteHasta;
+        private final CanchaSimpleDTO cancha;
+
+        private Plantilla(HorarioRecurrente horario) {
+            Cancha cancha = horario.getCancha();
+            this.dias = horario.getDias().isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(horario.getDias());
+            this.horaDesde = horario.getHoraDesde();
+            this.horaHasta = horario.getHoraHasta();
+            this.duracionEnMinutos = horario.getDuracionEnMinutos();
+            this.vigenteDesde = horario.getVigenteDesde();
+            this.vigenteHasta = horario.getVigenteHasta();
+            this.cancha = new CanchaSimpleDTO(cancha.getId(), cancha.getNombre(), cancha.getTipo(),
+                    cancha.getPrecioHora() != null ? cancha.getPrecioHora().intValue() : 0);
+        }
+
+        private boolean aplica(LocalDate fecha) {
+            return dias.contains(fecha.getDayOfWeek())
+                    && !fecha.isBefore(vigenteDesde)
+                    && (vigenteHasta == null || !fecha.isAfter(vigenteHasta));
+        }
+    }
+}
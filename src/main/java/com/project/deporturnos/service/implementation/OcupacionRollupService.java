@@ -0,0 +1,106 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.repository.OcupacionRollupRepository;
+import com.project.deporturnos.repository.OcupacionRollupRepository.Hora;
+import com.project.deporturnos.service.IOcupacionRollupService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantiene al día ocupacion_rollup. Los servicios registran las horas que tocan y, dentro de una
+ * transacción, se recalculan todas juntas justo antes del commit (después de volcar los cambios
+ * pendientes de JPA), así que la tabla confirma o se revierte junto con turnos y reservas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OcupacionRollupService implements IOcupacionRollupService {
+
+    private final OcupacionRollupRepository rollupRepository;
+    private final EntityManager entityManager;
+
+    // Primer arranque con la tabla vacía: se arma completa una sola vez
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void alIniciar() {
+        if (rollupRepository.estaVacia()) {
+            int filas = rollupRepository.reconstruir(null, null);
+            log.info("Rollup de ocupación inicial: {} filas", filas);
+        }
+    }
+
+    @Override
+    public void registrar(Turno turno) {
+        if (turno != null && turno.getCancha() != null) {
+            registrar(turno.getCancha().getId(), turno.getFecha(), turno.getHoraInicio());
+        }
+    }
+
+    @Override
+    public void registrar(Long canchaId, LocalDate fecha, LocalTime horaInicio) {
+        if (canchaId == null || fecha == null || horaInicio == null) {
+            return;
+        }
+
+        Hora hora = new Hora(canchaId, fecha, horaInicio.getHour());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rollupRepository.recalcular(Set.of(hora));
+            return;
+        }
+        horasDeLaTransaccion().add(hora);
+    }
+
+    // Quien llama ya está en una transacción con los cambios de estado aplicados por SQL
+    @Override
+    @Transactional
+    public void registrarReservas(List<Long> reservaIds) {
+        rollupRepository.recalcularPorReservas(reservaIds);
+    }
+
+    @Override
+    @Transactional
+    public int reconstruir(LocalDate fechaDesde, LocalDate fechaHasta) {
+        if (fechaDesde != null && fechaHasta != null && fechaDesde.isAfter(fechaHasta)) {
+            throw new IllegalArgumentException("La fecha desde no puede ser posterior a la fecha hasta.");
+        }
+        return rollupRepository.reconstruir(fechaDesde, fechaHasta);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Hora> horasDeLaTransaccion() {
+        Set<Hora> horas = (Set<Hora>) TransactionSynchronizationManager.getResource(this);
+        if (horas != null) {
+            return horas;
+        }
+
+        Set<Hora> nuevas = new LinkedHashSet<>();
+        TransactionSynchronizationManager.bindResource(this, nuevas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                entityManager.flush();
+                rollupRepository.recalcular(nuevas);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OcupacionRollupService.this);
+            }
+        });
+        return nuevas;
+    }
+}
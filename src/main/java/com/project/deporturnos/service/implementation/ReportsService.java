@@ -1,40 +1,75 @@
 package com.project.deporturnos.service.implementation;
 
-import com.project.deporturnos.entity.domain.Turno;
-import com.project.deporturnos.entity.domain.TurnoState;
-import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.entity.domain.AgrupacionGanancias;
+import com.project.deporturnos.entity.dto.GananciaDiariaDTO;
+import com.project.deporturnos.entity.dto.GananciaGrupoDTO;
+import com.project.deporturnos.repository.ReporteRepository;
 import com.project.deporturnos.service.IReportsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 public class ReportsService implements IReportsService {
 
-    private final ITurnoRepository turnoRepository;
+    private final ReporteRepository reporteRepository;
 
+    // La base devuelve una fila por cancha y día; acá solo se suman esas filas
     public BigDecimal calcularGananciasGenerales(LocalDate fechaDesde, LocalDate fechaHasta) {
-        List<Turno> turnosCompletados = turnoRepository.findAllByEstadoAndDeletedFalseAndFechaBetween(
-                TurnoState.COMPLETADO, fechaDesde, fechaHasta);
+        validarRango(fechaDesde, fechaHasta);
 
         BigDecimal gananciasTotales = BigDecimal.ZERO;
+        for (GananciaDiariaDTO fila : reporteRepository.findGananciasPorCanchaYDia(fechaDesde, fechaHasta)) {
+            gananciasTotales = gananciasTotales.add(fila.getGanancias());
+        }
 
-        for (Turno turno : turnosCompletados) {
-            long duracionEnMinutos = ChronoUnit.MINUTES.between(turno.getHoraInicio(), turno.getHoraFin());
+        return gananciasTotales;
+    }
 
-            BigDecimal duracionEnHoras = BigDecimal.valueOf(duracionEnMinutos).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
-            BigDecimal gananciaPorTurno = duracionEnHoras.multiply(turno.getCancha().getPrecioHora());
+    public List<GananciaGrupoDTO> calcularGananciasAgrupadas(LocalDate fechaDesde, LocalDate fechaHasta,
+                                                             AgrupacionGanancias agrupacion) {
+        validarRango(fechaDesde, fechaHasta);
+        if (agrupacion == null) {
+            throw new IllegalArgumentException("Debe indicar una agrupación.");
+        }
 
-            gananciasTotales = gananciasTotales.add(gananciaPorTurno);
+        // Ordenado por clave; las fechas en ISO ordenan cronológicamente
+        Map<String, GananciaGrupoDTO> grupos = new TreeMap<>();
+        for (GananciaDiariaDTO fila : reporteRepository.findGananciasPorCanchaYDia(fechaDesde, fechaHasta)) {
+            String clave = claveDe(fila, agrupacion);
+            GananciaGrupoDTO grupo = grupos.computeIfAbsent(clave,
+                    k -> new GananciaGrupoDTO(k, descripcionDe(fila, agrupacion), 0, BigDecimal.ZERO));
+            grupo.setTurnos(grupo.getTurnos() + fila.getTurnos());
+            grupo.setGanancias(grupo.getGanancias().add(fila.getGanancias()));
         }
 
-        return gananciasTotales;
+        return new ArrayList<>(grupos.values());
     }
 
+    private String claveDe(GananciaDiariaDTO fila, AgrupacionGanancias agrupacion) {
+        return switch (agrupacion) {
+            case CANCHA -> String.valueOf(fila.getCanchaId());
+            case DEPORTE -> fila.getDeporte() != null ? fila.getDeporte().name() : "SIN_DEPORTE";
+            case MES -> YearMonth.from(fila.getFecha()).toString();
+            case DIA -> fila.getFecha().toString();
+        };
+    }
+
+    private String descripcionDe(GananciaDiariaDTO fila, AgrupacionGanancias agrupacion) {
+        return agrupacion == AgrupacionGanancias.CANCHA ? fila.getCanchaNombre() : null;
+    }
+
+    private void validarRango(LocalDate fechaDesde, LocalDate fechaHasta) {
+        if (fechaDesde != null && fechaHasta != null && fechaDesde.isAfter(fechaHasta)) {
+            throw new IllegalArgumentException("La fecha desde no puede ser posterior a la fecha hasta.");
+        }
+    }
 }
@@ -1,17 +1,25 @@
 package com.project.deporturnos.service.implementation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
 import com.project.deporturnos.entity.domain.*;
+import com.project.deporturnos.entity.dto.CursorPageDTO;
 import com.project.deporturnos.entity.dto.ReservaRequestDTO;
 import com.project.deporturnos.entity.dto.ReservaRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.ReservaResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
 import com.project.deporturnos.exception.*;
+import com.project.deporturnos.mapper.ReservaMapper;
 import com.project.deporturnos.repository.IReservaRepository;
 import com.project.deporturnos.repository.ITurnoRepository;
 import com.project.deporturnos.repository.IUsuarioRepository;
+import com.project.deporturnos.repository.PaginacionKeyset;
 import com.project.deporturnos.repository.ReservaSpecification;
+import com.project.deporturnos.scheduler.ReservaVencimientoTimer;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
 import com.project.deporturnos.service.INotificationService;
+import com.project.deporturnos.service.IOcupacionRollupService;
 import com.project.deporturnos.service.IReservaService;
+import com.project.deporturnos.service.ITurnoService;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.data.domain.Page;
@@ -32,13 +40,26 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ReservaService implements IReservaService {
 
+    private static final PaginacionKeyset<Reserva> PAGINACION = new PaginacionKeyset<>(Reserva::getId)
+            .campo("fecha", Reserva::getFecha, LocalDate::parse)
+            .grafo(IReservaRepository.GRAFO_LISTADO);
+
+    // Turnos libres sugeridos cuando el pedido ya está ocupado
+    private static final int ALTERNATIVAS = 5;
+
     private final IReservaRepository reservaRepository;
     private final IUsuarioRepository usuarioRepository;
     private final ITurnoRepository turnoRepository;
-    private final ObjectMapper mapper;
+    private final ReservaMapper reservaMapper;
     private final INotificationService notificationService;
+    private final TurnoAvailabilityIndex availabilityIndex;
+    private final IHorarioRecurrenteService horarioRecurrenteService;
+    private final ReservaVencimientoTimer vencimientoTimer;
+    private final IOcupacionRollupService ocupacionRollupService;
+    private final ITurnoService turnoService;
 
     @Override
+    @Transactional
     public ReservaResponseDTO save(ReservaRequestDTO reservaRequestDTO) {
 
         assert reservaRequestDTO.getUsuarioId() != null;
@@ -48,20 +69,19 @@ public class ReservaService implements IReservaService {
         Turno turno = turnoRepository.findById(reservaRequestDTO.getTurnoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Turno no encontrado."));
 
-        Reserva reserva = mapper.convertValue(reservaRequestDTO, Reserva.class);
+        Reserva reserva = reservaMapper.toEntity(reservaRequestDTO);
 
         reserva.setEstado(ReservaState.CONFIRMADA);
         reserva.setUsuario(usuario);
         reserva.setTurno(turno);
         reserva.setFecha(LocalDate.now());
 
-        if (turno.getEstado().equals(TurnoState.RESERVADO)) {
-            throw new TurnoAlreadyReservedException("Turno no disponible.");
-        }
-        turno.setEstado(TurnoState.RESERVADO);
+        reservarTurno(turno);
 
         Reserva reservaSaved = reservaRepository.save(reserva);
-        return mapper.convertValue(reservaSaved, ReservaResponseDTO.class);
+        availabilityIndex.registrar(turno);
+        ocupacionRollupService.registrar(turno);
+        return reservaMapper.toResponseDTO(reservaSaved);
     }
 
     @Override
@@ -75,10 +95,11 @@ public class ReservaService implements IReservaService {
             throw new ResourceNotFoundException("No se encontraron reservas para listar.");
         }
 
-        return reservasPage.map(reserva -> mapper.convertValue(reserva, ReservaResponseDTO.class));
+        return reservasPage.map(reserva -> reservaMapper.toResponseDTO(reserva));
     }
 
     @Override
+    @Transactional
     public ReservaResponseDTO update(Long id, ReservaRequestUpdateDTO reservaRequestUpdateDTO) {
         Optional<Reserva> reservaOptional = reservaRepository.findById(id);
 
@@ -87,6 +108,7 @@ public class ReservaService implements IReservaService {
         }
 
         Reserva reserva = reservaOptional.get();
+        Turno turnoAnterior = reserva.getTurno();
 
         // Manejo de estados
         if (reservaRequestUpdateDTO.getEstado() != null) {
@@ -99,11 +121,7 @@ public class ReservaService implements IReservaService {
 
             } else if (reservaState.equals(ReservaState.CONFIRMADA)) {
 
-                if (turnoState.equals(TurnoState.RESERVADO)) {
-                    throw new TurnoAlreadyReservedException("Turno no disponible.");
-                }
-
-                reserva.getTurno().setEstado(TurnoState.RESERVADO);
+                reservarTurno(reserva.getTurno());
 
             } else if (reservaState.equals(ReservaState.COMPLETADA)) {
                 if (turnoState.equals(TurnoState.RESERVADO)) {
@@ -118,15 +136,12 @@ public class ReservaService implements IReservaService {
             Turno turno = turnoRepository.findById(reservaRequestUpdateDTO.getTurnoId())
                     .orElseThrow(() -> new ResourceNotFoundException("Turno no encontrado."));
 
-            if (turno.getEstado().equals(TurnoState.RESERVADO)) {
-                throw new TurnoAlreadyReservedException("Turno no disponible.");
-            }
+            // El nuevo Turno pasa a estar reservado
+            reservarTurno(turno);
+
             // El Turno anterior de esa reserva pasa a estar disponible
             reserva.getTurno().setEstado(TurnoState.DISPONIBLE);
 
-            // El nuevo Turno pasa a estar reservado
-            turno.setEstado(TurnoState.RESERVADO);
-
             reserva.setTurno(turno);
         }
 
@@ -143,10 +158,25 @@ public class ReservaService implements IReservaService {
         }
 
         Reserva reservaUpdated = reservaRepository.save(reserva);
-        return mapper.convertValue(reservaUpdated, ReservaResponseDTO.class);
+
+        availabilityIndex.registrar(turnoAnterior);
+        ocupacionRollupService.registrar(turnoAnterior);
+        if (reserva.getTurno() != turnoAnterior) {
+            availabilityIndex.registrar(reserva.getTurno());
+            ocupacionRollupService.registrar(reserva.getTurno());
+        }
+
+        if (ReservaState.EN_PROCESO.equals(reserva.getEstado())) {
+            vencimientoTimer.programar(reserva);
+        } else {
+            vencimientoTimer.cancelar(reserva.getId());
+        }
+
+        return reservaMapper.toResponseDTO(reservaUpdated);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         Reserva reserva = reservaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reserva no encontrada."));
@@ -154,23 +184,27 @@ public class ReservaService implements IReservaService {
         reserva.getTurno().setEstado(TurnoState.DISPONIBLE);
         reserva.setDeleted(true);
         reservaRepository.save(reserva);
+        availabilityIndex.registrar(reserva.getTurno());
+        ocupacionRollupService.registrar(reserva.getTurno());
+        vencimientoTimer.cancelar(reserva.getId());
     }
 
     @Override
     @Transactional
     public ReservaResponseDTO saveReservaByUser(ReservaRequestDTO reservaRequestDTO) {
 
-        Usuario currentUser = (Usuario) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Usuario currentUser = usuarioActual();
 
         Turno turno = turnoRepository.findById(reservaRequestDTO.getTurnoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Turno no encontrado."));
 
-        if (turno.getEstado().equals(TurnoState.RESERVADO)) {
-            throw new TurnoAlreadyReservedException("Turno no disponible.");
+        try {
+            reservarTurno(turno);
+        } catch (TurnoAlreadyReservedException e) {
+            throw conAlternativas(e, turno);
         }
-        turno.setEstado(TurnoState.RESERVADO);
 
-        Reserva reserva = mapper.convertValue(reservaRequestDTO, Reserva.class);
+        Reserva reserva = reservaMapper.toEntity(reservaRequestDTO);
 
         reserva.setUsuario(currentUser);
         reserva.setTurno(turno);
@@ -178,13 +212,79 @@ public class ReservaService implements IReservaService {
         reserva.setFecha(LocalDate.now());
 
         Reserva reservaSaved = reservaRepository.save(reserva);
+        availabilityIndex.registrar(turno);
+        ocupacionRollupService.registrar(turno);
 
         notificationService.sendNotificationReservationConfirmed(currentUser, reservaSaved.getId());
 
-        return mapper.convertValue(reservaSaved, ReservaResponseDTO.class);
+        return reservaMapper.toResponseDTO(reservaSaved);
     }
 
+    // Reserva por cancha, fecha y hora: sirve también para turnos de plantilla que aún no tienen fila
     @Override
+    @Transactional
+    public ReservaResponseDTO saveReservaBySlot(TurnoSlotRequestDTO turnoSlotRequestDTO) {
+
+        Usuario currentUser = usuarioActual();
+
+        Turno turno = horarioRecurrenteService.materializar(turnoSlotRequestDTO, TurnoState.RESERVADO);
+
+        Reserva reserva = new Reserva();
+        reserva.setUsuario(currentUser);
+        reserva.setTurno(turno);
+        reserva.setEstado(ReservaState.CONFIRMADA);
+        reserva.setFecha(LocalDate.now());
+
+        Reserva reservaSaved = reservaRepository.save(reserva);
+        ocupacionRollupService.registrar(turno);
+
+        notificationService.sendNotificationReservationConfirmed(currentUser, reservaSaved.getId());
+
+        return reservaMapper.toResponseDTO(reservaSaved);
+    }
+
+    // En el modo de autenticación por claims el principal trae solo id, email y rol; la reserva
+    // se asocia al usuario completo para que la respuesta lo muestre entero
+    private Usuario usuarioActual() {
+        Usuario principal = (Usuario) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal.getNombre() != null) {
+            return principal;
+        }
+        return usuarioRepository.findById(principal.getId()).orElse(principal);
+    }
+
+    // El conflicto viaja con los turnos libres más cercanos, así el cliente no vuelve a consultar para reintentar
+    private TurnoAlreadyReservedException conAlternativas(TurnoAlreadyReservedException e, Turno turno) {
+        if (turno.getCancha() == null || turno.getFecha() == null || turno.getHoraInicio() == null
+                || turno.getHoraFin() == null) {
+            return e;
+        }
+        return new TurnoAlreadyReservedException(e.getMessage(), turnoService.getAlternativas(turno.getId(),
+                turno.getCancha().getId(), turno.getFecha(), turno.getHoraInicio(), turno.getHoraFin(), ALTERNATIVAS));
+    }
+
+    /**
+     * Pasa el turno de DISPONIBLE a RESERVADO con un único UPDATE condicional. Si varias
+     * reservas compiten por el mismo turno, la base serializa las actualizaciones de la fila y
+     * solo una encuentra el turno DISPONIBLE; el resto falla con {@link TurnoAlreadyReservedException}.
+     */
+    private void reservarTurno(Turno turno) {
+        // Corte rápido cuando el turno ya se leyó ocupado
+        if (!TurnoState.DISPONIBLE.equals(turno.getEstado())) {
+            throw new TurnoAlreadyReservedException("Turno no disponible.");
+        }
+
+        int actualizados = turnoRepository.compareAndSetEstado(turno.getId(), TurnoState.DISPONIBLE,
+                TurnoState.RESERVADO);
+        if (actualizados == 0) {
+            throw new TurnoAlreadyReservedException("Turno no disponible.");
+        }
+
+        turno.setEstado(TurnoState.RESERVADO);
+    }
+
+    @Override
+    @Transactional
     public void cancel(Long id) {
         Optional<Reserva> reservaOptional = reservaRepository.findById(id);
         Usuario currentUser = (Usuario) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -217,6 +317,9 @@ public class ReservaService implements IReservaService {
 
             reservaCancel.setEstado(ReservaState.CANCELADA);
             reservaRepository.save(reservaCancel);
+            availabilityIndex.registrar(turno);
+            ocupacionRollupService.registrar(turno);
+            vencimientoTimer.cancelar(reservaCancel.getId());
         } else {
             throw new ResourceNotFoundException("Reserva no encontrada.");
         }
@@ -241,7 +344,22 @@ public class ReservaService implements IReservaService {
                     "No se encontraron reservas para listar en el rango de fechas proporcionado.");
         }
 
-        return reservasPage.map(reserva -> mapper.convertValue(reserva, ReservaResponseDTO.class));
+        return reservasPage.map(reserva -> reservaMapper.toResponseDTO(reserva));
+    }
+
+    @Override
+    public CursorPageDTO<ReservaResponseDTO> getCursorPage(LocalDate fechaDesde, LocalDate fechaHasta, String cursor,
+            int size, String sortBy, boolean conTotal) {
+
+        ReservaSpecification specification = new ReservaSpecification(fechaDesde, fechaHasta);
+
+        CursorPageDTO<Reserva> reservas = PAGINACION.buscar(reservaRepository, specification, sortBy, cursor, size, conTotal);
+
+        if (reservas.getContent().isEmpty() && cursor == null) {
+            throw new ResourceNotFoundException("No se encontraron reservas para listar.");
+        }
+
+        return reservas.map(reserva -> reservaMapper.toResponseDTO(reserva));
     }
 
     @Override
@@ -250,7 +368,7 @@ public class ReservaService implements IReservaService {
         if (reservaOptional.isEmpty() || reservaOptional.get().isDeleted()) {
             throw new ResourceNotFoundException("Reserva no encontrada.");
         }
-        return mapper.convertValue(reservaOptional, ReservaResponseDTO.class);
+        return reservaMapper.toResponseDTO(reservaOptional.get());
     }
 
     @Override
@@ -280,5 +398,8 @@ public class ReservaService implements IReservaService {
 
         reservaOptional.get().setEstado(ReservaState.EN_PROCESO);
         reservaRepository.save(reservaOptional.get());
+
+        // Se completa sola al terminar el turno
+        vencimientoTimer.programar(reservaOptional.get());
     }
 }
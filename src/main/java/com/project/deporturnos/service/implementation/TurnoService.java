@@ -1,19 +1,34 @@
 package com.project.deporturnos.service.implementation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.availability.CanchaCatalog;
+import com.project.deporturnos.availability.DisponibilidadStream;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
 import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Deporte;
 import com.project.deporturnos.entity.domain.Turno;
 import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.CanchaResponseDTO;
+import com.project.deporturnos.entity.dto.CanchaSimpleDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaResultadoDTO;
 import com.project.deporturnos.entity.dto.CargaMasivaTurnosDTO;
+import com.project.deporturnos.entity.dto.CursorPageDTO;
+import com.project.deporturnos.entity.dto.FranjaHorariaDTO;
+import com.project.deporturnos.entity.dto.TurnoDisponibilidadDTO;
 import com.project.deporturnos.entity.dto.TurnoRequestDTO;
 import com.project.deporturnos.entity.dto.TurnoRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
 import com.project.deporturnos.exception.CanchaNotAvailableException;
 import com.project.deporturnos.exception.ResourceNotFoundException;
 import com.project.deporturnos.exception.TurnoStartTimeAlreadyExistException;
+import com.project.deporturnos.mapper.TurnoMapper;
 import com.project.deporturnos.repository.ICanchaRepository;
 import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.repository.PaginacionKeyset;
+import com.project.deporturnos.repository.TurnoBulkRepository;
 import com.project.deporturnos.repository.TurnoSpecification;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
+import com.project.deporturnos.service.IOcupacionRollupService;
 import com.project.deporturnos.service.ITurnoService;
 import lombok.RequiredArgsConstructor;
 
@@ -23,27 +38,51 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class TurnoService implements ITurnoService {
 
+    private static final PaginacionKeyset<Turno> PAGINACION = new PaginacionKeyset<>(Turno::getId)
+            .campo("fecha", Turno::getFecha, LocalDate::parse)
+            .grafo(ITurnoRepository.GRAFO_LISTADO);
+
+    // Rango máximo de la búsqueda entre canchas: acota lo que se recorre por request
+    static final int BUSQUEDA_MAXIMA_DIAS = 14;
+
     private final ITurnoRepository turnoRepository;
     private final ICanchaRepository canchaRepository;
-    private final ObjectMapper mapper;
+    private final TurnoMapper turnoMapper;
+    private final TurnoAvailabilityIndex availabilityIndex;
+    private final TurnoBulkRepository turnoBulkRepository;
+    private final IHorarioRecurrenteService horarioRecurrenteService;
+    private final IOcupacionRollupService ocupacionRollupService;
+    private final DisponibilidadStream disponibilidadStream;
+    private final CanchaCatalog canchaCatalog;
 
     public TurnoResponseDTO save(TurnoRequestDTO turnoRequestDTO) {
         // Validamos que la cancha exista para crearle un turno
         Cancha cancha = canchaRepository.findById(turnoRequestDTO.getCanchaId())
                 .orElseThrow(() -> new ResourceNotFoundException("Cancha no encontrada."));
 
-        Turno turno = mapper.convertValue(turnoRequestDTO, Turno.class);
+        Turno turno = turnoMapper.toEntity(turnoRequestDTO);
 
         // Validamos que no exista otro turno con la misma hora de inicio y la misma
         // fecha para esa cancha
@@ -70,7 +109,8 @@ public class TurnoService implements ITurnoService {
         }
 
         Turno turnoSaved = turnoRepository.save(turno);
-        return mapper.convertValue(turnoSaved, TurnoResponseDTO.class);
+        availabilityIndex.registrar(turnoSaved);
+        return turnoMapper.toResponseDTO(turnoSaved);
     }
 
     @Override
@@ -84,10 +124,11 @@ public class TurnoService implements ITurnoService {
             throw new ResourceNotFoundException("No se encontraron turnos para listar.");
         }
 
-        return turnosPage.map(turno -> mapper.convertValue(turno, TurnoResponseDTO.class));
+        return turnosPage.map(turno -> turnoMapper.toResponseDTO(turno));
     }
 
     @Override
+    @Transactional
     public TurnoResponseDTO update(Long id, TurnoRequestUpdateDTO turnoRequestUpdateDTO) {
         Optional<Turno> turnoOptional = turnoRepository.findById(id);
 
@@ -96,6 +137,9 @@ public class TurnoService implements ITurnoService {
         }
 
         Turno turno = turnoOptional.get();
+        Long canchaAnteriorId = turno.getCancha().getId();
+        LocalDate fechaAnterior = turno.getFecha();
+        LocalTime horaInicioAnterior = turno.getHoraInicio();
 
         // Validamos que no exista otro turno con la misma hora de inicio para la cancha
         for (Turno turno1 : turno.getCancha().getTurnos()) {
@@ -132,10 +176,20 @@ public class TurnoService implements ITurnoService {
         }
 
         Turno turnoUpdated = turnoRepository.save(turno);
-        return mapper.convertValue(turnoUpdated, TurnoResponseDTO.class);
+
+        if (!Objects.equals(canchaAnteriorId, turno.getCancha().getId())
+                || !Objects.equals(fechaAnterior, turno.getFecha())) {
+            availabilityIndex.eliminar(canchaAnteriorId, fechaAnterior, turno.getId());
+        }
+        availabilityIndex.registrar(turno);
+        ocupacionRollupService.registrar(canchaAnteriorId, fechaAnterior, horaInicioAnterior);
+        ocupacionRollupService.registrar(turno);
+
+        return turnoMapper.toResponseDTO(turnoUpdated);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         Optional<Turno> turnoOptional = turnoRepository.findById(id);
 
@@ -144,6 +198,8 @@ public class TurnoService implements ITurnoService {
             turno.getReservas().forEach(reserva -> reserva.setDeleted(true));
             turno.setEstado(TurnoState.BORRADO);
             turnoRepository.save(turno);
+            availabilityIndex.registrar(turno);
+            ocupacionRollupService.registrar(turno);
         });
 
         if (turnoOptional.isEmpty()) {
@@ -153,31 +209,276 @@ public class TurnoService implements ITurnoService {
 
     @Override
     public List<TurnoResponseDTO> getAllAvailableByCanchaAndDate(Long id, LocalDate fecha) {
+        return sumarVirtuales(id, fecha, getGuardadosDisponibles(id, fecha), () -> availabilityIndex.getFranjas(id, fecha)
+                .orElseGet(() -> turnoRepository.findFranjasByCanchaAndFecha(id, fecha)));
+    }
 
-        List<Turno> turnos = turnoRepository.findAll();
+    /**
+     * Turnos libres de todas las canchas habilitadas de un deporte en un rango de fechas,
+     * ordenados por fecha y hora de inicio. Las canchas salen del catálogo en memoria y los días
+     * dentro de la ventana del índice se resuelven sin ir a la base; si alguno queda afuera, una
+     * sola consulta trae los turnos de todas las canchas y fechas del rango.
+     */
+    @Override
+    public List<TurnoResponseDTO> buscarDisponibles(String deporte, LocalDate fechaDesde, LocalDate fechaHasta,
+                                                    LocalTime horaDesde, LocalTime horaHasta,
+                                                    Integer duracionMinima, int size) {
+        validarBusqueda(fechaDesde, fechaHasta, horaDesde, horaHasta, duracionMinima, size);
+
+        List<Long> canchaIds = new ArrayList<>();
+        for (CanchaResponseDTO cancha : canchaCatalog.disponibles(deporte).canchas()) {
+            canchaIds.add(cancha.getId());
+        }
+        if (canchaIds.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        if (turnos.isEmpty()) {
-            throw new ResourceNotFoundException("No se encontraron turnos para listar.");
+        Map<Long, Map<LocalDate, List<TurnoDisponibilidadDTO>>> deLaBase = Map.of();
+        if (!availabilityIndex.cubre(fechaDesde) || !availabilityIndex.cubre(fechaHasta)) {
+            deLaBase = new HashMap<>();
+            for (TurnoDisponibilidadDTO turno : turnoRepository.findVigentesByCanchaIdInAndFechaBetween(
+                    canchaIds, fechaDesde, fechaHasta)) {
+                deLaBase.computeIfAbsent(turno.getCanchaId(), id -> new HashMap<>())
+                        .computeIfAbsent(turno.getFecha(), f -> new ArrayList<>())
+                        .add(turno);
+            }
         }
 
-        List<TurnoResponseDTO> turnoAvailableResponseDTOS = new ArrayList<>();
-        for (Turno turno : turnos) {
-            if (turno.getEstado().equals(TurnoState.DISPONIBLE)) {
-                if (turno.getCancha().getId().equals(id)) {
-                    if (turno.getFecha().equals(fecha)) {
-                        turnoAvailableResponseDTOS.add(mapper.convertValue(turno, TurnoResponseDTO.class));
+        List<TurnoResponseDTO> encontrados = new ArrayList<>();
+        for (LocalDate fecha = fechaDesde; !fecha.isAfter(fechaHasta); fecha = fecha.plusDays(1)) {
+            for (Long canchaId : canchaIds) {
+                List<TurnoResponseDTO> delDia = availabilityIndex.cubre(fecha)
+                        ? getAllAvailableByCanchaAndDate(canchaId, fecha)
+                        : disponiblesDe(canchaId, fecha, deLaBase.getOrDefault(canchaId, Map.of())
+                                .getOrDefault(fecha, List.of()));
+                for (TurnoResponseDTO turno : delDia) {
+                    if (coincide(turno, horaDesde, horaHasta, duracionMinima)) {
+                        encontrados.add(turno);
                     }
                 }
             }
+
+            // Las fechas siguientes ya no entran en el resultado
+            if (encontrados.size() >= size) {
+                break;
+            }
+        }
+
+        encontrados.sort(Comparator.comparing(TurnoResponseDTO::getFecha)
+                .thenComparing(TurnoResponseDTO::getHoraInicio)
+                .thenComparing(turno -> turno.getCancha().getId()));
+        return encontrados.size() > size ? new ArrayList<>(encontrados.subList(0, size)) : encontrados;
+    }
+
+    /**
+     * Turnos libres más cercanos a uno que no se pudo reservar: los de la misma cancha a cualquier
+     * hora del día y los de otras canchas del mismo deporte que se superponen con él, ordenados por
+     * cercanía de la hora de inicio (a igual distancia, primero la misma cancha). Se arma solo desde
+     * memoria; fuera de la ventana del índice devuelve una lista vacía en lugar de ir a la base.
+     */
+    @Override
+    public List<TurnoResponseDTO> getAlternativas(Long turnoId, Long canchaId, LocalDate fecha, LocalTime horaInicio,
+                                                  LocalTime horaFin, int cantidad) {
+        if (!availabilityIndex.cubre(fecha)) {
+            return new ArrayList<>();
+        }
+
+        // Hoy no se sugieren turnos que ya empezaron
+        LocalTime desde = fecha.equals(LocalDate.now()) ? LocalTime.now() : LocalTime.MIN;
+
+        // El índice todavía puede mostrar libre el turno recién perdido, o su versión recurrente
+        List<TurnoResponseDTO> candidatos = new ArrayList<>();
+        for (TurnoResponseDTO turno : getAllAvailableByCanchaAndDate(canchaId, fecha)) {
+            if (!turno.getHoraInicio().isBefore(desde)
+                    && !Objects.equals(turno.getId(), turnoId)
+                    && !turno.getHoraInicio().equals(horaInicio)) {
+                candidatos.add(turno);
+            }
+        }
+
+        Deporte deporte = deporteDe(canchaId);
+        if (deporte != null) {
+            for (CanchaResponseDTO otra : canchaCatalog.disponibles(deporte.name()).canchas()) {
+                if (otra.getId().equals(canchaId)) {
+                    continue;
+                }
+                for (TurnoResponseDTO turno : getAllAvailableByCanchaAndDate(otra.getId(), fecha)) {
+                    if (!turno.getHoraInicio().isBefore(desde)
+                            && new FranjaHorariaDTO(turno.getHoraInicio(), turno.getHoraFin()).seSuperponeCon(horaInicio, horaFin)) {
+                        candidatos.add(turno);
+                    }
+                }
+            }
+        }
+
+        candidatos.sort(Comparator.comparingLong((TurnoResponseDTO turno) ->
+                        Math.abs(Duration.between(horaInicio, turno.getHoraInicio()).toMinutes()))
+                .thenComparing(turno -> !canchaId.equals(turno.getCancha().getId()))
+                .thenComparing(turno -> turno.getCancha().getId()));
+        return candidatos.size() > cantidad ? new ArrayList<>(candidatos.subList(0, cantidad)) : candidatos;
+    }
+
+    private Deporte deporteDe(Long canchaId) {
+        for (CanchaResponseDTO cancha : canchaCatalog.todas().canchas()) {
+            if (cancha.getId().equals(canchaId)) {
+                return cancha.getDeporte();
+            }
+        }
+        return null;
+    }
+
+    private void validarBusqueda(LocalDate fechaDesde, LocalDate fechaHasta, LocalTime horaDesde, LocalTime horaHasta,
+                                 Integer duracionMinima, int size) {
+        if (fechaDesde == null || fechaHasta == null || fechaHasta.isBefore(fechaDesde)) {
+            throw new IllegalArgumentException("La fecha hasta debe ser igual o posterior a la fecha desde.");
+        }
+        if (fechaDesde.plusDays(BUSQUEDA_MAXIMA_DIAS - 1).isBefore(fechaHasta)) {
+            throw new IllegalArgumentException("El rango de búsqueda no puede superar los " + BUSQUEDA_MAXIMA_DIAS + " días.");
+        }
+        if (horaDesde != null && horaHasta != null && !horaDesde.isBefore(horaHasta)) {
+            throw new IllegalArgumentException("La hora desde debe ser anterior a la hora hasta.");
+        }
+        if (duracionMinima != null && duracionMinima < 1) {
+            throw new IllegalArgumentException("La duración mínima debe ser de al menos un minuto.");
+        }
+        if (size < 1 || size > PaginacionKeyset.TAMANIO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + PaginacionKeyset.TAMANIO_MAXIMO + ".");
+        }
+    }
+
+    // Turnos que empiezan y terminan dentro de la franja del día y duran al menos lo pedido
+    private static boolean coincide(TurnoResponseDTO turno, LocalTime horaDesde, LocalTime horaHasta,
+                                    Integer duracionMinima) {
+        boolean cruzaMedianoche = !turno.getHoraFin().isAfter(turno.getHoraInicio());
+        if (horaDesde != null && turno.getHoraInicio().isBefore(horaDesde)) {
+            return false;
+        }
+        if (horaHasta != null && (cruzaMedianoche || turno.getHoraFin().isAfter(horaHasta))) {
+            return false;
+        }
+        if (duracionMinima != null) {
+            long minutos = Duration.between(turno.getHoraInicio(), turno.getHoraFin()).toMinutes();
+            return (cruzaMedianoche ? minutos + 24 * 60 : minutos) >= duracionMinima;
+        }
+        return true;
+    }
+
+    // Misma cuenta que getAllAvailableByCanchaAndDate, sobre filas ya leídas de la base
+    private List<TurnoResponseDTO> disponiblesDe(Long canchaId, LocalDate fecha, List<TurnoDisponibilidadDTO> filas) {
+        List<TurnoResponseDTO> disponibles = new ArrayList<>();
+        List<FranjaHorariaDTO> ocupadas = new ArrayList<>(filas.size());
+        for (TurnoDisponibilidadDTO fila : filas) {
+            if (fila.getEstado() == TurnoState.DISPONIBLE) {
+                disponibles.add(toTurnoResponseDTO(fila));
+            }
+            ocupadas.add(new FranjaHorariaDTO(fila.getHoraInicio(), fila.getHoraFin()));
+        }
+        disponibles.sort(Comparator.comparing(TurnoResponseDTO::getHoraInicio));
+        return sumarVirtuales(canchaId, fecha, disponibles, () -> ocupadas);
+    }
+
+    private List<TurnoResponseDTO> sumarVirtuales(Long id, LocalDate fecha, List<TurnoResponseDTO> disponibles,
+                                                  Supplier<List<FranjaHorariaDTO>> franjas) {
+
+        // Turnos de las plantillas recurrentes que todavía no tienen fila
+        List<TurnoResponseDTO> virtuales = horarioRecurrenteService.expandir(id, fecha);
+        if (virtuales.isEmpty()) {
+            return disponibles;
+        }
+
+        List<FranjaHorariaDTO> ocupadas = franjas.get();
+
+        for (TurnoResponseDTO virtual : virtuales) {
+            boolean libre = true;
+            for (FranjaHorariaDTO franja : ocupadas) {
+                if (franja.seSuperponeCon(virtual.getHoraInicio(), virtual.getHoraFin())) {
+                    libre = false;
+                    break;
+                }
+            }
+            if (libre) {
+                disponibles.add(virtual);
+            }
+        }
+
+        disponibles.sort(Comparator.comparing(TurnoResponseDTO::getHoraInicio));
+        return disponibles;
+    }
+
+    @Override
+    public String getDisponiblesEtag(List<TurnoResponseDTO> disponibles) {
+        // Solo depende de los datos: dos instancias que ven lo mismo dan el mismo ETag
+        StringBuilder contenido = new StringBuilder();
+        for (TurnoResponseDTO turno : disponibles) {
+            CanchaSimpleDTO cancha = turno.getCancha();
+            contenido.append(turno.getId()).append('|')
+                    .append(turno.getFecha()).append('|')
+                    .append(turno.getHoraInicio()).append('|')
+                    .append(turno.getHoraFin()).append('|')
+                    .append(turno.getEstado()).append('|');
+            if (cancha != null) {
+                contenido.append(cancha.getId()).append('|')
+                        .append(cancha.getNombre()).append('|')
+                        .append(cancha.getTipo()).append('|')
+                        .append(cancha.getPrecioHora());
+            }
+            contenido.append('\n');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(contenido.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    @Override
+    public SseEmitter suscribirDisponibles(Long id, LocalDate fecha) {
+        return disponibilidadStream.suscribir(id, fecha, () -> getAllAvailableByCanchaAndDate(id, fecha));
+    }
+
+    @Override
+    @Transactional
+    public TurnoResponseDTO bloquear(TurnoSlotRequestDTO turnoSlotRequestDTO) {
+        Turno turno = horarioRecurrenteService.materializar(turnoSlotRequestDTO, TurnoState.BLOQUEADO);
+        return turnoMapper.toResponseDTO(turno);
+    }
+
+    private List<TurnoResponseDTO> getGuardadosDisponibles(Long id, LocalDate fecha) {
+
+        // Dentro de la ventana del índice se responde sin ir a la base
+        Optional<List<TurnoResponseDTO>> enMemoria = availabilityIndex.getDisponibles(id, fecha);
+        if (enMemoria.isPresent()) {
+            return enMemoria.get();
+        }
+
+        List<TurnoDisponibilidadDTO> turnos = turnoRepository.findDisponibilidadByCanchaAndFecha(
+                id, fecha, TurnoState.DISPONIBLE);
+
+        List<TurnoResponseDTO> turnoAvailableResponseDTOS = new ArrayList<>(turnos.size());
+        for (TurnoDisponibilidadDTO turno : turnos) {
+            turnoAvailableResponseDTOS.add(toTurnoResponseDTO(turno));
         }
 
         return turnoAvailableResponseDTOS;
     }
 
+    private TurnoResponseDTO toTurnoResponseDTO(TurnoDisponibilidadDTO turno) {
+        CanchaSimpleDTO cancha = new CanchaSimpleDTO(
+                turno.getCanchaId(),
+                turno.getCanchaNombre(),
+                turno.getCanchaTipo(),
+                turno.getCanchaPrecioHora() != null ? turno.getCanchaPrecioHora().intValue() : 0);
+
+        return new TurnoResponseDTO(
+                turno.getId(),
+                turno.getFecha(),
+                turno.getHoraInicio(),
+                turno.getHoraFin(),
+                turno.getEstado(),
+                cancha);
+    }
+
     @Transactional
-    public int cargaMasivaTurnos(CargaMasivaTurnosDTO cargaMasivaTurnosDTO) {
-        LocalDate fechaActual = cargaMasivaTurnosDTO.getFechaDesde();
-        int turnosCreados = 0;
+    public CargaMasivaResultadoDTO cargaMasivaTurnos(CargaMasivaTurnosDTO cargaMasivaTurnosDTO) {
+        if (cargaMasivaTurnosDTO.getDuracionEnMinutos() <= 0) {
+            throw new IllegalArgumentException("La duración de los turnos debe ser mayor a cero.");
+        }
 
         Cancha cancha = canchaRepository.findById(cargaMasivaTurnosDTO.getCanchaId())
                 .orElseThrow(() -> new ResourceNotFoundException("Cancha no encontrada."));
@@ -186,34 +487,59 @@ public class TurnoService implements ITurnoService {
             throw new CanchaNotAvailableException("Cancha no disponible.");
         }
 
+        // Mismo lock por cancha y día que la materialización de plantillas, tomado en orden de fecha:
+        // dos cargas que se pisan, o una carga y una reserva recurrente, no crean el mismo horario dos veces
+        turnoRepository.bloquearDias(cancha.getId(), cargaMasivaTurnosDTO.getFechaDesde(),
+                cargaMasivaTurnosDTO.getFechaHasta());
+
+        // Una sola consulta por todos los horarios ya ocupados del rango
+        Set<LocalDateTime> existentes = turnoBulkRepository.findHorariosExistentes(cancha.getId(),
+                cargaMasivaTurnosDTO.getFechaDesde(), cargaMasivaTurnosDTO.getFechaHasta(),
+                cargaMasivaTurnosDTO.getHoraDesde(), cargaMasivaTurnosDTO.getHoraHasta());
+
+        List<Turno> nuevosTurnos = new ArrayList<>();
+        int turnosOmitidos = 0;
+        LocalDate fechaActual = cargaMasivaTurnosDTO.getFechaDesde();
+
         while (!fechaActual.isAfter(cargaMasivaTurnosDTO.getFechaHasta())) {
             LocalTime horaActual = cargaMasivaTurnosDTO.getHoraDesde();
 
             while (horaActual.isBefore(cargaMasivaTurnosDTO.getHoraHasta())) {
-                boolean turnoExistente = turnoRepository.existsByCanchaAndFechaAndHoraInicio(
-                        cancha, fechaActual, horaActual);
+                LocalTime horaFin = horaActual.plusMinutes(cargaMasivaTurnosDTO.getDuracionEnMinutos());
 
-                if (turnoExistente) {
-                    throw new TurnoStartTimeAlreadyExistException("Turno existente.");
+                if (existentes.contains(LocalDateTime.of(fechaActual, horaActual))) {
+                    turnosOmitidos++;
                 } else {
                     Turno nuevoTurno = new Turno();
                     nuevoTurno.setFecha(fechaActual);
                     nuevoTurno.setHoraInicio(horaActual);
-                    nuevoTurno.setHoraFin(horaActual.plusMinutes(cargaMasivaTurnosDTO.getDuracionEnMinutos()));
+                    nuevoTurno.setHoraFin(horaFin);
                     nuevoTurno.setEstado(TurnoState.DISPONIBLE);
                     nuevoTurno.setCancha(cancha);
                     nuevoTurno.setDeleted(false);
-
-                    turnosCreados++;
-                    turnoRepository.save(nuevoTurno);
+                    nuevosTurnos.add(nuevoTurno);
                 }
 
-                horaActual = horaActual.plusMinutes(cargaMasivaTurnosDTO.getDuracionEnMinutos());
+                // El siguiente turno pasaría la medianoche
+                if (!horaFin.isAfter(horaActual)) {
+                    break;
+                }
+                horaActual = horaFin;
             }
 
             fechaActual = fechaActual.plusDays(1);
         }
-        return turnosCreados;
+
+        if (!nuevosTurnos.isEmpty()) {
+            List<Long> ids = turnoBulkRepository.reservarIds(nuevosTurnos.size());
+            for (int i = 0; i < nuevosTurnos.size(); i++) {
+                nuevosTurnos.get(i).setId(ids.get(i));
+            }
+            turnoBulkRepository.insertar(nuevosTurnos);
+            availabilityIndex.registrarTodos(nuevosTurnos);
+        }
+
+        return new CargaMasivaResultadoDTO(nuevosTurnos.size(), turnosOmitidos);
     }
 
     public Page<TurnoResponseDTO> getTurnosEntreFechas(LocalDate fechaDesde, LocalDate fechaHasta, int page, int size,
@@ -230,7 +556,22 @@ public class TurnoService implements ITurnoService {
                     "No se encontraron turnos para listar en el rango de fechas proporcionado o en la página solicitada.");
         }
 
-        return turnosPage.map(turno -> mapper.convertValue(turno, TurnoResponseDTO.class));
+        return turnosPage.map(turno -> turnoMapper.toResponseDTO(turno));
+    }
+
+    @Override
+    public CursorPageDTO<TurnoResponseDTO> getCursorPage(LocalDate fechaDesde, LocalDate fechaHasta, String cursor,
+            int size, String sortBy, boolean conTotal) {
+
+        TurnoSpecification specification = new TurnoSpecification(fechaDesde, fechaHasta);
+
+        CursorPageDTO<Turno> turnos = PAGINACION.buscar(turnoRepository, specification, sortBy, cursor, size, conTotal);
+
+        if (turnos.getContent().isEmpty() && cursor == null) {
+            throw new ResourceNotFoundException("No se encontraron turnos para listar.");
+        }
+
+        return turnos.map(turno -> turnoMapper.toResponseDTO(turno));
     }
 
 }
@@ -1,11 +1,18 @@
 package com.project.deporturnos.service.implementation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
 import com.project.deporturnos.entity.domain.*;
 import com.project.deporturnos.entity.dto.*;
 import com.project.deporturnos.exception.*;
+import com.project.deporturnos.mapper.ReservaMapper;
+import com.project.deporturnos.mapper.UsuarioMapper;
 import com.project.deporturnos.repository.IReservaRepository;
 import com.project.deporturnos.repository.IUsuarioRepository;
+import com.project.deporturnos.repository.PaginacionKeyset;
+import com.project.deporturnos.repository.UsuarioSpecification;
+import com.project.deporturnos.security.PrincipalCache;
+import com.project.deporturnos.security.TokenRevocationService;
+import com.project.deporturnos.service.IOcupacionRollupService;
 import com.project.deporturnos.service.IUsuarioService;
 import lombok.RequiredArgsConstructor;
 
@@ -19,6 +26,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
@@ -33,8 +41,15 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
     private final IUsuarioRepository usuarioRepository;
     private final IReservaRepository reservaRepository;
     private final PasswordEncoder passwordEncoder;
-    private final ObjectMapper mapper;
+    private final UsuarioMapper usuarioMapper;
+    private final ReservaMapper reservaMapper;
+    private final TurnoAvailabilityIndex availabilityIndex;
+    private final IOcupacionRollupService ocupacionRollupService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
     private static final Long SUPER_ADMIN_ID = 1L;
+    private static final PaginacionKeyset<Usuario> PAGINACION = new PaginacionKeyset<>(Usuario::getId)
+            .campo("email", Usuario::getEmail, valor -> valor);
 
     @Override
     public Page<UsuarioSimpleDTO> getPaginatedData(Pageable pageable, String search) {
@@ -50,10 +65,23 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
             throw new ResourceNotFoundException("No se encontraron usuarios para listar.");
         }
 
-        return usuariosPage.map(usuario -> mapper.convertValue(usuario, UsuarioSimpleDTO.class));
+        return usuariosPage.map(usuario -> usuarioMapper.toSimpleDTO(usuario));
     }
 
     @Override
+    public CursorPageDTO<UsuarioSimpleDTO> getCursorPage(String search, String cursor, int size, String sortBy, boolean conTotal) {
+        CursorPageDTO<Usuario> usuarios = PAGINACION.buscar(usuarioRepository, new UsuarioSpecification(search),
+                sortBy, cursor, size, conTotal);
+
+        if (usuarios.getContent().isEmpty() && cursor == null) {
+            throw new ResourceNotFoundException("No se encontraron usuarios para listar.");
+        }
+
+        return usuarios.map(usuario -> usuarioMapper.toSimpleDTO(usuario));
+    }
+
+    @Override
+    @Transactional
     public void delete(Long id) {
         Objects.requireNonNull(id, "Id de usuario es obligatorio.");
 
@@ -77,6 +105,12 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
         });
 
         usuarioRepository.save(usuario);
+        principalCache.invalidar(usuario.getEmail());
+        tokenRevocationService.revocar(usuario.getId());
+        usuario.getReservas().forEach(reserva -> {
+            availabilityIndex.registrar(reserva.getTurno());
+            ocupacionRollupService.registrar(reserva.getTurno());
+        });
     }
 
     @Override
@@ -91,6 +125,8 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
         }
 
         Usuario usuario = usuarioOptional.get();
+        String emailAnterior = usuario.getEmail();
+        boolean cambiaCredenciales = false;
 
         if (usuarioRequestUpdateDTO.getNombre() != null) {
             usuario.setNombre(usuarioRequestUpdateDTO.getNombre());
@@ -112,6 +148,7 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
             }
 
             usuario.setEmail(usuarioRequestUpdateDTO.getEmail());
+            cambiaCredenciales = !usuarioRequestUpdateDTO.getEmail().equals(emailAnterior);
         }
 
         if (usuarioRequestUpdateDTO.getPassword() != null) {
@@ -125,6 +162,7 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
             }
 
             usuario.setPassword(passwordEncoder.encode(usuarioRequestUpdateDTO.getPassword()));
+            cambiaCredenciales = true;
         }
 
         if (usuarioRequestUpdateDTO.getTelefono() != null) {
@@ -136,7 +174,12 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
         }
 
         Usuario usuarioSaved = usuarioRepository.save(usuario);
-        return mapper.convertValue(usuarioSaved, UsuarioResponseDTO.class);
+        principalCache.invalidar(emailAnterior, usuarioSaved.getEmail());
+        // Los tokens emitidos con el email o la contraseña anteriores dejan de valer
+        if (cambiaCredenciales) {
+            tokenRevocationService.revocar(id);
+        }
+        return usuarioMapper.toResponseDTO(usuarioSaved);
     }
 
     @Override
@@ -155,7 +198,9 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
         }
 
         Usuario saved = usuarioRepository.save(usuario);
-        return mapper.convertValue(saved, UsuarioResponseDTO.class);
+        principalCache.invalidar(saved.getEmail());
+        tokenRevocationService.revocar(id);
+        return usuarioMapper.toResponseDTO(saved);
     }
 
     @Override
@@ -170,7 +215,11 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
         usuario.setActivada(!usuario.isActivada());
 
         Usuario saved = usuarioRepository.save(usuario);
-        return mapper.convertValue(saved, LockUnlockResponseDTO.class);
+        principalCache.invalidar(saved.getEmail());
+        if (!usuario.isActivada()) {
+            tokenRevocationService.revocar(id);
+        }
+        return usuarioMapper.toLockUnlockDTO(saved);
     }
 
     @Override
@@ -215,14 +264,7 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
                     filtros,
                     pageable);
         }
-        return reservasPage.map(this::mapToReservaResponseDTO);
-    }
-
-    private ReservaResponseDTO mapToReservaResponseDTO(Reserva reserva) {
-        if (reserva == null) {
-            return null;
-        }
-        return mapper.convertValue(reserva, ReservaResponseDTO.class);
+        return reservasPage.map(reservaMapper::toResponseDTO);
     }
 
     @Override
@@ -235,18 +277,23 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
             }
         }
 
+        // El principal puede venir solo de los claims del token: se edita el usuario guardado
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado."));
+
         if (profileReqUpdateDTO.getNombre() != null) {
-            currentUser.setNombre(profileReqUpdateDTO.getNombre());
+            usuario.setNombre(profileReqUpdateDTO.getNombre());
         }
         if (profileReqUpdateDTO.getTelefono() != null) {
-            currentUser.setTelefono(profileReqUpdateDTO.getTelefono());
+            usuario.setTelefono(profileReqUpdateDTO.getTelefono());
         }
 
-        currentUser.setNotificaciones(profileReqUpdateDTO.isNotificaciones());
+        usuario.setNotificaciones(profileReqUpdateDTO.isNotificaciones());
 
-        Usuario usuarioSaved = usuarioRepository.save(currentUser);
+        Usuario usuarioSaved = usuarioRepository.save(usuario);
+        principalCache.invalidar(usuarioSaved.getEmail());
 
-        return mapper.convertValue(usuarioSaved, ProfileResUpdateDTO.class);
+        return usuarioMapper.toProfileDTO(usuarioSaved);
     }
 
     @Override
@@ -263,7 +310,7 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
             throw new InvalidPasswordException("Contraseña actual incorrecta.");
         }
 
-        validateAndUpdatePassword(mapper.convertValue(passwordChangeRequestDTO, PasswordResetRequestDTO.class),
+        validateAndUpdatePassword(usuarioMapper.toPasswordReset(passwordChangeRequestDTO),
                 usuario);
 
         return ResponseEntity.ok(new ApiResponse(true, "Contraseña cambiada exitosamente."));
@@ -285,6 +332,7 @@ public class UsuarioService implements IUsuarioService, UserDetailsService {
 
         usuario.setPassword(passwordEncoder.encode(passwordResetRequestDTO.getNewPassword()));
         usuarioRepository.save(usuario);
+        principalCache.invalidar(usuario.getEmail());
     }
 
     @Override
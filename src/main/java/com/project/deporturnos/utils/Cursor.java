@@ -0,0 +1,41 @@
+package com.project.deporturnos.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición de una paginación por cursor: el campo de orden, su valor en la última fila devuelta y
+ * el id de esa fila como desempate. Viaja al cliente como un texto opaco en Base64 URL-safe.
+ */
+public record Cursor(String campo, String valor, Long id) {
+
+    private static final char SEPARADOR = '\n';
+
+    public String codificar() {
+        String texto = campo + SEPARADOR + valor + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor emitido para el mismo campo de orden. Lanza IllegalArgumentException si
+     * está mal formado o se armó ordenando por otro campo.
+     */
+    public static Cursor decodificar(String cursor, String campoEsperado) {
+        String[] partes;
+        try {
+            partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(String.valueOf(SEPARADOR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+
+        if (partes.length != 3 || !partes[0].equals(campoEsperado)) {
+            throw new IllegalArgumentException("Cursor inválido para el orden solicitado.");
+        }
+
+        try {
+            return new Cursor(partes[0], partes[1], Long.valueOf(partes[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.deporturnos.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Métricas de un pool de hilos, etiquetadas con su nombre: tareas en cola, hilos activos,
+ * espera en la cola, duración de cada tarea y tareas que no entraron en la cola.
+ */
+public final class ExecutorMetrics {
+
+    private final Timer espera;
+    private final Timer duracion;
+    private final Counter rechazadas;
+
+    public ExecutorMetrics(MeterRegistry meterRegistry, String executor, IntSupplier enCola, IntSupplier activos) {
+        // Los suppliers solo los referencia el gauge: sin referencia fuerte se los llevaría el GC
+        Gauge.builder("deporturnos.executor.cola", enCola, IntSupplier::getAsInt)
+                .description("Tareas esperando en la cola del executor")
+                .tag("executor", executor)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("deporturnos.executor.activos", activos, IntSupplier::getAsInt)
+                .description("Hilos del executor ejecutando una tarea")
+                .tag("executor", executor)
+                .strongReference(true)
+                .register(meterRegistry);
+        this.espera = Timer.builder("deporturnos.executor.espera")
+                .description("Tiempo que pasa una tarea en la cola antes de empezar")
+                .tag("executor", executor)
+                .register(meterRegistry);
+        this.duracion = Timer.builder("deporturnos.executor.duracion")
+                .description("Tiempo de ejecución de cada tarea")
+                .tag("executor", executor)
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("deporturnos.executor.rechazadas")
+                .description("Tareas que no entraron en la cola (corren en el llamador o se descartan, según la política)")
+                .tag("executor", executor)
+                .register(meterRegistry);
+    }
+
+    // Envuelve la tarea al encolarla, así la espera se mide desde ese momento
+    public Runnable medir(Runnable tarea) {
+        long encolada = System.nanoTime();
+        return () -> {
+            long inicio = System.nanoTime();
+            espera.record(inicio - encolada, TimeUnit.NANOSECONDS);
+            try {
+                tarea.run();
+            } finally {
+                duracion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    public RejectedExecutionHandler contarRechazos(RejectedExecutionHandler politica) {
+        return (tarea, pool) -> {
+            rechazadas.increment();
+            politica.rejectedExecution(tarea, pool);
+        };
+    }
+}
@@ -1,15 +1,35 @@
 package com.project.deporturnos.utils;
 
 import com.google.zxing.BarcodeFormat;
-import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
 
-import java.nio.file.Paths;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 
 public class QRCodeGenerator {
-    public static void generateQRCodeImage(String text, int width, int height, String filePath) throws Exception {
-        BitMatrix bitMatrix = new MultiFormatWriter().encode(text, BarcodeFormat.QR_CODE, width, height);
-        MatrixToImageWriter.writeToPath(bitMatrix, "PNG", Paths.get(filePath));
+
+    // QRCodeWriter no guarda estado entre llamadas
+    private static final QRCodeWriter WRITER = new QRCodeWriter();
+
+    // Un buffer por hilo que se reutiliza entre códigos: un PNG de 200x200 ocupa menos de 1 KB
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(2048));
+
+    private QRCodeGenerator() {
+    }
+
+    /**
+     * Genera el código QR como PNG en memoria, sin pasar por disco.
+     */
+    public static byte[] generateQRCodePng(String text, int width, int height) throws WriterException, IOException {
+        BitMatrix bitMatrix = WRITER.encode(text, BarcodeFormat.QR_CODE, width, height);
+
+        ByteArrayOutputStream buffer = BUFFER.get();
+        buffer.reset();
+        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", buffer);
+        return buffer.toByteArray();
     }
 }
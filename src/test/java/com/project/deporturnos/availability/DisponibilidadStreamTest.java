@@ -0,0 +1,186 @@
+package com.project.deporturnos.availability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.entity.dto.CambioTurnoDTO;
+import com.project.deporturnos.exception.StreamCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DisponibilidadStreamTest {
+
+    private static final int CAPACIDAD = 4;
+
+    @Mock
+    private TurnoAvailabilityIndex availabilityIndex;
+
+    // Guarda los drenados sin correrlos: simula un cliente que no consume
+    private final List<Runnable> drenados = new ArrayList<>();
+    private final Executor executor = drenados::add;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDate fecha = LocalDate.of(2024, 11, 15);
+
+    private DisponibilidadStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new DisponibilidadStream(availabilityIndex, executor, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry, 60_000, CAPACIDAD, 2, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.detener();
+    }
+
+    private CambioTurnoDTO cambio(Long turnoId, LocalDate fecha) {
+        return new CambioTurnoDTO(turnoId, fecha, LocalTime.of(10, 0), LocalTime.of(11, 0), false);
+    }
+
+    private double desbordes() {
+        return meterRegistry.counter("deporturnos.disponibilidad.sse.desbordes").count();
+    }
+
+    @Test
+    void constructor_ListensToIndex() {
+        verify(availabilityIndex).escuchar(stream);
+    }
+
+    @Test
+    void suscribir_SendsInitialListOnce() {
+        stream.suscribir(1L, fecha, List::of);
+
+        assertEquals(1, stream.getSuscriptores());
+        assertEquals(1, drenados.size());
+    }
+
+    @Test
+    void suscribir_OverLimit_Throws() {
+        stream.suscribir(1L, fecha, List::of);
+        stream.suscribir(2L, fecha, List::of);
+
+        assertThrows(StreamCapacityExceededException.class, () -> stream.suscribir(3L, fecha, List::of));
+        assertEquals(2, stream.getSuscriptores());
+    }
+
+    @Test
+    void suscribir_InitialListFails_ReleasesSlot() {
+        assertThrows(IllegalStateException.class, () -> stream.suscribir(1L, fecha, () -> {
+            throw new IllegalStateException("sin base");
+        }));
+
+        assertEquals(0, stream.getSuscriptores());
+    }
+
+    @Test
+    void turnoCambiado_SlowSubscriber_DropsPendingInsteadOfGrowing() {
+        stream.suscribir(1L, fecha, List::of);
+
+        for (long id = 1; id <= CAPACIDAD * 3; id++) {
+            stream.turnoCambiado(1L, cambio(id, fecha));
+        }
+
+        assertTrue(desbordes() >= 1);
+        // Un solo drenado programado por suscriptor, por más eventos que lleguen
+        assertEquals(1, drenados.size());
+    }
+
+    @Test
+    void turnoCambiado_OtherDay_NotQueued() {
+        stream.suscribir(1L, fecha, List::of);
+
+        for (long id = 1; id <= CAPACIDAD * 3; id++) {
+            stream.turnoCambiado(1L, cambio(id, fecha.plusDays(1)));
+            stream.turnoCambiado(2L, cambio(id, fecha));
+        }
+
+        assertEquals(0, desbordes());
+    }
+
+    @Test
+    void latir_SkipsSubscribersWithPendingEvents() {
+        stream.suscribir(1L, fecha, List::of);
+
+        // La lista inicial sigue pendiente: el latido no ocupa lugar en la cola
+        for (int i = 0; i < CAPACIDAD * 3; i++) {
+            stream.latir();
+        }
+
+        assertEquals(0, desbordes());
+    }
+
+    @Test
+    void drenar_StalledClient_IsDroppedWithoutBlockingOthers() throws Exception {
+        CountDownLatch soltar = new CountDownLatch(1);
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> recibidos = new CopyOnWriteArrayList<>();
+        CountDownLatch recibidosDos = new CountDownLatch(2);
+        List<SseEmitter> emitters = new ArrayList<>(List.of(
+                // El primero nunca termina de escribir: un cliente con la ventana TCP llena
+                new SseEmitter() {
+                    @Override
+                    public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+                        try {
+                            soltar.await();
+                        } catch (InterruptedException e) {
+                            throw new IOException("envío cancelado", e);
+                        }
+                    }
+                },
+                new SseEmitter() {
+                    @Override
+                    public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+                        recibidos.add(items);
+                        recibidosDos.countDown();
+                    }
+                }));
+
+        // Un solo hilo de drenado: si el envío trabado lo retuviera, el segundo cliente no recibiría nada
+        ExecutorService unHilo = Executors.newSingleThreadExecutor();
+        DisponibilidadStream conTimeout = new DisponibilidadStream(availabilityIndex, unHilo,
+                new ObjectMapper().findAndRegisterModules(), meterRegistry, 60_000, CAPACIDAD, 10, 200) {
+            @Override
+            SseEmitter nuevoEmitter() {
+                return emitters.remove(0);
+            }
+        };
+        try {
+            conTimeout.suscribir(1L, fecha, List::of);
+            conTimeout.suscribir(1L, fecha, List::of);
+            conTimeout.turnoCambiado(1L, cambio(7L, fecha));
+
+            // Lista inicial y cambio llegan al segundo cliente aunque el primero siga trabado
+            assertTrue(recibidosDos.await(5, TimeUnit.SECONDS));
+            assertEquals(2, recibidos.size());
+            assertEquals(1, conTimeout.getSuscriptores());
+            assertEquals(1.0, meterRegistry.counter("deporturnos.disponibilidad.sse.lentos").count());
+        } finally {
+            soltar.countDown();
+            conTimeout.detener();
+            unHilo.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.project.deporturnos.availability;
+
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.CambioTurnoDTO;
+import com.project.deporturnos.entity.dto.TurnoDisponibilidadDTO;
+import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.repository.ITurnoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TurnoAvailabilityIndexTest {
+
+    @Mock
+    private ITurnoRepository turnoRepository;
+
+    private TurnoAvailabilityIndex availabilityIndex;
+
+    private final LocalDate hoy = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndex = new TurnoAvailabilityIndex(turnoRepository, 30);
+    }
+
+    private TurnoDisponibilidadDTO fila(Long id, int hora, TurnoState estado) {
+        return new TurnoDisponibilidadDTO(id, hoy, LocalTime.of(hora, 0), LocalTime.of(hora + 1, 0), estado,
+                1L, "Cancha 1", "F5", new BigDecimal("15000"));
+    }
+
+    private Turno turno(Long id, int hora, TurnoState estado) {
+        Cancha cancha = new Cancha();
+        cancha.setId(1L);
+        cancha.setNombre("Cancha 1");
+        cancha.setTipo("F5");
+        cancha.setPrecioHora(new BigDecimal("15000"));
+
+        Turno turno = new Turno();
+        turno.setId(id);
+        turno.setFecha(hoy);
+        turno.setHoraInicio(LocalTime.of(hora, 0));
+        turno.setHoraFin(LocalTime.of(hora + 1, 0));
+        turno.setEstado(estado);
+        turno.setCancha(cancha);
+        return turno;
+    }
+
+    private void reconstruirCon(TurnoDisponibilidadDTO... filas) {
+        when(turnoRepository.findVigentesByFechaBetween(any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(new ArrayList<>(List.of(filas)));
+        availabilityIndex.reconstruir();
+    }
+
+    @Test
+    void getDisponibles_BeforeRebuild_FallsBack() {
+        assertTrue(availabilityIndex.getDisponibles(1L, hoy).isEmpty());
+    }
+
+    @Test
+    void getDisponibles_OnlyAvailableSortedByStart() {
+        reconstruirCon(
+                fila(3L, 12, TurnoState.DISPONIBLE),
+                fila(1L, 10, TurnoState.DISPONIBLE),
+                fila(2L, 11, TurnoState.RESERVADO));
+
+        Optional<List<TurnoResponseDTO>> result = availabilityIndex.getDisponibles(1L, hoy);
+
+        assertTrue(result.isPresent());
+        assertEquals(2, result.get().size());
+        assertEquals(1L, result.get().get(0).getId());
+        assertEquals(3L, result.get().get(1).getId());
+        assertEquals(15000, result.get().get(0).getCancha().getPrecioHora());
+    }
+
+    @Test
+    void getDisponibles_OutsideHorizon_FallsBack() {
+        reconstruirCon(fila(1L, 10, TurnoState.DISPONIBLE));
+
+        assertTrue(availabilityIndex.getDisponibles(1L, hoy.plusDays(31)).isEmpty());
+        assertTrue(availabilityIndex.getDisponibles(1L, hoy.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void getDisponibles_UnknownCancha_Empty() {
+        reconstruirCon(fila(1L, 10, TurnoState.DISPONIBLE));
+
+        Optional<List<TurnoResponseDTO>> result = availabilityIndex.getDisponibles(9L, hoy);
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isEmpty());
+    }
+
+    @Test
+    void registrar_TracksStateChanges() {
+        reconstruirCon(fila(1L, 10, TurnoState.DISPONIBLE), fila(2L, 11, TurnoState.DISPONIBLE));
+
+        availabilityIndex.registrar(turno(1L, 10, TurnoState.RESERVADO));
+        assertEquals(List.of(2L), ids(availabilityIndex.getDisponibles(1L, hoy).orElseThrow()));
+
+        availabilityIndex.registrar(turno(1L, 10, TurnoState.DISPONIBLE));
+        assertEquals(List.of(1L, 2L), ids(availabilityIndex.getDisponibles(1L, hoy).orElseThrow()));
+    }
+
+    @Test
+    void registrar_NewAndDeletedTurnos() {
+        reconstruirCon(fila(2L, 11, TurnoState.DISPONIBLE));
+
+        availabilityIndex.registrar(turno(5L, 9, TurnoState.DISPONIBLE));
+        assertEquals(List.of(5L, 2L), ids(availabilityIndex.getDisponibles(1L, hoy).orElseThrow()));
+
+        Turno borrado = turno(2L, 11, TurnoState.BORRADO);
+        borrado.setDeleted(true);
+        availabilityIndex.registrar(borrado);
+        assertEquals(List.of(5L), ids(availabilityIndex.getDisponibles(1L, hoy).orElseThrow()));
+    }
+
+    @Test
+    void registrar_ManySlotsInOneDay() {
+        reconstruirCon();
+
+        for (long id = 1; id <= 70; id++) {
+            Turno turno = turno(id, 10, TurnoState.DISPONIBLE);
+            turno.setHoraInicio(LocalTime.of(0, 0).plusMinutes(id * 10));
+            turno.setHoraFin(turno.getHoraInicio().plusMinutes(10));
+            availabilityIndex.registrar(turno);
+        }
+
+        Turno reservado = turno(66L, 10, TurnoState.RESERVADO);
+        reservado.setHoraInicio(LocalTime.of(0, 0).plusMinutes(660));
+        reservado.setHoraFin(reservado.getHoraInicio().plusMinutes(10));
+        availabilityIndex.registrar(reservado);
+
+        List<Long> disponibles = ids(availabilityIndex.getDisponibles(1L, hoy).orElseThrow());
+        assertEquals(69, disponibles.size());
+        assertFalse(disponibles.contains(66L));
+        assertEquals(70L, disponibles.get(68));
+    }
+
+    @Test
+    void registrar_InsideTransaction_AppliesAfterCommit() {
+        reconstruirCon(fila(1L, 10, TurnoState.DISPONIBLE));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            availabilityIndex.registrar(turno(1L, 10, TurnoState.RESERVADO));
+            assertEquals(List.of(1L), ids(availabilityIndex.getDisponibles(1L, hoy).orElseThrow()));
+
+            confirmar(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(availabilityIndex.getDisponibles(1L, hoy).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void registrar_OlderCommitAppliedLast_IsDiscarded() {
+        reconstruirCon(fila(1L, 10, TurnoState.DISPONIBLE));
+        List<TransactionSynchronization> reserva = enTransaccion(() ->
+                availabilityIndex.registrar(turno(1L, 10, TurnoState.RESERVADO)));
+        List<TransactionSynchronization> cancelacion = enTransaccion(() ->
+                availabilityIndex.registrar(turno(1L, 10, TurnoState.DISPONIBLE)));
+
+        // La reserva confirma primero, pero su afterCommit corre después que el de la cancelación
+        reserva.forEach(s -> s.beforeCommit(false));
+        cancelacion.forEach(s -> s.beforeCommit(false));
+        cancelacion.forEach(TransactionSynchronization::afterCommit);
+        reserva.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(List.of(1L), ids(availabilityIndex.getDisponibles(1L, hoy).orElseThrow()));
+    }
+
+    @Test
+    void reconstruir_KeepsChangesCommittedDuringTheQuery() {
+        reconstruirCon(fila(1L, 10, TurnoState.DISPONIBLE), fila(2L, 11, TurnoState.DISPONIBLE));
+
+        // La consulta ya tomó su foto cuando confirma la reserva del turno 1
+        when(turnoRepository.findVigentesByFechaBetween(any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> {
+                    availabilityIndex.registrar(turno(1L, 10, TurnoState.RESERVADO));
+                    return new ArrayList<>(List.of(fila(1L, 10, TurnoState.DISPONIBLE), fila(2L, 11, TurnoState.DISPONIBLE)));
+                });
+        availabilityIndex.reconstruir();
+
+        assertEquals(List.of(2L), ids(availabilityIndex.getDisponibles(1L, hoy).orElseThrow()));
+    }
+
+    @Test
+    void invalidarCancha_RunsCleanup() {
+        reconstruirCon();
+        List<Long> limpiezas = new ArrayList<>();
+
+        availabilityIndex.invalidarCancha(1L, () -> limpiezas.add(1L));
+
+        assertEquals(List.of(1L), limpiezas);
+    }
+
+    @Test
+    void escuchar_ReceivesAppliedChanges() {
+        reconstruirCon(fila(1L, 10, TurnoState.DISPONIBLE));
+        List<String> avisos = new ArrayList<>();
+        availabilityIndex.escuchar(new TurnoAvailabilityIndex.Oyente() {
+            @Override
+            public void turnoCambiado(Long canchaId, CambioTurnoDTO cambio) {
+                // El cambio ya se ve en el índice cuando llega el aviso
+                assertTrue(availabilityIndex.getDisponibles(canchaId, cambio.getFecha()).orElseThrow().isEmpty());
+                avisos.add("turno " + cambio.getTurnoId() + " " + cambio.isDisponible());
+            }
+
+            @Override
+            public void canchaCambiada(Long canchaId) {
+                avisos.add("cancha " + canchaId);
+            }
+
+            @Override
+            public void reconstruido() {
+                avisos.add("reconstruido");
+            }
+        });
+
+        availabilityIndex.registrar(turno(1L, 10, TurnoState.RESERVADO));
+        availabilityIndex.invalidarCancha(1L, () -> { });
+
+        assertEquals(List.of("turno 1 false", "cancha 1"), avisos);
+    }
+
+    // Registra los cambios de una transacción sin confirmarla
+    private List<TransactionSynchronization> enTransaccion(Runnable cambios) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cambios.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void confirmar(List<TransactionSynchronization> sincronizaciones) {
+        sincronizaciones.forEach(s -> s.beforeCommit(false));
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private List<Long> ids(List<TurnoResponseDTO> turnos) {
+        return turnos.stream().map(TurnoResponseDTO::getId).toList();
+    }
+}
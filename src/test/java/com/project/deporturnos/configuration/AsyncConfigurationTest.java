@@ -0,0 +1,117 @@
+package com.project.deporturnos.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigurationTest {
+
+    private final AsyncConfiguration asyncConfiguration = new AsyncConfiguration();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    // Ocupa el único hilo y la única posición de la cola
+    private void saturar() throws InterruptedException {
+        CountDownLatch empezada = new CountDownLatch(1);
+        executor.execute(() -> {
+            empezada.countDown();
+            esperar();
+        });
+        assertTrue(empezada.await(2, TimeUnit.SECONDS));
+        executor.execute(this::esperar);
+    }
+
+    private void esperar() {
+        try {
+            liberar.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void applicationTaskExecutor_QueueFull_RunsInCallerThread() throws InterruptedException {
+        executor = asyncConfiguration.applicationTaskExecutor(meterRegistry, 1, 1, false);
+        executor.initialize();
+        saturar();
+
+        AtomicReference<Thread> hilo = new AtomicReference<>();
+        executor.execute(() -> hilo.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), hilo.get());
+        assertEquals(1.0, meterRegistry.get("deporturnos.executor.rechazadas").tag("executor", "async").counter().count());
+        assertEquals(1.0, meterRegistry.get("deporturnos.executor.cola").tag("executor", "async").gauge().value());
+        assertEquals(1.0, meterRegistry.get("deporturnos.executor.activos").tag("executor", "async").gauge().value());
+    }
+
+    @Test
+    void applicationTaskExecutor_VirtualThreads_RunsOnVirtualThread() throws InterruptedException {
+        executor = asyncConfiguration.applicationTaskExecutor(meterRegistry, 2, 10, true);
+        executor.initialize();
+
+        AtomicReference<Thread> hilo = new AtomicReference<>();
+        CountDownLatch terminada = new CountDownLatch(1);
+        executor.execute(() -> {
+            hilo.set(Thread.currentThread());
+            terminada.countDown();
+        });
+
+        assertTrue(terminada.await(2, TimeUnit.SECONDS));
+        assertTrue(hilo.get().isVirtual());
+        assertTrue(hilo.get().getName().startsWith("async-"));
+    }
+
+    @Test
+    void emailExecutor_QueueFull_ShedsTask() throws InterruptedException {
+        executor = asyncConfiguration.emailExecutor(meterRegistry, 1, 1);
+        executor.initialize();
+        saturar();
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> fail("No debía ejecutarse")));
+        assertEquals(1.0, meterRegistry.get("deporturnos.executor.rechazadas").tag("executor", "email").counter().count());
+    }
+
+    @Test
+    void executor_RecordsQueueWaitAndDuration() throws InterruptedException {
+        executor = asyncConfiguration.emailExecutor(meterRegistry, 1, 10);
+        executor.initialize();
+
+        CountDownLatch terminadas = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(terminadas::countDown);
+        }
+
+        assertTrue(terminadas.await(2, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(2, TimeUnit.SECONDS));
+        assertEquals(3, meterRegistry.get("deporturnos.executor.espera").tag("executor", "email").timer().count());
+        assertEquals(3, meterRegistry.get("deporturnos.executor.duracion").tag("executor", "email").timer().count());
+        assertTrue(executor.getThreadNamePrefix().startsWith("email"));
+    }
+}
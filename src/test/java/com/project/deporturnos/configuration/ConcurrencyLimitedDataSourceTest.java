@@ -0,0 +1,98 @@
+package com.project.deporturnos.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection conexion;
+
+    @Test
+    void getConnection_LimitReached_TimesOut() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(conexion);
+        ConcurrencyLimitedDataSource limitado = new ConcurrencyLimitedDataSource(dataSource, 1, 50);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        limitado.bindTo(meterRegistry);
+
+        limitado.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, limitado::getConnection);
+        verify(dataSource, times(1)).getConnection();
+        assertEquals(1.0, meterRegistry.get("deporturnos.jdbc.limitador.rechazos").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("deporturnos.jdbc.limitador.en.uso").gauge().value());
+    }
+
+    @Test
+    void close_ReleasesPermitOnlyOnce() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(conexion);
+        ConcurrencyLimitedDataSource limitado = new ConcurrencyLimitedDataSource(dataSource, 2, 50);
+
+        Connection tomada = limitado.getConnection();
+        assertEquals(1, limitado.getDisponibles());
+
+        tomada.close();
+        tomada.close();
+
+        assertEquals(2, limitado.getDisponibles());
+        verify(conexion, times(2)).close();
+    }
+
+    @Test
+    void getConnection_WaitsForReleasedConnection() throws Exception {
+        when(dataSource.getConnection()).thenReturn(conexion);
+        ConcurrencyLimitedDataSource limitado = new ConcurrencyLimitedDataSource(dataSource, 1, 2000);
+        Connection primera = limitado.getConnection();
+
+        CompletableFuture<Connection> segunda = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limitado.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limitado.getEsperando() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(segunda.isDone());
+
+        primera.close();
+
+        assertNotNull(segunda.get(2, TimeUnit.SECONDS));
+        assertEquals(0, limitado.getDisponibles());
+    }
+
+    @Test
+    void getConnection_DelegateFails_ReleasesPermit() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException("base caída"));
+        ConcurrencyLimitedDataSource limitado = new ConcurrencyLimitedDataSource(dataSource, 1, 50);
+
+        assertThrows(SQLException.class, limitado::getConnection);
+
+        assertEquals(1, limitado.getDisponibles());
+    }
+
+    @Test
+    void unwrap_ReturnsLimiter() throws SQLException {
+        ConcurrencyLimitedDataSource limitado = new ConcurrencyLimitedDataSource(dataSource, 1, 50);
+
+        assertSame(limitado, ((DataSource) limitado).unwrap(ConcurrencyLimitedDataSource.class));
+    }
+}
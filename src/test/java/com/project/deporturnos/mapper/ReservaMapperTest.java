@@ -0,0 +1,83 @@
+package com.project.deporturnos.mapper;
+
+import com.project.deporturnos.entity.domain.*;
+import com.project.deporturnos.entity.dto.ReservaRequestDTO;
+import com.project.deporturnos.entity.dto.ReservaResponseDTO;
+import com.project.deporturnos.entity.dto.UsuarioResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservaMapperTest {
+
+    private final UsuarioMapper usuarioMapper = new UsuarioMapper();
+    private final ReservaMapper reservaMapper = new ReservaMapper(usuarioMapper, new TurnoMapper(new CanchaMapper()));
+
+    private Reserva reserva() {
+        Cancha cancha = new Cancha();
+        cancha.setId(3L);
+        cancha.setNombre("Cancha 3");
+        cancha.setTipo("5");
+        cancha.setPrecioHora(new BigDecimal("15000.75"));
+
+        Turno turno = new Turno();
+        turno.setId(7L);
+        turno.setFecha(LocalDate.of(2024, 10, 1));
+        turno.setHoraInicio(LocalTime.of(18, 0));
+        turno.setHoraFin(LocalTime.of(19, 0));
+        turno.setEstado(TurnoState.RESERVADO);
+        turno.setCancha(cancha);
+
+        Usuario usuario = new Usuario(2L, "Cliente", "cliente@deporturnos.com", "hash", "1155550000", Rol.CLIENTE, true);
+
+        return new Reserva(10L, LocalDate.of(2024, 9, 20), usuario, turno, ReservaState.CONFIRMADA, false);
+    }
+
+    @Test
+    void toResponseDTO_MapsNestedGraph() {
+        ReservaResponseDTO dto = reservaMapper.toResponseDTO(reserva());
+
+        assertEquals(10L, dto.getId());
+        assertEquals(LocalDate.of(2024, 9, 20), dto.getFecha());
+        assertEquals(ReservaState.CONFIRMADA, dto.getEstado());
+        assertEquals("cliente@deporturnos.com", dto.getUsuario().getEmail());
+        assertEquals(Rol.CLIENTE, dto.getUsuario().getRol());
+        assertTrue(dto.getUsuario().isActivada());
+        assertEquals(7L, dto.getTurno().getId());
+        assertEquals(LocalTime.of(18, 0), dto.getTurno().getHoraInicio());
+        assertEquals(3L, dto.getTurno().getCancha().getId());
+        assertEquals(15000, dto.getTurno().getCancha().getPrecioHora());
+    }
+
+    @Test
+    void toResponseDTO_MissingRelations_MapsToNull() {
+        Reserva reserva = new Reserva();
+        reserva.setId(1L);
+
+        ReservaResponseDTO dto = reservaMapper.toResponseDTO(reserva);
+
+        assertNull(dto.getUsuario());
+        assertNull(dto.getTurno());
+    }
+
+    @Test
+    void toEntity_OnlyCopiesEstado() {
+        Reserva reserva = reservaMapper.toEntity(new ReservaRequestDTO(2L, 7L, ReservaState.CONFIRMADA));
+
+        assertEquals(ReservaState.CONFIRMADA, reserva.getEstado());
+        assertNull(reserva.getUsuario());
+        assertNull(reserva.getTurno());
+    }
+
+    @Test
+    void usuarioToResponseDTO_NeverExposesPassword() {
+        UsuarioResponseDTO dto = usuarioMapper.toResponseDTO(reserva().getUsuario());
+
+        assertNull(dto.getPassword());
+        assertEquals("Cliente", dto.getNombre());
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * La pasada de reconciliación del scheduler: encuentra las reservas EN_PROCESO cuyo turno ya terminó,
+ * incluidos los que cruzan la medianoche (horaFin <= horaInicio), y las completa por id con su turno.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.sql.init.platform=h2"
+})
+class CompletarFinalizadosTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ITurnoRepository turnoRepository;
+
+    @Autowired
+    private IReservaRepository reservaRepository;
+
+    private final LocalDate hoy = LocalDate.of(2022, 8, 20);
+    private final LocalDate ayer = hoy.minusDays(1);
+
+    private Cancha cancha;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        cancha = new Cancha();
+        cancha.setNombre("Cancha 1");
+        cancha.setTipo("5");
+        cancha.setPrecioHora(BigDecimal.TEN);
+        cancha.setDisponibilidad(true);
+        entityManager.persist(cancha);
+
+        usuario = new Usuario(null, "Cliente", "finalizados@deporturnos.com", "hash", null, Rol.CLIENTE, true);
+        entityManager.persist(usuario);
+    }
+
+    private Reserva enProceso(LocalDate fecha, LocalTime inicio, LocalTime fin) {
+        Turno turno = new Turno();
+        turno.setFecha(fecha);
+        turno.setHoraInicio(inicio);
+        turno.setHoraFin(fin);
+        turno.setEstado(TurnoState.RESERVADO);
+        turno.setCancha(cancha);
+        entityManager.persist(turno);
+
+        Reserva reserva = new Reserva(null, fecha, usuario, turno, ReservaState.EN_PROCESO, false);
+        entityManager.persist(reserva);
+        return reserva;
+    }
+
+    private void completar(LocalTime ahora) {
+        entityManager.flush();
+        List<Long> ids = reservaRepository.findIdsFinalizadas(hoy, ayer, ahora);
+        if (!ids.isEmpty()) {
+            turnoRepository.completarPorReservas(ids);
+            reservaRepository.completarPorIds(ids);
+        }
+        entityManager.clear();
+    }
+
+    private void assertEstado(Reserva reserva, ReservaState esperado, TurnoState turnoEsperado) {
+        Reserva leida = entityManager.find(Reserva.class, reserva.getId());
+        assertEquals(esperado, leida.getEstado());
+        assertEquals(turnoEsperado, leida.getTurno().getEstado());
+    }
+
+    @Test
+    void completar_SameDayAlreadyEnded_IsCompleted() {
+        Reserva terminada = enProceso(hoy, LocalTime.of(16, 0), LocalTime.of(17, 0));
+        Reserva justoAhora = enProceso(hoy, LocalTime.of(17, 0), LocalTime.of(18, 0));
+
+        completar(LocalTime.of(18, 0));
+
+        assertEstado(terminada, ReservaState.COMPLETADA, TurnoState.COMPLETADO);
+        assertEstado(justoAhora, ReservaState.COMPLETADA, TurnoState.COMPLETADO);
+    }
+
+    @Test
+    void completar_StillRunning_IsLeftInProgress() {
+        Reserva enJuego = enProceso(hoy, LocalTime.of(17, 30), LocalTime.of(18, 30));
+
+        completar(LocalTime.of(18, 0));
+
+        assertEstado(enJuego, ReservaState.EN_PROCESO, TurnoState.RESERVADO);
+    }
+
+    @Test
+    void completar_CrossesMidnight_CompletesOnlyAfterItEndsTheNextDay() {
+        Reserva deAyer = enProceso(ayer, LocalTime.of(23, 0), LocalTime.of(1, 0));
+        Reserva deHoy = enProceso(hoy, LocalTime.of(23, 0), LocalTime.of(1, 0));
+
+        // Pasada la medianoche el turno de ayer sigue en juego hasta la 1
+        completar(LocalTime.of(0, 30));
+        assertEstado(deAyer, ReservaState.EN_PROCESO, TurnoState.RESERVADO);
+
+        completar(LocalTime.of(1, 0));
+        assertEstado(deAyer, ReservaState.COMPLETADA, TurnoState.COMPLETADO);
+        assertEstado(deHoy, ReservaState.EN_PROCESO, TurnoState.RESERVADO);
+    }
+}
@@ -0,0 +1,135 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Los listados deben costar la misma cantidad de sentencias sin importar cuántas filas traen:
+ * usuario, turno y cancha se cargan en el SELECT de la página, no uno por fila.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.sql.init.platform=h2",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ListadoQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private IReservaRepository reservaRepository;
+
+    @Autowired
+    private ITurnoRepository turnoRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario(null, "Cliente", "cliente@deporturnos.com", "hash", null, Rol.CLIENTE, true);
+        entityManager.persist(usuario);
+
+        // Una cancha y un usuario por reserva para que ninguna relación quede resuelta por el contexto
+        for (int i = 0; i < 12; i++) {
+            Cancha cancha = new Cancha();
+            cancha.setNombre("Cancha " + i);
+            cancha.setTipo("5");
+            cancha.setPrecioHora(BigDecimal.TEN);
+            cancha.setDisponibilidad(true);
+            entityManager.persist(cancha);
+
+            Turno turno = new Turno();
+            turno.setFecha(LocalDate.of(2024, 10, 1).plusDays(i));
+            turno.setHoraInicio(LocalTime.of(18, 0));
+            turno.setHoraFin(LocalTime.of(19, 0));
+            turno.setEstado(TurnoState.RESERVADO);
+            turno.setCancha(cancha);
+            entityManager.persist(turno);
+
+            Usuario titular = i % 2 == 0 ? usuario
+                    : new Usuario(null, "Cliente " + i, "cliente" + i + "@deporturnos.com", "hash", null, Rol.CLIENTE, true);
+            if (titular.getId() == null) {
+                entityManager.persist(titular);
+            }
+
+            entityManager.persist(new Reserva(null, turno.getFecha(), titular, turno, ReservaState.CONFIRMADA, false));
+        }
+        entityManager.flush();
+    }
+
+    private long sentencias(Supplier<List<?>> listado) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        listado.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void reservas_StatementCountDoesNotGrowWithPageSize() {
+        long chica = sentencias(() -> reservaRepository.findAllByDeletedFalse(PageRequest.of(0, 2, Sort.by("id"))).getContent());
+        long grande = sentencias(() -> reservaRepository.findAllByDeletedFalse(PageRequest.of(0, 10, Sort.by("id"))).getContent());
+
+        assertEquals(chica, grande);
+    }
+
+    @Test
+    void reservasEntreFechas_StatementCountDoesNotGrowWithPageSize() {
+        ReservaSpecification especificacion = new ReservaSpecification(LocalDate.of(2024, 10, 1), null);
+
+        long chica = sentencias(() -> reservaRepository.findAll(especificacion, PageRequest.of(0, 2, Sort.by("fecha"))).getContent());
+        long grande = sentencias(() -> reservaRepository.findAll(especificacion, PageRequest.of(0, 10, Sort.by("fecha"))).getContent());
+
+        assertEquals(chica, grande);
+    }
+
+    @Test
+    void reservasDeUsuario_StatementCountDoesNotGrowWithPageSize() {
+        long chica = sentencias(() -> reservaRepository.findByUsuarioIdAndEstadoInAndDeletedFalse(usuario.getId(),
+                List.of(ReservaState.CONFIRMADA), PageRequest.of(0, 2)).getContent());
+        long grande = sentencias(() -> reservaRepository.findByUsuarioIdAndDeletedFalse(usuario.getId(),
+                PageRequest.of(0, 5)).getContent());
+
+        assertEquals(chica, grande);
+    }
+
+    @Test
+    void turnos_StatementCountDoesNotGrowWithPageSize() {
+        long chica = sentencias(() -> turnoRepository.findAllByDeletedFalse(PageRequest.of(0, 2, Sort.by("id"))).getContent());
+        long grande = sentencias(() -> turnoRepository.findAll(new TurnoSpecification(null, null),
+                PageRequest.of(0, 10, Sort.by("id"))).getContent());
+
+        assertEquals(chica, grande);
+    }
+
+    @Test
+    void reservasPorCursor_SingleStatement() {
+        PaginacionKeyset<Reserva> paginacion = new PaginacionKeyset<>(Reserva::getId).grafo(IReservaRepository.GRAFO_LISTADO);
+
+        long sentencias = sentencias(() -> paginacion.buscar(reservaRepository, new ReservaSpecification(null, null),
+                "id", null, 10, false).getContent());
+
+        assertEquals(1, sentencias);
+    }
+}
@@ -0,0 +1,211 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.*;
+import com.project.deporturnos.repository.OcupacionRollupRepository.Hora;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El upsert del rollup usa SQL de PostgreSQL, así que corre contra un contenedor real. Las
+ * transacciones confirman de verdad: cada test arma sus propias filas.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OcupacionRollupRepository.class)
+class OcupacionRollupRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private OcupacionRollupRepository rollupRepository;
+
+    @Autowired
+    private ICanchaRepository canchaRepository;
+
+    @Autowired
+    private ITurnoRepository turnoRepository;
+
+    @Autowired
+    private IUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private IReservaRepository reservaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDate fecha = LocalDate.of(2024, 5, 10);
+
+    private Cancha cancha;
+
+    @BeforeEach
+    void setUp() {
+        cancha = new Cancha();
+        cancha.setNombre("Cancha 1");
+        cancha.setTipo("5");
+        cancha.setPrecioHora(BigDecimal.TEN);
+        cancha.setDisponibilidad(true);
+        cancha = canchaRepository.save(cancha);
+    }
+
+    private Turno turno(LocalTime inicio) {
+        Turno turno = new Turno();
+        turno.setFecha(fecha);
+        turno.setHoraInicio(inicio);
+        turno.setHoraFin(inicio.plusMinutes(30));
+        turno.setEstado(TurnoState.DISPONIBLE);
+        turno.setCancha(cancha);
+        return turnoRepository.save(turno);
+    }
+
+    private void reservar(Turno turno) {
+        jdbcTemplate.update("UPDATE turno SET estado = 'RESERVADO' WHERE id = ?", turno.getId());
+    }
+
+    private long minutosReservados(Hora hora) {
+        return jdbcTemplate.queryForObject(
+                "SELECT minutos_reservados FROM ocupacion_rollup WHERE cancha_id = ? AND fecha = ? AND hora = ?",
+                Long.class, hora.canchaId(), hora.fecha(), hora.hora());
+    }
+
+    // Hasta que alguna sesión quede esperando un lock
+    private void esperarBloqueo() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            Integer esperando = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_locks WHERE NOT granted", Integer.class);
+            if (esperando != null && esperando > 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("La segunda transacción nunca quedó esperando a la primera");
+    }
+
+    @Test
+    void recalcular_OverlappingTransactionsSameHour_KeepBothChanges() throws Exception {
+        Turno primero = turno(LocalTime.of(18, 0));
+        Turno segundo = turno(LocalTime.of(18, 30));
+        Hora hora = new Hora(cancha.getId(), fecha, 18);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        CountDownLatch primeraRecalculada = new CountDownLatch(1);
+        CountDownLatch confirmarPrimera = new CountDownLatch(1);
+        try {
+            Future<?> primera = hilos.submit(() -> transaccion.executeWithoutResult(estado -> {
+                reservar(primero);
+                rollupRepository.recalcular(Set.of(hora));
+                primeraRecalculada.countDown();
+                try {
+                    assertTrue(confirmarPrimera.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            assertTrue(primeraRecalculada.await(10, TimeUnit.SECONDS));
+
+            // La segunda cambia otro turno de la misma hora mientras la primera sigue abierta
+            Future<?> segunda = hilos.submit(() -> transaccion.executeWithoutResult(estado -> {
+                reservar(segundo);
+                rollupRepository.recalcular(Set.of(hora));
+            }));
+            esperarBloqueo();
+            confirmarPrimera.countDown();
+
+            primera.get(10, TimeUnit.SECONDS);
+            segunda.get(10, TimeUnit.SECONDS);
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertEquals(60, minutosReservados(hora));
+    }
+
+    @Test
+    void recalcular_WithoutCallerTransaction_WaitsForTheHourLock() throws Exception {
+        Turno turno = turno(LocalTime.of(21, 0));
+        Hora hora = new Hora(cancha.getId(), fecha, 21);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        CountDownLatch bloqueada = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        try {
+            // Otra transacción retiene el lock de la hora
+            Future<?> retiene = hilos.submit(() -> transaccion.executeWithoutResult(estado -> {
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(CAST(? AS bigint))", hora.clave());
+                bloqueada.countDown();
+                try {
+                    assertTrue(soltar.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            assertTrue(bloqueada.await(10, TimeUnit.SECONDS));
+
+            reservar(turno);
+            Future<?> recalcula = hilos.submit(() -> rollupRepository.recalcular(Set.of(hora)));
+            esperarBloqueo();
+            soltar.countDown();
+
+            retiene.get(10, TimeUnit.SECONDS);
+            recalcula.get(10, TimeUnit.SECONDS);
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertEquals(30, minutosReservados(hora));
+    }
+
+    @Test
+    void recalcularPorReservas_RecalculatesTheirHours() {
+        Turno turno = turno(LocalTime.of(20, 0));
+        reservar(turno);
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nombre("Cliente")
+                .email("cliente@deporturnos.com")
+                .password("hash")
+                .rol(Rol.CLIENTE)
+                .activada(true)
+                .build());
+        Reserva reserva = reservaRepository.save(new Reserva(null, fecha, usuario, turno, ReservaState.CONFIRMADA, false));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado ->
+                rollupRepository.recalcularPorReservas(List.of(reserva.getId())));
+
+        assertEquals(30, minutosReservados(new Hora(cancha.getId(), fecha, 20)));
+    }
+}
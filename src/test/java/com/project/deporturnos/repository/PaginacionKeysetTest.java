@@ -0,0 +1,103 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.CursorPageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.sql.init.platform=h2"
+})
+class PaginacionKeysetTest {
+
+    private static final PaginacionKeyset<Turno> PAGINACION = new PaginacionKeyset<>(Turno::getId)
+            .campo("fecha", Turno::getFecha, LocalDate::parse)
+            .grafo(ITurnoRepository.GRAFO_LISTADO);
+
+    @Autowired
+    private ICanchaRepository canchaRepository;
+
+    @Autowired
+    private ITurnoRepository turnoRepository;
+
+    private final List<Turno> turnos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Cancha cancha = new Cancha();
+        cancha.setNombre("Cancha 1");
+        cancha.setTipo("5");
+        cancha.setPrecioHora(BigDecimal.TEN);
+        cancha.setDisponibilidad(true);
+        cancha = canchaRepository.save(cancha);
+
+        // Fechas repetidas e intercaladas: el orden por id no coincide con el orden por fecha
+        int[] dias = {12, 10, 12, 11, 10, 12, 10};
+        for (int i = 0; i < dias.length; i++) {
+            Turno turno = new Turno();
+            turno.setFecha(LocalDate.of(2023, 3, dias[i]));
+            turno.setHoraInicio(LocalTime.of(10 + i, 0));
+            turno.setHoraFin(LocalTime.of(11 + i, 0));
+            turno.setEstado(TurnoState.DISPONIBLE);
+            turno.setCancha(cancha);
+            turnos.add(turnoRepository.save(turno));
+        }
+    }
+
+    // Acota a las filas del test: otras clases con el mismo contexto confirman turnos en la base
+    private TurnoSpecification marzo() {
+        return new TurnoSpecification(LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 31));
+    }
+
+    @Test
+    void buscar_DuplicateFechas_NoRowSkippedOrRepeated() {
+        TurnoSpecification filtro = marzo();
+        List<Long> leidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            CursorPageDTO<Turno> pagina = PAGINACION.buscar(turnoRepository, filtro, "fecha", cursor, 2, false);
+            pagina.getContent().forEach(turno -> leidos.add(turno.getId()));
+            cursor = pagina.getNextCursor();
+            paginas++;
+        } while (cursor != null);
+
+        List<Long> esperados = turnos.stream()
+                .sorted(Comparator.comparing(Turno::getFecha).thenComparing(Turno::getId))
+                .map(Turno::getId)
+                .toList();
+        assertEquals(esperados, leidos);
+        assertEquals(4, paginas);
+    }
+
+    @Test
+    void buscar_PageEndsInsideDuplicateFecha_ContinuesWithSameFecha() {
+        TurnoSpecification filtro = marzo();
+
+        CursorPageDTO<Turno> primera = PAGINACION.buscar(turnoRepository, filtro, "fecha", null, 2, true);
+        CursorPageDTO<Turno> segunda = PAGINACION.buscar(turnoRepository, filtro, "fecha", primera.getNextCursor(), 2, false);
+
+        // La primera página corta en medio de los tres turnos del día 10
+        assertEquals(List.of(turnos.get(1).getId(), turnos.get(4).getId()),
+                primera.getContent().stream().map(Turno::getId).toList());
+        assertEquals(List.of(turnos.get(6).getId(), turnos.get(3).getId()),
+                segunda.getContent().stream().map(Turno::getId).toList());
+        assertEquals(7L, primera.getTotalElements());
+        assertNull(segunda.getTotalElements());
+    }
+}
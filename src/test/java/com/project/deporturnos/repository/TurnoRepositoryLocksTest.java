@@ -0,0 +1,68 @@
+package com.project.deporturnos.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Los advisory locks por cancha y día de ITurnoRepository son de PostgreSQL, así que corren contra un
+ * contenedor real. Cada test corre en la transacción de @DataJpaTest, que retiene los locks hasta el final.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TurnoRepositoryLocksTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ITurnoRepository turnoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Locks (cancha, día) que tiene esta sesión: la forma de dos enteros guarda cancha en classid y día en objid
+    private List<Long> diasBloqueados(long canchaId) {
+        return jdbcTemplate.queryForList("""
+                        SELECT CAST(objid AS bigint) FROM pg_locks
+                        WHERE locktype = 'advisory' AND objsubid = 2 AND granted
+                        AND pid = pg_backend_pid() AND classid = CAST(? AS oid)
+                        ORDER BY objid""",
+                Long.class, canchaId);
+    }
+
+    @Test
+    void bloquearDias_LocksEveryDayOfTheRangeInOneStatement() {
+        LocalDate desde = LocalDate.of(2025, 3, 30);
+
+        Integer dias = turnoRepository.bloquearDias(7L, desde, desde.plusDays(3));
+
+        assertEquals(4, dias);
+        assertEquals(List.of(desde.toEpochDay(), desde.plusDays(1).toEpochDay(), desde.plusDays(2).toEpochDay(),
+                desde.plusDays(3).toEpochDay()), diasBloqueados(7L));
+    }
+
+    @Test
+    void bloquearDias_SameKeysAsBloquearDia() {
+        LocalDate dia = LocalDate.of(2025, 3, 30);
+
+        turnoRepository.bloquearDia(8L, (int) dia.toEpochDay());
+        turnoRepository.bloquearDias(8L, dia, dia);
+
+        // Reentrante dentro de la transacción: los dos llamados comparten la misma clave
+        assertEquals(List.of(dia.toEpochDay()), diasBloqueados(8L));
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.deporturnos.repository;
+
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.domain.TurnoState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Consultas de ITurnoRepository contra H2. Cada llamada corre en su propia transacción y confirma,
+ * como en producción, así que cada test arma sus propias filas.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.sql.init.platform=h2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TurnoRepositoryTest {
+
+    @Autowired
+    private ICanchaRepository canchaRepository;
+
+    @Autowired
+    private ITurnoRepository turnoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Cancha cancha;
+
+    @BeforeEach
+    void setUp() {
+        cancha = new Cancha();
+        cancha.setNombre("Cancha 1");
+        cancha.setTipo("5");
+        cancha.setPrecioHora(BigDecimal.TEN);
+        cancha.setDisponibilidad(true);
+        cancha = canchaRepository.save(cancha);
+    }
+
+    private Turno turno(LocalDate fecha, LocalTime inicio, LocalTime fin, TurnoState estado) {
+        Turno turno = new Turno();
+        turno.setFecha(fecha);
+        turno.setHoraInicio(inicio);
+        turno.setHoraFin(fin);
+        turno.setEstado(estado);
+        turno.setCancha(cancha);
+        return turnoRepository.save(turno);
+    }
+
+    @Test
+    void compareAndSetEstado_ConcurrentBookings_OnlyOneWins() throws Exception {
+        int intentos = 16;
+        Turno turno = turno(LocalDate.of(2024, 5, 10), LocalTime.of(18, 0), LocalTime.of(19, 0), TurnoState.DISPONIBLE);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(intentos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < intentos; i++) {
+                resultados.add(hilos.submit(() -> {
+                    largada.await();
+                    return transaccion.execute(estado ->
+                            turnoRepository.compareAndSetEstado(turno.getId(), TurnoState.DISPONIBLE, TurnoState.RESERVADO));
+                }));
+            }
+            largada.countDown();
+
+            int ganadores = 0;
+            for (Future<Integer> resultado : resultados) {
+                ganadores += resultado.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(1, ganadores);
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertEquals(TurnoState.RESERVADO, turnoRepository.findById(turno.getId()).orElseThrow().getEstado());
+    }
+}
@@ -0,0 +1,223 @@
+package com.project.deporturnos.scheduler;
+
+import com.project.deporturnos.entity.domain.EmailOutbox;
+import com.project.deporturnos.entity.domain.EmailOutboxState;
+import com.project.deporturnos.repository.IEmailOutboxRepository;
+import com.project.deporturnos.service.implementation.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.BodyPart;
+import jakarta.mail.Multipart;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private IEmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private JavaMailSender emailSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final Session session = Session.getInstance(new Properties());
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(emailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+    }
+
+    private EmailOutboxDispatcher dispatcher(boolean mailEnabled, int tamanioLote, int maxIntentos) {
+        return dispatcher(new SyncTaskExecutor(), mailEnabled, tamanioLote, maxIntentos);
+    }
+
+    private EmailOutboxDispatcher dispatcher(TaskExecutor executor, boolean mailEnabled, int tamanioLote, int maxIntentos) {
+        return new EmailOutboxDispatcher(emailOutboxRepository, new EmailService(emailSender), executor,
+                transactionManager, meterRegistry, mailEnabled, tamanioLote, maxIntentos, 30, 3600, 300, 1);
+    }
+
+    private EmailOutbox email(Long id, String qr) {
+        EmailOutbox email = new EmailOutbox();
+        email.setId(id);
+        email.setDestinatario("cliente" + id + "@deporturnos.com");
+        email.setAsunto("Asunto " + id);
+        email.setCuerpo("<p>Hola</p>");
+        email.setQr(qr);
+        email.setEstado(EmailOutboxState.PENDIENTE);
+        email.setProximoIntento(LocalDateTime.now());
+        email.setCreado(LocalDateTime.now());
+        return email;
+    }
+
+    @Test
+    void despachar_SendsBatchOverOneConnection() throws Exception {
+        List<EmailOutbox> lote = List.of(email(1L, null), email(2L, "http://localhost:5173/validate-reserva/2"));
+        when(emailOutboxRepository.reclamarPendientes(any(LocalDateTime.class), eq(50))).thenReturn(lote);
+
+        dispatcher(true, 50, 8).despachar();
+
+        ArgumentCaptor<MimeMessage[]> mensajes = ArgumentCaptor.forClass(MimeMessage[].class);
+        verify(emailSender, times(1)).send(mensajes.capture());
+        assertEquals(2, mensajes.getValue().length);
+
+        MimeMessage conQr = mensajes.getValue()[1];
+        conQr.saveChanges();
+        BodyPart adjunto = adjunto((Multipart) conQr.getContent());
+        assertNotNull(adjunto);
+        assertEquals("codigoQR.png", adjunto.getFileName());
+        assertTrue(adjunto.getContentType().startsWith("image/png"));
+
+        assertTrue(lote.stream().allMatch(e -> e.getEstado() == EmailOutboxState.ENVIADO && e.getEnviado() != null));
+        verify(emailOutboxRepository).saveAll(lote);
+        assertEquals(2.0, meterRegistry.get("deporturnos.email.outbox.enviados").counter().count());
+    }
+
+    @Test
+    void despachar_PartialFailure_RetriesOnlyFailedWithBackoff() {
+        EmailOutbox ok = email(1L, null);
+        EmailOutbox falla = email(2L, null);
+        when(emailOutboxRepository.reclamarPendientes(any(LocalDateTime.class), anyInt())).thenReturn(List.of(ok, falla));
+        doAnswer(invocation -> {
+            MimeMessage[] enviados = (MimeMessage[]) invocation.getRawArguments()[0];
+            throw new MailSendException(Map.<Object, Exception>of(enviados[1], new RuntimeException("550 mailbox unavailable")));
+        }).when(emailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime antes = LocalDateTime.now();
+        dispatcher(true, 50, 8).despachar();
+
+        assertEquals(EmailOutboxState.ENVIADO, ok.getEstado());
+        assertEquals(EmailOutboxState.PENDIENTE, falla.getEstado());
+        assertEquals(1, falla.getIntentos());
+        assertEquals("550 mailbox unavailable", falla.getUltimoError());
+        assertFalse(falla.getProximoIntento().isBefore(antes.plusSeconds(30)));
+        assertEquals(1.0, meterRegistry.get("deporturnos.email.outbox.reintentos").counter().count());
+    }
+
+    @Test
+    void despachar_SmtpDown_LastAttemptMarksFailed() {
+        EmailOutbox email = email(1L, null);
+        email.setIntentos(2);
+        when(emailOutboxRepository.reclamarPendientes(any(LocalDateTime.class), anyInt())).thenReturn(List.of(email));
+        doThrow(new MailSendException("Connection refused")).when(emailSender).send(any(MimeMessage[].class));
+
+        dispatcher(true, 50, 3).despachar();
+
+        assertEquals(EmailOutboxState.FALLIDO, email.getEstado());
+        assertEquals(3, email.getIntentos());
+        assertEquals(1.0, meterRegistry.get("deporturnos.email.outbox.fallidos").counter().count());
+    }
+
+    @Test
+    void despachar_MailDisabled_MarksSentWithoutSmtp() {
+        EmailOutbox email = email(1L, null);
+        when(emailOutboxRepository.reclamarPendientes(any(LocalDateTime.class), anyInt())).thenReturn(List.of(email));
+
+        dispatcher(false, 50, 8).despachar();
+
+        assertEquals(EmailOutboxState.ENVIADO, email.getEstado());
+        verify(emailSender, never()).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    void despachar_Empty_NoSmtp() {
+        when(emailOutboxRepository.reclamarPendientes(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+
+        dispatcher(true, 50, 8).despachar();
+
+        verifyNoInteractions(emailSender);
+        verify(emailOutboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void despachar_ExecutorSaturated_LeavesEmailsPending() {
+        TaskExecutor saturado = tarea -> {
+            throw new TaskRejectedException("cola llena");
+        };
+
+        dispatcher(saturado, true, 50, 8).despachar();
+
+        verifyNoInteractions(emailOutboxRepository, emailSender);
+    }
+
+    @Test
+    void espera_GrowsExponentiallyUpToMax() {
+        EmailOutboxDispatcher dispatcher = dispatcher(true, 50, 8);
+
+        assertEquals(30, dispatcher.espera(1));
+        assertEquals(60, dispatcher.espera(2));
+        assertEquals(240, dispatcher.espera(4));
+        assertEquals(3600, dispatcher.espera(10));
+    }
+
+    @Test
+    void despachar_ManyPending_DrainsInBatches() {
+        int confirmaciones = 2000;
+        Deque<EmailOutbox> pendientes = new ArrayDeque<>();
+        for (long id = 1; id <= confirmaciones; id++) {
+            pendientes.add(email(id, "http://localhost:5173/validate-reserva/" + id));
+        }
+        when(emailOutboxRepository.reclamarPendientes(any(LocalDateTime.class), eq(50))).thenAnswer(invocation -> {
+            List<EmailOutbox> lote = new ArrayList<>();
+            while (lote.size() < 50 && !pendientes.isEmpty()) {
+                lote.add(pendientes.poll());
+            }
+            return lote;
+        });
+        AtomicInteger enviados = new AtomicInteger();
+        doAnswer(invocation -> enviados.addAndGet(((MimeMessage[]) invocation.getRawArguments()[0]).length))
+                .when(emailSender).send(any(MimeMessage[].class));
+
+        dispatcher(true, 50, 8).despachar();
+
+        assertEquals(confirmaciones, enviados.get());
+        verify(emailSender, times(confirmaciones / 50)).send(any(MimeMessage[].class));
+    }
+
+    // Recorre el multipart anidado que arma MimeMessageHelper hasta encontrar el adjunto
+    private BodyPart adjunto(Multipart multipart) throws Exception {
+        for (int i = 0; i < multipart.getCount(); i++) {
+            BodyPart parte = multipart.getBodyPart(i);
+            if (parte.getFileName() != null) {
+                return parte;
+            }
+            if (parte.getContent() instanceof Multipart anidado) {
+                BodyPart encontrado = adjunto(anidado);
+                if (encontrado != null) {
+                    return encontrado;
+                }
+            }
+        }
+        return null;
+    }
+}
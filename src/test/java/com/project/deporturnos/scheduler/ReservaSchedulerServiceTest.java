@@ -0,0 +1,98 @@
+package com.project.deporturnos.scheduler;
+
+import com.project.deporturnos.repository.IReservaRepository;
+import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.service.IOcupacionRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservaSchedulerServiceTest {
+
+    @Mock
+    private IReservaRepository reservaRepository;
+
+    @Mock
+    private ITurnoRepository turnoRepository;
+
+    @Mock
+    private IOcupacionRollupService ocupacionRollupService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReservaSchedulerService reservaSchedulerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reservaSchedulerService = new ReservaSchedulerService(reservaRepository, turnoRepository, ocupacionRollupService,
+                meterRegistry);
+    }
+
+    @Test
+    void completarReservasEnProceso_CompletesByIdsAndRecalculatesTheirHours() {
+        List<Long> ids = List.of(4L, 7L, 9L);
+        when(reservaRepository.findIdsFinalizadas(any(LocalDate.class), any(LocalDate.class), any(LocalTime.class)))
+                .thenReturn(ids);
+        when(turnoRepository.completarPorReservas(ids)).thenReturn(3);
+        when(reservaRepository.completarPorIds(ids)).thenReturn(3);
+
+        reservaSchedulerService.completarReservasEnProceso();
+        reservaSchedulerService.completarReservasEnProceso();
+
+        // Los turnos se completan antes que sus reservas dejen de estar EN_PROCESO
+        InOrder orden = inOrder(turnoRepository, reservaRepository, ocupacionRollupService);
+        orden.verify(turnoRepository).completarPorReservas(ids);
+        orden.verify(reservaRepository).completarPorIds(ids);
+        orden.verify(ocupacionRollupService).registrarReservas(ids);
+
+        verify(reservaRepository, never()).findByEstado(any());
+        verify(reservaRepository, never()).save(any());
+        verify(ocupacionRollupService, never()).reconstruir(any(), any());
+        assertEquals(6.0, meterRegistry.get("deporturnos.scheduler.reservas.completadas").counter().count());
+        assertEquals(6.0, meterRegistry.get("deporturnos.scheduler.turnos.completados").counter().count());
+    }
+
+    @Test
+    void completarReservasEnProceso_ManyPending_SplitsInBatches() {
+        List<Long> ids = LongStream.rangeClosed(1, ReservaSchedulerService.TAMANIO_LOTE + 1).boxed().toList();
+        when(reservaRepository.findIdsFinalizadas(any(LocalDate.class), any(LocalDate.class), any(LocalTime.class)))
+                .thenReturn(ids);
+
+        reservaSchedulerService.completarReservasEnProceso();
+
+        verify(reservaRepository).completarPorIds(ids.subList(0, ReservaSchedulerService.TAMANIO_LOTE));
+        verify(reservaRepository).completarPorIds(List.of((long) ReservaSchedulerService.TAMANIO_LOTE + 1));
+        verify(ocupacionRollupService, times(2)).registrarReservas(any());
+    }
+
+    @Test
+    void completarReservasEnProceso_KeysOnDateAndTime() {
+        reservaSchedulerService.completarReservasEnProceso();
+
+        ArgumentCaptor<LocalDate> hoy = ArgumentCaptor.forClass(LocalDate.class);
+        ArgumentCaptor<LocalDate> ayer = ArgumentCaptor.forClass(LocalDate.class);
+        verify(reservaRepository).findIdsFinalizadas(hoy.capture(), ayer.capture(), any(LocalTime.class));
+
+        assertEquals(hoy.getValue().minusDays(1), ayer.getValue());
+        assertFalse(hoy.getValue().isBefore(LocalDate.now().minusDays(1)));
+        // Sin reservas vencidas no hay nada que completar ni horas que recalcular
+        verify(reservaRepository, never()).completarPorIds(any());
+        verifyNoInteractions(ocupacionRollupService);
+    }
+}
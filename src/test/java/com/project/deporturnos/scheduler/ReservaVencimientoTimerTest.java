@@ -0,0 +1,130 @@
+package com.project.deporturnos.scheduler;
+
+import com.project.deporturnos.entity.domain.Reserva;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.dto.ReservaVencimientoDTO;
+import com.project.deporturnos.repository.IReservaRepository;
+import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.service.IOcupacionRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservaVencimientoTimerTest {
+
+    @Mock
+    private IReservaRepository reservaRepository;
+
+    @Mock
+    private ITurnoRepository turnoRepository;
+
+    @Mock
+    private IOcupacionRollupService ocupacionRollupService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReservaVencimientoTimer vencimientoTimer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        vencimientoTimer = new ReservaVencimientoTimer(reservaRepository, turnoRepository, ocupacionRollupService,
+                transactionManager, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        vencimientoTimer.detener();
+    }
+
+    private Reserva reservaQueTermina(Long id, LocalDateTime fin) {
+        Turno turno = new Turno();
+        turno.setFecha(fin.toLocalDate());
+        turno.setHoraInicio(LocalTime.MIN);
+        turno.setHoraFin(fin.toLocalTime());
+
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setTurno(turno);
+        return reserva;
+    }
+
+    @Test
+    void programar_CompletesWhenTurnoEnds() {
+        when(reservaRepository.findVencimientosEnProceso()).thenReturn(List.of());
+        when(reservaRepository.completarPorIds(List.of(1L))).thenReturn(1);
+        vencimientoTimer.iniciar();
+
+        vencimientoTimer.programar(reservaQueTermina(1L, LocalDateTime.now().plusNanos(200_000_000)));
+
+        verify(reservaRepository, timeout(2000)).completarPorIds(List.of(1L));
+        verify(turnoRepository).completarPorReservas(List.of(1L));
+        verify(ocupacionRollupService, timeout(2000)).registrarReservas(List.of(1L));
+        assertEquals(0, vencimientoTimer.cantidadPendientes());
+    }
+
+    @Test
+    void iniciar_LoadsReservasEnProceso() {
+        LocalDateTime fin = LocalDateTime.now().minusMinutes(5);
+        when(reservaRepository.findVencimientosEnProceso()).thenReturn(List.of(
+                new ReservaVencimientoDTO(7L, fin.toLocalDate(), LocalTime.MIN, fin.toLocalTime())));
+        when(reservaRepository.completarPorIds(List.of(7L))).thenReturn(1);
+
+        vencimientoTimer.iniciar();
+
+        verify(reservaRepository, timeout(2000)).completarPorIds(List.of(7L));
+        verify(turnoRepository).completarPorReservas(List.of(7L));
+    }
+
+    @Test
+    void cancelar_BeforeTurnoEnds_NeverCompletes() throws InterruptedException {
+        when(reservaRepository.findVencimientosEnProceso()).thenReturn(List.of());
+        vencimientoTimer.iniciar();
+
+        vencimientoTimer.programar(reservaQueTermina(2L, LocalDateTime.now().plusNanos(300_000_000)));
+        assertEquals(1, vencimientoTimer.cantidadPendientes());
+        vencimientoTimer.cancelar(2L);
+
+        Thread.sleep(600);
+        assertEquals(0, vencimientoTimer.cantidadPendientes());
+        verify(reservaRepository, never()).completarPorIds(any());
+        verify(turnoRepository, never()).completarPorReservas(any());
+    }
+
+    @Test
+    void programar_Again_ReplacesPreviousDeadline() {
+        vencimientoTimer.programar(reservaQueTermina(3L, LocalDateTime.now().plusHours(1)));
+        vencimientoTimer.programar(reservaQueTermina(3L, LocalDateTime.now().plusHours(2)));
+
+        assertEquals(1, vencimientoTimer.cantidadPendientes());
+    }
+
+    @Test
+    void finDelTurno_CrossesMidnight() {
+        LocalDate fecha = LocalDate.of(2024, 5, 10);
+
+        long fin = ReservaVencimientoTimer.finDelTurno(fecha, LocalTime.of(23, 0), LocalTime.of(0, 30));
+        long esperado = fecha.plusDays(1).atTime(0, 30).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        assertEquals(esperado, fin);
+    }
+}
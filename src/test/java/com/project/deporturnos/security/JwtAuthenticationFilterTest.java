@@ -0,0 +1,122 @@
+package com.project.deporturnos.security;
+
+import com.project.deporturnos.entity.domain.Rol;
+import com.project.deporturnos.entity.domain.Usuario;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "cliente@deporturnos.com";
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtService jwtService;
+
+    private JwtAuthenticationFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()), 60_000);
+        filtro = new JwtAuthenticationFilter(jwtService, principalCache, tokenRevocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filtrar() throws Exception {
+        return filtrar(jwtService.getToken(EMAIL, Map.of()));
+    }
+
+    private Authentication filtrar(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void doFilter_ActiveUser_Authenticates() throws Exception {
+        when(principalCache.obtener(EMAIL)).thenReturn(new Usuario(2L, "Cliente", EMAIL, "hash", null, Rol.CLIENTE, true));
+
+        Authentication autenticacion = filtrar();
+
+        assertNotNull(autenticacion);
+        assertEquals(EMAIL, ((Usuario) autenticacion.getPrincipal()).getEmail());
+    }
+
+    @Test
+    void doFilter_LockedUser_NotAuthenticated() throws Exception {
+        when(principalCache.obtener(EMAIL)).thenReturn(new Usuario(2L, "Cliente", EMAIL, "hash", null, Rol.CLIENTE, false));
+
+        assertNull(filtrar());
+    }
+
+    @Test
+    void doFilter_DeletedUser_NotAuthenticated() throws Exception {
+        Usuario eliminado = new Usuario(2L, "Cliente", EMAIL, "hash", null, Rol.CLIENTE, true);
+        eliminado.setDeleted(true);
+        when(principalCache.obtener(EMAIL)).thenReturn(eliminado);
+
+        assertNull(filtrar());
+    }
+
+    @Test
+    void doFilter_ClaimsMode_AuthenticatesWithoutLookup() throws Exception {
+        when(tokenRevocationService.isModoClaims()).thenReturn(true);
+        String token = jwtService.getToken(new Usuario(2L, "Cliente", EMAIL, "hash", null, Rol.ADMIN, true));
+
+        Authentication autenticacion = filtrar(token);
+
+        Usuario principal = (Usuario) autenticacion.getPrincipal();
+        assertEquals(2L, principal.getId());
+        assertEquals(Rol.ADMIN, principal.getRol());
+        assertTrue(autenticacion.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        verifyNoInteractions(principalCache);
+    }
+
+    @Test
+    void doFilter_ClaimsMode_RevokedToken_NotAuthenticated() throws Exception {
+        when(tokenRevocationService.isModoClaims()).thenReturn(true);
+        when(tokenRevocationService.estaRevocado(eq(2L), any())).thenReturn(true);
+        String token = jwtService.getToken(new Usuario(2L, "Cliente", EMAIL, "hash", null, Rol.CLIENTE, true));
+
+        assertNull(filtrar(token));
+        verifyNoInteractions(principalCache);
+    }
+
+    @Test
+    void doFilter_ClaimsMode_TokenWithoutId_FallsBackToCache() throws Exception {
+        when(tokenRevocationService.isModoClaims()).thenReturn(true);
+        when(principalCache.obtener(EMAIL)).thenReturn(new Usuario(2L, "Cliente", EMAIL, "hash", null, Rol.CLIENTE, true));
+
+        assertNotNull(filtrar());
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.deporturnos.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static String secreto() {
+        return Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+    }
+
+    private static UserDetails usuario(String email) {
+        return User.withUsername(email).password("x").roles("CLIENTE").build();
+    }
+
+    @Test
+    void parseClaims_ValidToken_ReturnsSubjectAndRoles() {
+        JwtService jwtService = new JwtService(secreto(), 60_000);
+        String token = jwtService.getToken("cliente@deporturnos.com", Map.of("roles", List.of("CLIENTE")));
+
+        Claims claims = jwtService.parseClaims(token);
+
+        assertEquals("cliente@deporturnos.com", claims.getSubject());
+        assertEquals(List.of("CLIENTE"), claims.get("roles"));
+        assertTrue(jwtService.isTokenValid(claims, usuario("cliente@deporturnos.com")));
+        assertFalse(jwtService.isTokenValid(claims, usuario("otro@deporturnos.com")));
+    }
+
+    @Test
+    void parseClaims_ExpiredToken_Throws() {
+        JwtService jwtService = new JwtService(secreto(), -1_000);
+        String token = jwtService.getToken("cliente@deporturnos.com", Map.of());
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseClaims(token));
+    }
+
+    @Test
+    void parseClaims_SignedWithOtherKey_Throws() {
+        String token = new JwtService(secreto(), 60_000).getToken("cliente@deporturnos.com", Map.of());
+
+        assertThrows(JwtException.class, () -> new JwtService(secreto(), 60_000).parseClaims(token));
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.deporturnos.security;
+
+import com.project.deporturnos.entity.domain.Rol;
+import com.project.deporturnos.entity.domain.Usuario;
+import com.project.deporturnos.repository.IUsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    private static final String EMAIL = "cliente@deporturnos.com";
+
+    @Mock
+    private IUsuarioRepository usuarioRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(usuarioRepository, meterRegistry, 60, 100);
+    }
+
+    private Usuario usuario(boolean activada) {
+        return new Usuario(2L, "Cliente", EMAIL, "hash", null, Rol.CLIENTE, activada);
+    }
+
+    @Test
+    void obtener_SecondCall_HitsCache() {
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario(true)));
+
+        principalCache.obtener(EMAIL);
+        Usuario segundo = principalCache.obtener(EMAIL);
+
+        assertEquals(EMAIL, segundo.getEmail());
+        verify(usuarioRepository, times(1)).findByEmail(EMAIL);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "principales").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "principales").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void obtener_ReturnsIndependentCopies() {
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario(true)));
+
+        Usuario primero = principalCache.obtener(EMAIL);
+        primero.setNombre("Modificado");
+
+        assertEquals("Cliente", principalCache.obtener(EMAIL).getNombre());
+    }
+
+    @Test
+    void invalidar_LockedUserIsReloaded() {
+        when(usuarioRepository.findByEmail(EMAIL))
+                .thenReturn(Optional.of(usuario(true)))
+                .thenReturn(Optional.of(usuario(false)));
+        assertTrue(principalCache.obtener(EMAIL).isEnabled());
+
+        principalCache.invalidar(EMAIL);
+
+        assertFalse(principalCache.obtener(EMAIL).isEnabled());
+        verify(usuarioRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void invalidar_InsideTransaction_WaitsForCommit() {
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario(true)));
+        principalCache.obtener(EMAIL);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            principalCache.invalidar(EMAIL);
+            assertEquals(1, principalCache.tamanio());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, principalCache.tamanio());
+    }
+
+    @Test
+    void obtener_UnknownEmail_ThrowsAndDoesNotCache() {
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> principalCache.obtener(EMAIL));
+        assertThrows(UsernameNotFoundException.class, () -> principalCache.obtener(EMAIL));
+
+        verify(usuarioRepository, times(2)).findByEmail(EMAIL);
+    }
+}
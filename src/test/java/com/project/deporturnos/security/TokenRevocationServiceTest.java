@@ -0,0 +1,95 @@
+package com.project.deporturnos.security;
+
+import com.project.deporturnos.entity.domain.TokenRevocacion;
+import com.project.deporturnos.repository.ITokenRevocacionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private ITokenRevocacionRepository tokenRevocacionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenRevocationService servicio(String modo) {
+        return new TokenRevocationService(tokenRevocacionRepository, transactionManager, new SimpleMeterRegistry(),
+                3_600_000, modo);
+    }
+
+    @Test
+    void revocar_RejectsTokensIssuedBefore() {
+        TokenRevocationService servicio = servicio("claims");
+        Date emitidoAntes = new Date(System.currentTimeMillis() - 60_000);
+
+        servicio.revocar(2L);
+
+        assertTrue(servicio.estaRevocado(2L, emitidoAntes));
+        assertFalse(servicio.estaRevocado(3L, emitidoAntes));
+        ArgumentCaptor<TokenRevocacion> guardada = ArgumentCaptor.forClass(TokenRevocacion.class);
+        verify(tokenRevocacionRepository).save(guardada.capture());
+        assertEquals(2L, guardada.getValue().getUsuarioId());
+    }
+
+    @Test
+    void revocar_AcceptsTokensIssuedAfter() {
+        TokenRevocationService servicio = servicio("claims");
+
+        servicio.revocar(2L);
+
+        assertFalse(servicio.estaRevocado(2L, new Date(System.currentTimeMillis() + 2_000)));
+    }
+
+    @Test
+    void revocar_InsideTransaction_AppliesAfterCommit() {
+        TokenRevocationService servicio = servicio("claims");
+        Date emitido = new Date(System.currentTimeMillis() - 60_000);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            servicio.revocar(2L);
+            assertFalse(servicio.estaRevocado(2L, emitido));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(servicio.estaRevocado(2L, emitido));
+    }
+
+    @Test
+    void sincronizar_LoadsRevocationsFromOtherInstances() {
+        TokenRevocationService servicio = servicio("claims");
+        when(tokenRevocacionRepository.findByRevocadoAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(new TokenRevocacion(5L, LocalDateTime.now())));
+
+        servicio.sincronizar();
+
+        assertTrue(servicio.estaRevocado(5L, new Date(System.currentTimeMillis() - 60_000)));
+    }
+
+    @Test
+    void sincronizar_PrincipalMode_DoesNothing() {
+        servicio("principal").sincronizar();
+
+        verifyNoInteractions(tokenRevocacionRepository);
+    }
+}
@@ -7,6 +7,7 @@ import com.project.deporturnos.entity.dto.RegistrationResponseDTO;
 import com.project.deporturnos.entity.dto.VerifyUserDTO;
 import com.project.deporturnos.repository.IUsuarioRepository;
 import com.project.deporturnos.security.JwtService;
+import com.project.deporturnos.service.IEmailOutboxService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -20,6 +21,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +37,7 @@ class AuthServiceTest {
     private PasswordEncoder passwordEncoderMock;
 
     @Mock
-    private EmailService emailServiceMock;
+    private IEmailOutboxService emailOutboxServiceMock;
 
     @Mock
     private JwtService jwtService;
@@ -57,6 +59,7 @@ class AuthServiceTest {
         assertEquals(registrationResponseDTO.getEmail(), "email@email.com");
         assertEquals(registrationResponseDTO.getNombre(), "Juan Test");
         assertEquals(registrationResponseDTO.getTelefono(), "3512164399");
+        verify(emailOutboxServiceMock).encolar(eq("email@email.com"), anyString(), contains("Código"));
     }
 
     /* Login de un Usuario, metodo authenticate() */
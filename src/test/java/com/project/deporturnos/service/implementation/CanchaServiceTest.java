@@ -1,15 +1,19 @@
 package com.project.deporturnos.service.implementation;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.availability.CanchaCatalog;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
 import com.project.deporturnos.entity.domain.*;
 import com.project.deporturnos.entity.dto.CanchaRequestDTO;
 import com.project.deporturnos.entity.dto.CanchaRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.CanchaResponseDTO;
 import com.project.deporturnos.exception.ResourceNotFoundException;
+import com.project.deporturnos.mapper.CanchaMapper;
 import com.project.deporturnos.repository.ICanchaRepository;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
@@ -22,15 +26,25 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class CanchaServiceTest {
 
-    @InjectMocks
     private CanchaService canchaService;
 
     @Mock
     private ICanchaRepository canchaRepository;
 
     @Mock
-    private ObjectMapper mapper;
+    private CanchaMapper canchaMapper;
 
+    @Mock
+    private TurnoAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private IHorarioRecurrenteService horarioRecurrenteService;
+
+    @BeforeEach
+    void setUp() {
+        CanchaCatalog canchaCatalog = new CanchaCatalog(canchaRepository, canchaMapper, new ObjectMapper(), 60);
+        canchaService = new CanchaService(canchaRepository, canchaMapper, availabilityIndex, horarioRecurrenteService, canchaCatalog);
+    }
 
     /* Metodo save() */
     @Test
@@ -49,9 +63,9 @@ class CanchaServiceTest {
         expectedResponse.setNombre("Cancha 1");
         expectedResponse.setTipo("Fútbol 11");
 
-        when(mapper.convertValue(canchaRequestDTO, Cancha.class)).thenReturn(cancha);
+        when(canchaMapper.toEntity(canchaRequestDTO)).thenReturn(cancha);
         when(canchaRepository.save(cancha)).thenReturn(cancha);
-        when(mapper.convertValue(cancha, CanchaResponseDTO.class)).thenReturn(expectedResponse);
+        when(canchaMapper.toResponseDTO(cancha)).thenReturn(expectedResponse);
 
         CanchaResponseDTO actualResponse = canchaService.save(canchaRequestDTO);
 
@@ -60,8 +74,8 @@ class CanchaServiceTest {
         assertEquals(expectedResponse.getTipo(), actualResponse.getTipo());
 
         verify(canchaRepository).save(cancha);
-        verify(mapper).convertValue(cancha, CanchaResponseDTO.class);
-        verify(mapper).convertValue(canchaRequestDTO, Cancha.class);
+        verify(canchaMapper).toResponseDTO(cancha);
+        verify(canchaMapper).toEntity(canchaRequestDTO);
     }
 
     /* Metodo getAll() */
@@ -94,8 +108,8 @@ class CanchaServiceTest {
         expectedResponse.add(canchaResponseDTO2);
 
         when(canchaRepository.findAllByDeletedFalse()).thenReturn(canchas);
-        when(mapper.convertValue(cancha1, CanchaResponseDTO.class)).thenReturn(canchaResponseDTO1);
-        when(mapper.convertValue(cancha2, CanchaResponseDTO.class)).thenReturn(canchaResponseDTO2);
+        when(canchaMapper.toResponseDTO(cancha1)).thenReturn(canchaResponseDTO1);
+        when(canchaMapper.toResponseDTO(cancha2)).thenReturn(canchaResponseDTO2);
 
         List<CanchaResponseDTO> actualResponse = canchaService.getAll();
 
@@ -105,8 +119,8 @@ class CanchaServiceTest {
         assertEquals(expectedResponse.get(1).getTipo(), actualResponse.get(1).getTipo());
 
         verify(canchaRepository).findAllByDeletedFalse();
-        verify(mapper).convertValue(cancha1, CanchaResponseDTO.class);
-        verify(mapper).convertValue(cancha2, CanchaResponseDTO.class);
+        verify(canchaMapper).toResponseDTO(cancha1);
+        verify(canchaMapper).toResponseDTO(cancha2);
     }
 
     @Test
@@ -117,7 +131,7 @@ class CanchaServiceTest {
         assertEquals("No se encontraron canchas para listar.", exception.getMessage());
 
         verify(canchaRepository).findAllByDeletedFalse();
-        verifyNoInteractions(mapper);
+        verifyNoInteractions(canchaMapper);
     }
 
     @Test
@@ -162,7 +176,7 @@ class CanchaServiceTest {
 
         when(canchaRepository.findById(canchaId)).thenReturn(Optional.of(existingCancha));
         when(canchaRepository.save(existingCancha)).thenReturn(updatedCancha);
-        when(mapper.convertValue(updatedCancha, CanchaResponseDTO.class)).thenReturn(expectedResponse);
+        when(canchaMapper.toResponseDTO(updatedCancha)).thenReturn(expectedResponse);
 
         CanchaResponseDTO actualResponse = canchaService.update(canchaId, canchaRequestUpdateDTO);
 
@@ -175,7 +189,7 @@ class CanchaServiceTest {
 
         verify(canchaRepository).findById(canchaId);
         verify(canchaRepository).save(existingCancha);
-        verify(mapper).convertValue(updatedCancha, CanchaResponseDTO.class);
+        verify(canchaMapper).toResponseDTO(updatedCancha);
     }
 
     @Test
@@ -191,7 +205,7 @@ class CanchaServiceTest {
 
         verify(canchaRepository).findById(canchaId);
         verifyNoMoreInteractions(canchaRepository);
-        verifyNoInteractions(mapper);
+        verifyNoInteractions(canchaMapper);
     }
 
     /* Metodo delete() */
@@ -223,6 +237,7 @@ class CanchaServiceTest {
 
         verify(canchaRepository).findById(canchaId);
         verify(canchaRepository).save(cancha);
+        verify(availabilityIndex).registrarCancha(cancha);
     }
 
     @Test
@@ -259,26 +274,112 @@ class CanchaServiceTest {
         CanchaResponseDTO canchaResponseDTO1 = new CanchaResponseDTO();
         CanchaResponseDTO canchaResponseDTO2 = new CanchaResponseDTO();
 
-        when(canchaRepository.findAll()).thenReturn(List.of(cancha1, cancha2));
-        when(mapper.convertValue(cancha1, CanchaResponseDTO.class)).thenReturn(canchaResponseDTO1);
-        when(mapper.convertValue(cancha2, CanchaResponseDTO.class)).thenReturn(canchaResponseDTO2);
+        when(canchaRepository.findAllByDeletedFalse()).thenReturn(List.of(cancha1, cancha2));
+        when(canchaMapper.toResponseDTO(cancha1)).thenReturn(canchaResponseDTO1);
+        when(canchaMapper.toResponseDTO(cancha2)).thenReturn(canchaResponseDTO2);
 
         List<CanchaResponseDTO> result = canchaService.getAvailableByDeporte(deporte);
 
         assertEquals(2, result.size());
-        verify(canchaRepository).findAll();
-        verify(mapper).convertValue(cancha1, CanchaResponseDTO.class);
-        verify(mapper).convertValue(cancha2, CanchaResponseDTO.class);
+        verify(canchaRepository).findAllByDeletedFalse();
+        verify(canchaMapper).toResponseDTO(cancha1);
+        verify(canchaMapper).toResponseDTO(cancha2);
     }
 
     @Test
     void getAvailableByDeporte_NotFound() {
-        when(canchaRepository.findAll()).thenReturn(Collections.emptyList());
+        when(canchaRepository.findAllByDeletedFalse()).thenReturn(Collections.emptyList());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> canchaService.getAvailableByDeporte("FUTBOL"));
 
         assertEquals("No se encontraron canchas para listar.", exception.getMessage());
 
-        verify(canchaRepository).findAll();
+        verify(canchaRepository).findAllByDeletedFalse();
+    }
+
+    @Test
+    void getAvailableByDeporte_FiltersByDeporteAndDisponibilidad() {
+        Cancha futbol = new Cancha();
+        futbol.setDisponibilidad(true);
+        futbol.setDeporte(Deporte.FUTBOL);
+
+        Cancha futbolInhabilitada = new Cancha();
+        futbolInhabilitada.setDisponibilidad(false);
+        futbolInhabilitada.setDeporte(Deporte.FUTBOL);
+
+        Cancha padel = new Cancha();
+        padel.setDisponibilidad(true);
+        padel.setDeporte(Deporte.PADEL);
+
+        when(canchaRepository.findAllByDeletedFalse()).thenReturn(List.of(futbol, futbolInhabilitada, padel));
+        when(canchaMapper.toResponseDTO(any(Cancha.class))).thenAnswer(invocation -> new CanchaResponseDTO());
+
+        assertEquals(1, canchaService.getAvailableByDeporte("futbol").size());
+        assertEquals(1, canchaService.getAvailableByDeporte("PADEL").size());
+        assertTrue(canchaService.getAvailableByDeporte("CURLING").isEmpty());
+    }
+
+    /* Catálogo en memoria */
+    @Test
+    void getCatalogo_RepeatedCalls_ServedFromMemory() {
+        Cancha cancha = new Cancha();
+        cancha.setNombre("Cancha 1");
+        when(canchaRepository.findAllByDeletedFalse()).thenReturn(List.of(cancha));
+        when(canchaMapper.toResponseDTO(cancha)).thenReturn(new CanchaResponseDTO());
+
+        CanchaCatalog.Vista primera = canchaService.getCatalogo();
+        CanchaCatalog.Vista segunda = canchaService.getCatalogo();
+
+        assertSame(primera, segunda);
+        assertNotNull(primera.etag());
+        verify(canchaRepository, times(1)).findAllByDeletedFalse();
+        verify(canchaMapper, times(1)).toResponseDTO(cancha);
+    }
+
+    @Test
+    void getCatalogo_Expired_RebuiltFromDatabase() {
+        // Sin TTL cada lectura vuelve a armarlo: así ve los cambios hechos en otra instancia
+        CanchaCatalog sinTtl = new CanchaCatalog(canchaRepository, canchaMapper, new ObjectMapper(), 0);
+        Cancha cancha = new Cancha();
+        cancha.setNombre("Cancha 1");
+        when(canchaRepository.findAllByDeletedFalse()).thenReturn(List.of(cancha));
+        when(canchaMapper.toResponseDTO(cancha)).thenReturn(new CanchaResponseDTO());
+
+        sinTtl.todas();
+        sinTtl.todas();
+
+        verify(canchaRepository, times(2)).findAllByDeletedFalse();
+    }
+
+    @Test
+    void save_InvalidatesCatalog() {
+        Cancha existente = new Cancha();
+        existente.setNombre("Cancha 1");
+        existente.setTipo("5");
+        Cancha nueva = new Cancha();
+        nueva.setNombre("Cancha 2");
+        nueva.setTipo("7");
+
+        CanchaResponseDTO dtoExistente = new CanchaResponseDTO();
+        dtoExistente.setNombre("Cancha 1");
+        CanchaResponseDTO dtoNueva = new CanchaResponseDTO();
+        dtoNueva.setNombre("Cancha 2");
+
+        CanchaRequestDTO request = new CanchaRequestDTO("Cancha 2", "7", BigDecimal.TEN, true, null, Deporte.FUTBOL);
+        when(canchaRepository.findAllByDeletedFalse())
+                .thenReturn(List.of(existente))
+                .thenReturn(List.of(existente, nueva));
+        when(canchaMapper.toResponseDTO(existente)).thenReturn(dtoExistente);
+        when(canchaMapper.toResponseDTO(nueva)).thenReturn(dtoNueva);
+        when(canchaMapper.toEntity(request)).thenReturn(nueva);
+        when(canchaRepository.save(nueva)).thenReturn(nueva);
+
+        String etagAnterior = canchaService.getCatalogo().etag();
+        canchaService.save(request);
+        CanchaCatalog.Vista actual = canchaService.getCatalogo();
+
+        assertEquals(2, actual.canchas().size());
+        assertNotEquals(etagAnterior, actual.etag());
+        verify(canchaRepository, times(2)).findAllByDeletedFalse();
     }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.entity.domain.CargaMasivaJobState;
+import com.project.deporturnos.entity.dto.CargaMasivaJobRequestDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaJobResponseDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaResultadoDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaTurnosDTO;
+import com.project.deporturnos.exception.ResourceNotFoundException;
+import com.project.deporturnos.service.ITurnoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CargaMasivaJobServiceTest {
+
+    @Mock
+    private ITurnoService turnoService;
+
+    private CargaMasivaJobService cargaMasivaJobService;
+
+    private final LocalDate desde = LocalDate.of(2025, 3, 1);
+
+    @BeforeEach
+    void setUp() {
+        cargaMasivaJobService = new CargaMasivaJobService(turnoService, new SimpleMeterRegistry(), 2, 100, 24);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cargaMasivaJobService.detener();
+    }
+
+    private CargaMasivaTurnosDTO carga(Long canchaId, LocalDate fechaDesde, LocalDate fechaHasta) {
+        return new CargaMasivaTurnosDTO(fechaDesde, fechaHasta, LocalTime.of(10, 0), LocalTime.of(22, 0), 60, canchaId);
+    }
+
+    private CargaMasivaJobResponseDTO esperarFin(String id) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        CargaMasivaJobResponseDTO job = cargaMasivaJobService.getById(id);
+        while (job.getFinalizado() == null && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+            job = cargaMasivaJobService.getById(id);
+        }
+        return job;
+    }
+
+    @Test
+    void submit_SplitsByCourtWeek() throws InterruptedException {
+        when(turnoService.cargaMasivaTurnos(any(CargaMasivaTurnosDTO.class)))
+                .thenReturn(new CargaMasivaResultadoDTO(12, 0));
+
+        CargaMasivaJobRequestDTO request = new CargaMasivaJobRequestDTO(List.of(
+                carga(1L, desde, desde.plusDays(9)),
+                carga(2L, desde, desde.plusDays(2))));
+
+        CargaMasivaJobResponseDTO encolado = cargaMasivaJobService.submit(request);
+        assertEquals(3, encolado.getBloquesTotales());
+
+        CargaMasivaJobResponseDTO job = esperarFin(encolado.getId());
+
+        assertEquals(CargaMasivaJobState.COMPLETADO, job.getEstado());
+        assertEquals(3, job.getBloquesProcesados());
+        assertEquals(36, job.getTurnosCreados());
+        assertTrue(job.getErrores().isEmpty());
+
+        ArgumentCaptor<CargaMasivaTurnosDTO> captor = ArgumentCaptor.forClass(CargaMasivaTurnosDTO.class);
+        verify(turnoService, times(3)).cargaMasivaTurnos(captor.capture());
+        List<CargaMasivaTurnosDTO> bloquesCancha1 = captor.getAllValues().stream()
+                .filter(b -> b.getCanchaId().equals(1L))
+                .sorted(Comparator.comparing(CargaMasivaTurnosDTO::getFechaDesde))
+                .toList();
+        assertEquals(desde.plusDays(6), bloquesCancha1.get(0).getFechaHasta());
+        assertEquals(desde.plusDays(7), bloquesCancha1.get(1).getFechaDesde());
+        assertEquals(desde.plusDays(9), bloquesCancha1.get(1).getFechaHasta());
+    }
+
+    @Test
+    void submit_FailedChunkDoesNotStopOthers() throws InterruptedException {
+        when(turnoService.cargaMasivaTurnos(argThat(b -> b != null && b.getCanchaId().equals(1L))))
+                .thenReturn(new CargaMasivaResultadoDTO(10, 2));
+        when(turnoService.cargaMasivaTurnos(argThat(b -> b != null && b.getCanchaId().equals(9L))))
+                .thenThrow(new ResourceNotFoundException("Cancha no encontrada."));
+
+        CargaMasivaJobRequestDTO request = new CargaMasivaJobRequestDTO(List.of(
+                carga(1L, desde, desde),
+                carga(9L, desde, desde)));
+
+        CargaMasivaJobResponseDTO job = esperarFin(cargaMasivaJobService.submit(request).getId());
+
+        assertEquals(CargaMasivaJobState.COMPLETADO_CON_ERRORES, job.getEstado());
+        assertEquals(10, job.getTurnosCreados());
+        assertEquals(2, job.getTurnosOmitidos());
+        assertEquals(1, job.getErrores().size());
+        assertTrue(job.getErrores().get(0).contains("Cancha no encontrada."));
+    }
+
+    @Test
+    void getById_FirstChunkRunning_InProgress() throws InterruptedException {
+        CountDownLatch empezo = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        when(turnoService.cargaMasivaTurnos(any(CargaMasivaTurnosDTO.class))).thenAnswer(invocation -> {
+            empezo.countDown();
+            assertTrue(terminar.await(5, TimeUnit.SECONDS));
+            return new CargaMasivaResultadoDTO(12, 0);
+        });
+
+        CargaMasivaJobResponseDTO encolado = cargaMasivaJobService.submit(
+                new CargaMasivaJobRequestDTO(List.of(carga(1L, desde, desde.plusDays(2)))));
+        assertTrue(empezo.await(5, TimeUnit.SECONDS));
+
+        CargaMasivaJobResponseDTO enCurso = cargaMasivaJobService.getById(encolado.getId());
+        assertEquals(CargaMasivaJobState.EN_CURSO, enCurso.getEstado());
+        assertEquals(0, enCurso.getBloquesProcesados());
+
+        terminar.countDown();
+        assertEquals(CargaMasivaJobState.COMPLETADO, esperarFin(encolado.getId()).getEstado());
+    }
+
+    @Test
+    void submit_InvalidRange() {
+        CargaMasivaJobRequestDTO request = new CargaMasivaJobRequestDTO(List.of(
+                carga(1L, desde, desde.minusDays(1))));
+
+        assertThrows(IllegalArgumentException.class, () -> cargaMasivaJobService.submit(request));
+
+        verifyNoInteractions(turnoService);
+    }
+
+    @Test
+    void getById_NotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> cargaMasivaJobService.getById("inexistente"));
+    }
+}
@@ -0,0 +1,265 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.HorarioRecurrente;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.FranjaHorariaDTO;
+import com.project.deporturnos.entity.dto.HorarioRecurrenteRequestDTO;
+import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
+import com.project.deporturnos.exception.CanchaNotAvailableException;
+import com.project.deporturnos.exception.ResourceNotFoundException;
+import com.project.deporturnos.exception.TurnoAlreadyReservedException;
+import com.project.deporturnos.repository.ICanchaRepository;
+import com.project.deporturnos.repository.IHorarioRecurrenteRepository;
+import com.project.deporturnos.repository.ITurnoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HorarioRecurrenteServiceTest {
+
+    private HorarioRecurrenteService horarioRecurrenteService;
+
+    @Mock
+    private IHorarioRecurrenteRepository horarioRecurrenteRepository;
+
+    @Mock
+    private ICanchaRepository canchaRepository;
+
+    @Mock
+    private ITurnoRepository turnoRepository;
+
+    @Mock
+    private TurnoAvailabilityIndex availabilityIndex;
+
+    // 2025-03-03 es lunes
+    private final LocalDate lunes = LocalDate.of(2025, 3, 3);
+
+    @BeforeEach
+    void setUp() {
+        horarioRecurrenteService = new HorarioRecurrenteService(horarioRecurrenteRepository, canchaRepository,
+                turnoRepository, availabilityIndex, 60);
+    }
+
+    private Cancha cancha() {
+        Cancha cancha = new Cancha();
+        cancha.setId(1L);
+        cancha.setNombre("Cancha 1");
+        cancha.setTipo("F5");
+        cancha.setPrecioHora(new BigDecimal("15000"));
+        cancha.setDisponibilidad(true);
+        return cancha;
+    }
+
+    private HorarioRecurrente horario(Set<DayOfWeek> dias, LocalTime desde, LocalTime hasta, int duracion) {
+        HorarioRecurrente horario = new HorarioRecurrente();
+        horario.setId(1L);
+        horario.setCancha(cancha());
+        horario.setDias(dias);
+        horario.setHoraDesde(desde);
+        horario.setHoraHasta(hasta);
+        horario.setDuracionEnMinutos(duracion);
+        horario.setVigenteDesde(lunes);
+        return horario;
+    }
+
+    private void conPlantillaSemanal() {
+        when(horarioRecurrenteRepository.findVigentesByCanchaId(1L)).thenReturn(List.of(
+                horario(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(8, 0), LocalTime.of(23, 0), 60)));
+    }
+
+    /* Metodo expandir() */
+    @Test
+    void expandir_WeekdayTemplate() {
+        conPlantillaSemanal();
+
+        List<TurnoResponseDTO> result = horarioRecurrenteService.expandir(1L, lunes);
+
+        assertEquals(15, result.size());
+        assertNull(result.get(0).getId());
+        assertEquals(LocalTime.of(8, 0), result.get(0).getHoraInicio());
+        assertEquals(LocalTime.of(23, 0), result.get(14).getHoraFin());
+        assertEquals(TurnoState.DISPONIBLE, result.get(0).getEstado());
+        assertEquals(15000, result.get(0).getCancha().getPrecioHora());
+    }
+
+    @Test
+    void expandir_OutsideDaysOrValidity() {
+        conPlantillaSemanal();
+
+        assertTrue(horarioRecurrenteService.expandir(1L, lunes.plusDays(5)).isEmpty());
+        assertTrue(horarioRecurrenteService.expandir(1L, lunes.minusDays(7)).isEmpty());
+        // Las plantillas de la cancha se leen una sola vez
+        verify(horarioRecurrenteRepository, times(1)).findVigentesByCanchaId(1L);
+    }
+
+    @Test
+    void expandir_Expired_ReloadsTemplates() {
+        // Sin TTL se vuelven a leer en cada consulta: así se ven los cambios hechos en otra instancia
+        HorarioRecurrenteService sinTtl = new HorarioRecurrenteService(horarioRecurrenteRepository, canchaRepository,
+                turnoRepository, availabilityIndex, 0);
+        conPlantillaSemanal();
+
+        sinTtl.expandir(1L, lunes);
+        sinTtl.expandir(1L, lunes);
+
+        verify(horarioRecurrenteRepository, times(2)).findVigentesByCanchaId(1L);
+    }
+
+    @Test
+    void expandir_SlotsDoNotPassClosingTime() {
+        when(horarioRecurrenteRepository.findVigentesByCanchaId(1L)).thenReturn(List.of(
+                horario(EnumSet.of(DayOfWeek.MONDAY), LocalTime.of(18, 0), LocalTime.of(22, 0), 90)));
+
+        List<TurnoResponseDTO> result = horarioRecurrenteService.expandir(1L, lunes);
+
+        assertEquals(2, result.size());
+        assertEquals(LocalTime.of(21, 0), result.get(1).getHoraFin());
+    }
+
+    /* Metodo save() */
+    @Test
+    void save_InvalidHours() {
+        HorarioRecurrenteRequestDTO request = new HorarioRecurrenteRequestDTO(1L, EnumSet.of(DayOfWeek.MONDAY),
+                LocalTime.of(23, 0), LocalTime.of(8, 0), 60, lunes, null);
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha()));
+
+        assertThrows(IllegalArgumentException.class, () -> horarioRecurrenteService.save(request));
+
+        verify(horarioRecurrenteRepository, never()).save(any(HorarioRecurrente.class));
+    }
+
+    @Test
+    void save_CanchaNotFound() {
+        HorarioRecurrenteRequestDTO request = new HorarioRecurrenteRequestDTO(1L, EnumSet.of(DayOfWeek.MONDAY),
+                LocalTime.of(8, 0), LocalTime.of(23, 0), 60, lunes, null);
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> horarioRecurrenteService.save(request));
+    }
+
+    /* Metodo materializar() */
+    @Test
+    void materializar_CreatesRowForVirtualSlot() {
+        conPlantillaSemanal();
+        TurnoSlotRequestDTO request = new TurnoSlotRequestDTO(1L, lunes, LocalTime.of(20, 0));
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha()));
+        when(turnoRepository.findVigenteByCanchaAndFechaAndHoraInicio(1L, lunes, LocalTime.of(20, 0)))
+                .thenReturn(Optional.empty());
+        when(turnoRepository.findFranjasByCanchaAndFecha(1L, lunes)).thenReturn(List.of(
+                new FranjaHorariaDTO(LocalTime.of(18, 0), LocalTime.of(19, 0))));
+        when(turnoRepository.save(any(Turno.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Turno result = horarioRecurrenteService.materializar(request, TurnoState.RESERVADO);
+
+        assertEquals(TurnoState.RESERVADO, result.getEstado());
+        assertEquals(LocalTime.of(21, 0), result.getHoraFin());
+        verify(turnoRepository).bloquearDia(1L, (int) lunes.toEpochDay());
+        verify(availabilityIndex).registrar(result);
+    }
+
+    @Test
+    void materializar_ExistingRowUsesConditionalUpdate() {
+        TurnoSlotRequestDTO request = new TurnoSlotRequestDTO(1L, lunes, LocalTime.of(20, 0));
+
+        Turno existente = new Turno();
+        existente.setId(9L);
+        existente.setEstado(TurnoState.DISPONIBLE);
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha()));
+        when(turnoRepository.findVigenteByCanchaAndFechaAndHoraInicio(1L, lunes, LocalTime.of(20, 0)))
+                .thenReturn(Optional.of(existente));
+        when(turnoRepository.compareAndSetEstado(9L, TurnoState.DISPONIBLE, TurnoState.BLOQUEADO)).thenReturn(1);
+
+        Turno result = horarioRecurrenteService.materializar(request, TurnoState.BLOQUEADO);
+
+        assertSame(existente, result);
+        assertEquals(TurnoState.BLOQUEADO, result.getEstado());
+        verify(turnoRepository, never()).save(any(Turno.class));
+    }
+
+    @Test
+    void materializar_ExistingRowAlreadyTaken() {
+        TurnoSlotRequestDTO request = new TurnoSlotRequestDTO(1L, lunes, LocalTime.of(20, 0));
+
+        Turno existente = new Turno();
+        existente.setId(9L);
+        existente.setEstado(TurnoState.RESERVADO);
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha()));
+        when(turnoRepository.findVigenteByCanchaAndFechaAndHoraInicio(1L, lunes, LocalTime.of(20, 0)))
+                .thenReturn(Optional.of(existente));
+        when(turnoRepository.compareAndSetEstado(9L, TurnoState.DISPONIBLE, TurnoState.RESERVADO)).thenReturn(0);
+
+        assertThrows(TurnoAlreadyReservedException.class,
+                () -> horarioRecurrenteService.materializar(request, TurnoState.RESERVADO));
+    }
+
+    @Test
+    void materializar_OverlapsSavedTurno() {
+        conPlantillaSemanal();
+        TurnoSlotRequestDTO request = new TurnoSlotRequestDTO(1L, lunes, LocalTime.of(20, 0));
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha()));
+        when(turnoRepository.findVigenteByCanchaAndFechaAndHoraInicio(1L, lunes, LocalTime.of(20, 0)))
+                .thenReturn(Optional.empty());
+        when(turnoRepository.findFranjasByCanchaAndFecha(1L, lunes)).thenReturn(List.of(
+                new FranjaHorariaDTO(LocalTime.of(19, 30), LocalTime.of(20, 30))));
+
+        assertThrows(TurnoAlreadyReservedException.class,
+                () -> horarioRecurrenteService.materializar(request, TurnoState.RESERVADO));
+
+        verify(turnoRepository, never()).save(any(Turno.class));
+    }
+
+    @Test
+    void materializar_NotInTemplate() {
+        conPlantillaSemanal();
+        TurnoSlotRequestDTO request = new TurnoSlotRequestDTO(1L, lunes, LocalTime.of(20, 30));
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha()));
+        when(turnoRepository.findVigenteByCanchaAndFechaAndHoraInicio(eq(1L), eq(lunes), any(LocalTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> horarioRecurrenteService.materializar(request, TurnoState.RESERVADO));
+    }
+
+    @Test
+    void materializar_CanchaNotAvailable() {
+        Cancha cancha = cancha();
+        cancha.setDisponibilidad(false);
+        TurnoSlotRequestDTO request = new TurnoSlotRequestDTO(1L, lunes, LocalTime.of(20, 0));
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha));
+
+        assertThrows(CanchaNotAvailableException.class,
+                () -> horarioRecurrenteService.materializar(request, TurnoState.RESERVADO));
+
+        verify(turnoRepository, never()).bloquearDia(any(), anyInt());
+    }
+}
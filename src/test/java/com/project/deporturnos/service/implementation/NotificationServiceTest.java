@@ -0,0 +1,35 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.entity.domain.Usuario;
+import com.project.deporturnos.service.IEmailOutboxService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @Mock
+    private IEmailOutboxService emailOutboxService;
+
+    @Test
+    void sendNotificationReservationConfirmed_QueuesEmailWithQr() {
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("cliente@deporturnos.com");
+
+        notificationService.sendNotificationReservationConfirmed(usuario, 42L);
+
+        // El QR se guarda como contenido y se genera recién al enviar
+        verify(emailOutboxService).encolarConQr(eq("cliente@deporturnos.com"), startsWith("Reserva Confirmada"),
+                contains("código QR"), eq("http://localhost:5173/validate-reserva/42"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Turno;
+import com.project.deporturnos.repository.OcupacionRollupRepository;
+import com.project.deporturnos.repository.OcupacionRollupRepository.Hora;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OcupacionRollupServiceTest {
+
+    @InjectMocks
+    private OcupacionRollupService ocupacionRollupService;
+
+    @Mock
+    private OcupacionRollupRepository rollupRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final LocalDate fecha = LocalDate.of(2024, 5, 10);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Turno turno(int hora, int minuto) {
+        Cancha cancha = new Cancha();
+        cancha.setId(1L);
+
+        Turno turno = new Turno();
+        turno.setCancha(cancha);
+        turno.setFecha(fecha);
+        turno.setHoraInicio(LocalTime.of(hora, minuto));
+        return turno;
+    }
+
+    /* Metodo registrar() */
+    @Test
+    void registrar_WithoutTransaction_RecalculatesNow() {
+        ocupacionRollupService.registrar(turno(18, 30));
+
+        verify(rollupRepository).recalcular(Set.of(new Hora(1L, fecha, 18)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registrar_InTransaction_RecalculatesOnceBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        ocupacionRollupService.registrar(turno(18, 0));
+        ocupacionRollupService.registrar(turno(18, 30));
+        ocupacionRollupService.registrar(turno(19, 0));
+        verify(rollupRepository, never()).recalcular(any());
+
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, sincronizaciones.size());
+        sincronizaciones.forEach(s -> s.beforeCommit(false));
+        sincronizaciones.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Los cambios de JPA tienen que estar en la base antes de recalcular por SQL
+        ArgumentCaptor<Collection<Hora>> horas = ArgumentCaptor.forClass(Collection.class);
+        InOrder orden = inOrder(entityManager, rollupRepository);
+        orden.verify(entityManager).flush();
+        orden.verify(rollupRepository).recalcular(horas.capture());
+        assertEquals(Set.of(new Hora(1L, fecha, 18), new Hora(1L, fecha, 19)), Set.copyOf(horas.getValue()));
+        assertNull(TransactionSynchronizationManager.getResource(ocupacionRollupService));
+    }
+
+    @Test
+    void registrar_IncompleteTurno_Ignored() {
+        Turno turno = turno(10, 0);
+        turno.setCancha(null);
+
+        ocupacionRollupService.registrar(turno);
+        ocupacionRollupService.registrar(1L, null, LocalTime.NOON);
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    /* Metodo reconstruir() */
+    @Test
+    void reconstruir_Success() {
+        when(rollupRepository.reconstruir(fecha, fecha.plusDays(30))).thenReturn(42);
+
+        assertEquals(42, ocupacionRollupService.reconstruir(fecha, fecha.plusDays(30)));
+    }
+
+    @Test
+    void reconstruir_InvalidRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ocupacionRollupService.reconstruir(fecha.plusDays(1), fecha));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    /* Metodo alIniciar() */
+    @Test
+    void alIniciar_EmptyTable_BuildsEverything() {
+        when(rollupRepository.estaVacia()).thenReturn(true);
+
+        ocupacionRollupService.alIniciar();
+
+        verify(rollupRepository).reconstruir(null, null);
+    }
+
+    @Test
+    void alIniciar_ExistingRows_Skips() {
+        when(rollupRepository.estaVacia()).thenReturn(false);
+
+        ocupacionRollupService.alIniciar();
+
+        verify(rollupRepository, never()).reconstruir(any(), any());
+    }
+}
@@ -0,0 +1,99 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.entity.domain.AgrupacionGanancias;
+import com.project.deporturnos.entity.domain.Deporte;
+import com.project.deporturnos.entity.dto.GananciaDiariaDTO;
+import com.project.deporturnos.entity.dto.GananciaGrupoDTO;
+import com.project.deporturnos.repository.ReporteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportsServiceTest {
+
+    @InjectMocks
+    private ReportsService reportsService;
+
+    @Mock
+    private ReporteRepository reporteRepository;
+
+    private final LocalDate desde = LocalDate.of(2024, 4, 30);
+    private final LocalDate hasta = LocalDate.of(2024, 5, 31);
+
+    private List<GananciaDiariaDTO> filas() {
+        return List.of(
+                new GananciaDiariaDTO(1L, "Cancha 1", Deporte.FUTBOL, LocalDate.of(2024, 4, 30), 2, new BigDecimal("30000.00")),
+                new GananciaDiariaDTO(2L, "Cancha 2", Deporte.PADEL, LocalDate.of(2024, 5, 1), 1, new BigDecimal("8000.00")),
+                new GananciaDiariaDTO(1L, "Cancha 1", Deporte.FUTBOL, LocalDate.of(2024, 5, 1), 3, new BigDecimal("45000.00")));
+    }
+
+    /* Metodo calcularGananciasGenerales() */
+    @Test
+    void calcularGananciasGenerales_SumsDailyRows() {
+        when(reporteRepository.findGananciasPorCanchaYDia(desde, hasta)).thenReturn(filas());
+
+        BigDecimal result = reportsService.calcularGananciasGenerales(desde, hasta);
+
+        assertEquals(new BigDecimal("83000.00"), result);
+    }
+
+    @Test
+    void calcularGananciasGenerales_NoRows_Zero() {
+        when(reporteRepository.findGananciasPorCanchaYDia(desde, hasta)).thenReturn(List.of());
+
+        assertEquals(BigDecimal.ZERO, reportsService.calcularGananciasGenerales(desde, hasta));
+    }
+
+    @Test
+    void calcularGananciasGenerales_InvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> reportsService.calcularGananciasGenerales(hasta, desde));
+        verify(reporteRepository, never()).findGananciasPorCanchaYDia(any(), any());
+    }
+
+    /* Metodo calcularGananciasAgrupadas() */
+    @Test
+    void calcularGananciasAgrupadas_ByCancha() {
+        when(reporteRepository.findGananciasPorCanchaYDia(desde, hasta)).thenReturn(filas());
+
+        List<GananciaGrupoDTO> result = reportsService.calcularGananciasAgrupadas(desde, hasta, AgrupacionGanancias.CANCHA);
+
+        assertEquals(2, result.size());
+        assertEquals("1", result.get(0).getClave());
+        assertEquals("Cancha 1", result.get(0).getDescripcion());
+        assertEquals(5, result.get(0).getTurnos());
+        assertEquals(new BigDecimal("75000.00"), result.get(0).getGanancias());
+        assertEquals(new BigDecimal("8000.00"), result.get(1).getGanancias());
+    }
+
+    @Test
+    void calcularGananciasAgrupadas_ByMonth() {
+        when(reporteRepository.findGananciasPorCanchaYDia(desde, hasta)).thenReturn(filas());
+
+        List<GananciaGrupoDTO> result = reportsService.calcularGananciasAgrupadas(desde, hasta, AgrupacionGanancias.MES);
+
+        assertEquals(List.of("2024-04", "2024-05"), result.stream().map(GananciaGrupoDTO::getClave).toList());
+        assertEquals(new BigDecimal("53000.00"), result.get(1).getGanancias());
+        assertEquals(4, result.get(1).getTurnos());
+    }
+
+    @Test
+    void calcularGananciasAgrupadas_ByDeporte() {
+        when(reporteRepository.findGananciasPorCanchaYDia(desde, hasta)).thenReturn(filas());
+
+        List<GananciaGrupoDTO> result = reportsService.calcularGananciasAgrupadas(desde, hasta, AgrupacionGanancias.DEPORTE);
+
+        assertEquals(List.of("FUTBOL", "PADEL"), result.stream().map(GananciaGrupoDTO::getClave).toList());
+        assertEquals(new BigDecimal("75000.00"), result.get(0).getGanancias());
+    }
+}
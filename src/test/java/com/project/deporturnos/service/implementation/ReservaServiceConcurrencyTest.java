@@ -0,0 +1,166 @@
+package com.project.deporturnos.service.implementation;
+
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
+import com.project.deporturnos.entity.domain.*;
+import com.project.deporturnos.entity.dto.ReservaRequestDTO;
+import com.project.deporturnos.exception.TurnoAlreadyReservedException;
+import com.project.deporturnos.mapper.CanchaMapper;
+import com.project.deporturnos.mapper.ReservaMapper;
+import com.project.deporturnos.mapper.TurnoMapper;
+import com.project.deporturnos.mapper.UsuarioMapper;
+import com.project.deporturnos.repository.ICanchaRepository;
+import com.project.deporturnos.repository.IReservaRepository;
+import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.repository.IUsuarioRepository;
+import com.project.deporturnos.scheduler.ReservaVencimientoTimer;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
+import com.project.deporturnos.service.INotificationService;
+import com.project.deporturnos.service.IOcupacionRollupService;
+import com.project.deporturnos.service.ITurnoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Cientos de reservas simultáneas del mismo turno por saveReservaByUser, con su transacción real
+ * contra PostgreSQL: una sola confirma y el resto recibe TurnoAlreadyReservedException. El
+ * throughput se mide con k6 (k6/scripts/contention.js), no acá.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=20")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReservaService.class, ReservaMapper.class, UsuarioMapper.class, TurnoMapper.class, CanchaMapper.class})
+class ReservaServiceConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ICanchaRepository canchaRepository;
+
+    @Autowired
+    private ITurnoRepository turnoRepository;
+
+    @Autowired
+    private IUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private IReservaRepository reservaRepository;
+
+    @MockBean
+    private INotificationService notificationService;
+
+    @MockBean
+    private TurnoAvailabilityIndex availabilityIndex;
+
+    @MockBean
+    private IHorarioRecurrenteService horarioRecurrenteService;
+
+    @MockBean
+    private ReservaVencimientoTimer vencimientoTimer;
+
+    @MockBean
+    private IOcupacionRollupService ocupacionRollupService;
+
+    @MockBean
+    private ITurnoService turnoService;
+
+    @Test
+    void saveReservaByUser_HundredsOfConcurrentBookings_ExactlyOneReserva() throws Exception {
+        int intentos = 300;
+
+        Cancha cancha = new Cancha();
+        cancha.setNombre("Cancha 1");
+        cancha.setTipo("5");
+        cancha.setPrecioHora(BigDecimal.TEN);
+        cancha.setDisponibilidad(true);
+        cancha = canchaRepository.save(cancha);
+
+        Turno turno = new Turno();
+        turno.setFecha(LocalDate.of(2024, 5, 10));
+        turno.setHoraInicio(LocalTime.of(18, 0));
+        turno.setHoraFin(LocalTime.of(19, 0));
+        turno.setEstado(TurnoState.DISPONIBLE);
+        turno.setCancha(cancha);
+        Long turnoId = turnoRepository.save(turno).getId();
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nombre("Cliente")
+                .email("cliente@deporturnos.com")
+                .password("hash")
+                .rol(Rol.CLIENTE)
+                .activada(true)
+                .build());
+        UsernamePasswordAuthenticationToken autenticacion =
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+
+        ExecutorService hilos = Executors.newFixedThreadPool(intentos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        int confirmadas = 0;
+        try {
+            for (int i = 0; i < intentos; i++) {
+                resultados.add(hilos.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(autenticacion);
+                    try {
+                        largada.await();
+                        return reservaService.saveReservaByUser(new ReservaRequestDTO(null, turnoId, null));
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            largada.countDown();
+
+            for (Future<?> resultado : resultados) {
+                try {
+                    resultado.get(60, TimeUnit.SECONDS);
+                    confirmadas++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(TurnoAlreadyReservedException.class, e.getCause());
+                }
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertEquals(1, confirmadas);
+        assertEquals(1, reservaRepository.count());
+        assertEquals(TurnoState.RESERVADO, turnoRepository.findById(turnoId).orElseThrow().getEstado());
+        verify(notificationService, times(1)).sendNotificationReservationConfirmed(any(), any());
+    }
+}
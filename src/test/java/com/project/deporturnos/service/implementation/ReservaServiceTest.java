@@ -1,18 +1,26 @@
 package com.project.deporturnos.service.implementation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
 import com.project.deporturnos.entity.domain.*;
+import com.project.deporturnos.entity.dto.CursorPageDTO;
 import com.project.deporturnos.entity.dto.ReservaRequestDTO;
 import com.project.deporturnos.entity.dto.ReservaRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.ReservaResponseDTO;
 import com.project.deporturnos.entity.dto.TurnoResponseDTO;
+import com.project.deporturnos.entity.dto.TurnoSlotRequestDTO;
 import com.project.deporturnos.entity.dto.UsuarioSimpleDTO;
 import com.project.deporturnos.exception.ReservaAlreadyCancelledException;
 import com.project.deporturnos.exception.ResourceNotFoundException;
 import com.project.deporturnos.exception.TurnoAlreadyReservedException;
+import com.project.deporturnos.mapper.ReservaMapper;
 import com.project.deporturnos.repository.IReservaRepository;
 import com.project.deporturnos.repository.ITurnoRepository;
 import com.project.deporturnos.repository.IUsuarioRepository;
+import com.project.deporturnos.scheduler.ReservaVencimientoTimer;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
+import com.project.deporturnos.service.IOcupacionRollupService;
+import com.project.deporturnos.service.ITurnoService;
+import com.project.deporturnos.utils.Cursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -24,6 +32,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -31,6 +40,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -56,11 +66,26 @@ class ReservaServiceTest {
     private ITurnoRepository turnoRepository;
 
     @Mock
-    private ObjectMapper mapper;
+    private ReservaMapper reservaMapper;
 
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private TurnoAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private IHorarioRecurrenteService horarioRecurrenteService;
+
+    @Mock
+    private ReservaVencimientoTimer vencimientoTimer;
+
+    @Mock
+    private IOcupacionRollupService ocupacionRollupService;
+
+    @Mock
+    private ITurnoService turnoService;
+
     /* Metodo save() */
     @Test
     void save_Success() {
@@ -92,9 +117,10 @@ class ReservaServiceTest {
 
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         when(turnoRepository.findById(1L)).thenReturn(Optional.of(turno));
+        when(turnoRepository.compareAndSetEstado(1L, TurnoState.DISPONIBLE, TurnoState.RESERVADO)).thenReturn(1);
         when(reservaRepository.save(any(Reserva.class))).thenReturn(reserva);
-        when(mapper.convertValue(any(Reserva.class), eq(ReservaResponseDTO.class))).thenReturn(reservaResponseDTO);
-        when(mapper.convertValue(any(ReservaRequestDTO.class), eq(Reserva.class))).thenReturn(reserva);
+        when(reservaMapper.toResponseDTO(any(Reserva.class))).thenReturn(reservaResponseDTO);
+        when(reservaMapper.toEntity(any(ReservaRequestDTO.class))).thenReturn(reserva);
 
         ReservaResponseDTO result = reservaService.save(reservaRequestDTO);
 
@@ -154,7 +180,7 @@ class ReservaServiceTest {
 
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         when(turnoRepository.findById(1L)).thenReturn(Optional.of(turno));
-        when(mapper.convertValue(any(ReservaRequestDTO.class), eq(Reserva.class))).thenReturn(reserva);
+        when(reservaMapper.toEntity(any(ReservaRequestDTO.class))).thenReturn(reserva);
 
         assertThrows(TurnoAlreadyReservedException.class, () -> reservaService.save(reservaRequestDTO));
 
@@ -194,8 +220,8 @@ class ReservaServiceTest {
         reservaResponseDTO2.setEstado(ReservaState.CONFIRMADA);
 
         when(reservaRepository.findAllByDeletedFalse(pageable)).thenReturn(reservasPage);
-        when(mapper.convertValue(reserva1, ReservaResponseDTO.class)).thenReturn(reservaResponseDTO1);
-        when(mapper.convertValue(reserva2, ReservaResponseDTO.class)).thenReturn(reservaResponseDTO2);
+        when(reservaMapper.toResponseDTO(reserva1)).thenReturn(reservaResponseDTO1);
+        when(reservaMapper.toResponseDTO(reserva2)).thenReturn(reservaResponseDTO2);
 
         Page<ReservaResponseDTO> resultPage = reservaService.getPaginatedData(page, size, sortBy);
 
@@ -209,8 +235,8 @@ class ReservaServiceTest {
         assertEquals(2L, resultList.get(1).getId());
 
         verify(reservaRepository).findAllByDeletedFalse(pageable);
-        verify(mapper).convertValue(reserva1, ReservaResponseDTO.class);
-        verify(mapper).convertValue(reserva2, ReservaResponseDTO.class);
+        verify(reservaMapper).toResponseDTO(reserva1);
+        verify(reservaMapper).toResponseDTO(reserva2);
     }
 
     @Test
@@ -230,7 +256,58 @@ class ReservaServiceTest {
         assertEquals("No se encontraron reservas para listar.", exception.getMessage());
 
         verify(reservaRepository).findAllByDeletedFalse(pageable);
-        verify(mapper, never()).convertValue(any(Reserva.class), eq(ReservaResponseDTO.class));
+        verify(reservaMapper, never()).toResponseDTO(any(Reserva.class));
+    }
+
+    /* Metodo getCursorPage() */
+    private Reserva reserva(Long id, LocalDate fecha) {
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setFecha(fecha);
+        return reserva;
+    }
+
+    @Test
+    void getCursorPage_ReturnsNextCursorWithoutCount() {
+        LocalDate fecha = LocalDate.of(2024, 10, 1);
+        when(reservaRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(reserva(1L, fecha), reserva(2L, fecha), reserva(3L, fecha)));
+        when(reservaMapper.toResponseDTO(any(Reserva.class))).thenReturn(new ReservaResponseDTO());
+
+        CursorPageDTO<ReservaResponseDTO> resultado = reservaService.getCursorPage(null, null, null, 2, "fecha", false);
+
+        assertEquals(2, resultado.getContent().size());
+        assertNull(resultado.getTotalElements());
+        assertEquals(new Cursor("fecha", "2024-10-01", 2L), Cursor.decodificar(resultado.getNextCursor(), "fecha"));
+        verify(reservaRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void getCursorPage_LastPage_NoCursorAndTotalWhenRequested() {
+        String cursor = new Cursor("fecha", "2024-10-01", 2L).codificar();
+        when(reservaRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(reserva(3L, LocalDate.of(2024, 10, 1))));
+        when(reservaRepository.count(any(Specification.class))).thenReturn(3L);
+        when(reservaMapper.toResponseDTO(any(Reserva.class))).thenReturn(new ReservaResponseDTO());
+
+        CursorPageDTO<ReservaResponseDTO> resultado = reservaService.getCursorPage(null, null, cursor, 2, "fecha", true);
+
+        assertEquals(1, resultado.getContent().size());
+        assertNull(resultado.getNextCursor());
+        assertEquals(3L, resultado.getTotalElements());
+    }
+
+    @Test
+    void getCursorPage_CursorFromAnotherSort_Throws() {
+        String cursor = new Cursor("id", "2", 2L).codificar();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> reservaService.getCursorPage(null, null, cursor, 20, "fecha", false));
+        assertThrows(IllegalArgumentException.class,
+                () -> reservaService.getCursorPage(null, null, "no-es-un-cursor", 20, "fecha", false));
+        assertThrows(IllegalArgumentException.class,
+                () -> reservaService.getCursorPage(null, null, null, 20, "estado", false));
+        verifyNoInteractions(reservaRepository);
     }
 
     /* Metodo update() */
@@ -243,6 +320,7 @@ class ReservaServiceTest {
         reserva.setEstado(ReservaState.CANCELADA);
 
         Turno turno = new Turno();
+        turno.setId(3L);
         turno.setEstado(TurnoState.DISPONIBLE);
         reserva.setTurno(turno);
 
@@ -254,8 +332,9 @@ class ReservaServiceTest {
         request.setEstado(ReservaState.CONFIRMADA);
 
         when(reservaRepository.findById(reservaId)).thenReturn(Optional.of(reserva));
+        when(turnoRepository.compareAndSetEstado(3L, TurnoState.DISPONIBLE, TurnoState.RESERVADO)).thenReturn(1);
         when(reservaRepository.save(Mockito.any(Reserva.class))).thenReturn(reserva);
-        when(mapper.convertValue(reserva, ReservaResponseDTO.class)).thenReturn(new ReservaResponseDTO());
+        when(reservaMapper.toResponseDTO(reserva)).thenReturn(new ReservaResponseDTO());
 
         ReservaResponseDTO response = reservaService.update(reservaId, request);
 
@@ -396,9 +475,10 @@ class ReservaServiceTest {
         currentUser.setId(1L);
 
         when(turnoRepository.findById(request.getTurnoId())).thenReturn(Optional.of(turno));
-        when(mapper.convertValue(request, Reserva.class)).thenReturn(new Reserva());
+        when(turnoRepository.compareAndSetEstado(1L, TurnoState.DISPONIBLE, TurnoState.RESERVADO)).thenReturn(1);
+        when(reservaMapper.toEntity(request)).thenReturn(new Reserva());
         when(reservaRepository.save(any(Reserva.class))).thenReturn(new Reserva());
-        when(mapper.convertValue(any(Reserva.class), eq(ReservaResponseDTO.class)))
+        when(reservaMapper.toResponseDTO(any(Reserva.class)))
                 .thenReturn(new ReservaResponseDTO());
 
         SecurityContext securityContext = mock(SecurityContext.class);
@@ -441,6 +521,43 @@ class ReservaServiceTest {
         verify(reservaRepository, never()).save(any(Reserva.class));
     }
 
+    @Test
+    public void saveReservaByUser_TurnoAlreadyReserved_CarriesAlternatives() {
+        ReservaRequestDTO request = new ReservaRequestDTO();
+        request.setTurnoId(1L);
+
+        Cancha cancha = new Cancha();
+        cancha.setId(3L);
+        Turno turno = new Turno();
+        turno.setId(1L);
+        turno.setEstado(TurnoState.RESERVADO);
+        turno.setCancha(cancha);
+        turno.setFecha(LocalDate.now().plusDays(1));
+        turno.setHoraInicio(LocalTime.of(19, 0));
+        turno.setHoraFin(LocalTime.of(20, 0));
+
+        Usuario currentUser = new Usuario();
+        currentUser.setId(2L);
+
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(currentUser);
+        SecurityContextHolder.setContext(securityContext);
+
+        List<TurnoResponseDTO> alternativas = List.of(new TurnoResponseDTO());
+        when(turnoRepository.findById(request.getTurnoId())).thenReturn(Optional.of(turno));
+        when(turnoService.getAlternativas(eq(1L), eq(3L), eq(turno.getFecha()), eq(LocalTime.of(19, 0)), eq(LocalTime.of(20, 0)), anyInt()))
+                .thenReturn(alternativas);
+
+        TurnoAlreadyReservedException e = assertThrows(TurnoAlreadyReservedException.class,
+                () -> reservaService.saveReservaByUser(request));
+
+        assertEquals(alternativas, e.getAlternativas());
+        verify(turnoRepository, never()).compareAndSetEstado(any(), any(), any());
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
+
     @Test
     public void saveReservaByUser_TurnoNotFound() {
         ReservaRequestDTO request = new ReservaRequestDTO();
@@ -463,6 +580,87 @@ class ReservaServiceTest {
         verify(reservaRepository, never()).save(any(Reserva.class));
     }
 
+    @Test
+    public void saveReservaByUser_LostRace() {
+        ReservaRequestDTO request = new ReservaRequestDTO();
+        request.setTurnoId(1L);
+
+        // El turno se leyó DISPONIBLE pero otra reserva ganó la actualización condicional
+        Turno turno = new Turno();
+        turno.setId(1L);
+        turno.setEstado(TurnoState.DISPONIBLE);
+
+        Usuario currentUser = new Usuario();
+        currentUser.setId(2L);
+
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(currentUser);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(turnoRepository.findById(request.getTurnoId())).thenReturn(Optional.of(turno));
+        when(turnoRepository.compareAndSetEstado(1L, TurnoState.DISPONIBLE, TurnoState.RESERVADO)).thenReturn(0);
+
+        assertThrows(TurnoAlreadyReservedException.class, () -> reservaService.saveReservaByUser(request));
+
+        assertEquals(TurnoState.DISPONIBLE, turno.getEstado());
+        verify(reservaRepository, never()).save(any(Reserva.class));
+        verify(notificationService, never()).sendNotificationReservationConfirmed(any(), any());
+    }
+
+    /* Metodo saveReservaBySlot() */
+    @Test
+    public void saveReservaBySlot_Success() {
+        TurnoSlotRequestDTO request = new TurnoSlotRequestDTO(1L, LocalDate.now().plusDays(1), LocalTime.of(20, 0));
+
+        Turno turno = new Turno();
+        turno.setId(8L);
+        turno.setEstado(TurnoState.RESERVADO);
+
+        Usuario currentUser = new Usuario();
+        currentUser.setId(2L);
+
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(currentUser);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(horarioRecurrenteService.materializar(request, TurnoState.RESERVADO)).thenReturn(turno);
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservaMapper.toResponseDTO(any(Reserva.class))).thenReturn(new ReservaResponseDTO());
+
+        ReservaResponseDTO result = reservaService.saveReservaBySlot(request);
+
+        assertNotNull(result);
+        verify(reservaRepository).save(argThat(reserva -> reserva.getTurno() == turno
+                && reserva.getUsuario() == currentUser
+                && reserva.getEstado() == ReservaState.CONFIRMADA));
+        verify(notificationService).sendNotificationReservationConfirmed(eq(currentUser), any());
+    }
+
+    @Test
+    public void saveReservaBySlot_TurnoAlreadyReserved() {
+        TurnoSlotRequestDTO request = new TurnoSlotRequestDTO(1L, LocalDate.now().plusDays(1), LocalTime.of(20, 0));
+
+        Usuario currentUser = new Usuario();
+        currentUser.setId(2L);
+
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(currentUser);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(horarioRecurrenteService.materializar(request, TurnoState.RESERVADO))
+                .thenThrow(new TurnoAlreadyReservedException("Turno no disponible."));
+
+        assertThrows(TurnoAlreadyReservedException.class, () -> reservaService.saveReservaBySlot(request));
+
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
+
     /* Metodo cancel() */
     @Test
     void cancel_Success() {
@@ -493,6 +691,9 @@ class ReservaServiceTest {
         assertEquals(ReservaState.CANCELADA, reserva.getEstado());
         assertEquals(TurnoState.DISPONIBLE, turno.getEstado());
         verify(reservaRepository).save(reserva);
+        verify(availabilityIndex).registrar(turno);
+        verify(ocupacionRollupService).registrar(turno);
+        verify(vencimientoTimer).cancelar(reservaId);
     }
 
     @Test
@@ -558,4 +759,21 @@ class ReservaServiceTest {
         verify(reservaRepository, never()).save(any(Reserva.class));
     }
 
-}
\ No newline at end of file
+
+    /* Metodo empezarReserva() */
+    @Test
+    void empezarReserva_SchedulesCompletion() {
+        Reserva reserva = new Reserva();
+        reserva.setId(1L);
+        reserva.setEstado(ReservaState.CONFIRMADA);
+        reserva.setFecha(LocalDate.now());
+
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
+
+        reservaService.empezarReserva(1L);
+
+        assertEquals(ReservaState.EN_PROCESO, reserva.getEstado());
+        verify(reservaRepository).save(reserva);
+        verify(vencimientoTimer).programar(reserva);
+    }
+}
@@ -1,20 +1,34 @@
 package com.project.deporturnos.service.implementation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.availability.CanchaCatalog;
+import com.project.deporturnos.availability.DisponibilidadStream;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
 import com.project.deporturnos.entity.domain.Cancha;
+import com.project.deporturnos.entity.domain.Deporte;
 import com.project.deporturnos.entity.domain.Turno;
 import com.project.deporturnos.entity.domain.TurnoState;
+import com.project.deporturnos.entity.dto.CanchaResponseDTO;
 import com.project.deporturnos.entity.dto.CanchaSimpleDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaResultadoDTO;
+import com.project.deporturnos.entity.dto.CargaMasivaTurnosDTO;
+import com.project.deporturnos.entity.dto.FranjaHorariaDTO;
+import com.project.deporturnos.entity.dto.TurnoDisponibilidadDTO;
 import com.project.deporturnos.entity.dto.TurnoRequestDTO;
 import com.project.deporturnos.entity.dto.TurnoRequestUpdateDTO;
 import com.project.deporturnos.entity.dto.TurnoResponseDTO;
 import com.project.deporturnos.exception.CanchaNotAvailableException;
 import com.project.deporturnos.exception.ResourceNotFoundException;
 import com.project.deporturnos.exception.TurnoStartTimeAlreadyExistException;
+import com.project.deporturnos.mapper.TurnoMapper;
 import com.project.deporturnos.repository.ICanchaRepository;
 import com.project.deporturnos.repository.ITurnoRepository;
+import com.project.deporturnos.repository.TurnoBulkRepository;
+import com.project.deporturnos.service.IHorarioRecurrenteService;
+import com.project.deporturnos.service.IOcupacionRollupService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -24,7 +38,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
 
@@ -46,7 +62,25 @@ class TurnoServiceTest {
     private ICanchaRepository canchaRepository;
 
     @Mock
-    private ObjectMapper mapper;
+    private TurnoMapper turnoMapper;
+
+    @Mock
+    private TurnoAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private TurnoBulkRepository turnoBulkRepository;
+
+    @Mock
+    private IHorarioRecurrenteService horarioRecurrenteService;
+
+    @Mock
+    private IOcupacionRollupService ocupacionRollupService;
+
+    @Mock
+    private DisponibilidadStream disponibilidadStream;
+
+    @Mock
+    private CanchaCatalog canchaCatalog;
 
     /* Metodo save() */
     @Test
@@ -80,8 +114,8 @@ class TurnoServiceTest {
 
         when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha));
         when(turnoRepository.save(any(Turno.class))).thenReturn(turno);
-        when(mapper.convertValue(turnoRequestDTO, Turno.class)).thenReturn(turno);
-        when(mapper.convertValue(any(Turno.class), eq(TurnoResponseDTO.class)))
+        when(turnoMapper.toEntity(turnoRequestDTO)).thenReturn(turno);
+        when(turnoMapper.toResponseDTO(any(Turno.class)))
                 .thenReturn(turnoResponseDTO);
 
         TurnoResponseDTO result = turnoService.save(turnoRequestDTO);
@@ -150,7 +184,7 @@ class TurnoServiceTest {
         turno.setCancha(cancha);
 
         when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha));
-        when(mapper.convertValue(turnoRequestDTO, Turno.class)).thenReturn(turno);
+        when(turnoMapper.toEntity(turnoRequestDTO)).thenReturn(turno);
 
         assertThrows(CanchaNotAvailableException.class, () -> turnoService.save(turnoRequestDTO));
 
@@ -173,7 +207,7 @@ class TurnoServiceTest {
         Page<Turno> turnosPage = new PageImpl<>(turnos, pageable, turnos.size());
 
         when(turnoRepository.findAllByDeletedFalse(pageable)).thenReturn(turnosPage);
-        when(mapper.convertValue(any(Turno.class), eq(TurnoResponseDTO.class))).thenReturn(expectedResponse);
+        when(turnoMapper.toResponseDTO(any(Turno.class))).thenReturn(expectedResponse);
 
         Page<TurnoResponseDTO> actualResponse = turnoService.getPaginatedData(page, size, sortBy);
 
@@ -227,7 +261,7 @@ class TurnoServiceTest {
 
         when(turnoRepository.findById(1L)).thenReturn(Optional.of(turno));
         when(turnoRepository.save(any(Turno.class))).thenReturn(turno);
-        when(mapper.convertValue(turno, TurnoResponseDTO.class)).thenReturn(turnoResponseDTO);
+        when(turnoMapper.toResponseDTO(turno)).thenReturn(turnoResponseDTO);
 
         TurnoResponseDTO result = turnoService.update(1L, turnoRequestUpdateDTO);
 
@@ -347,6 +381,7 @@ class TurnoServiceTest {
 
         assertTrue(turno.isDeleted());
         verify(turnoRepository).save(turno);
+        verify(availabilityIndex).registrar(turno);
     }
 
     @Test
@@ -363,62 +398,309 @@ class TurnoServiceTest {
     void getAllAvailableByCanchaAndDate_Success() {
         LocalDate fecha = LocalDate.now();
 
-        Cancha cancha = new Cancha();
-        cancha.setId(1L);
+        TurnoDisponibilidadDTO turno1 = new TurnoDisponibilidadDTO(1L, fecha, LocalTime.of(10, 0),
+                LocalTime.of(11, 0), TurnoState.DISPONIBLE, 1L, "Cancha 1", "F5", new BigDecimal("15000"));
+        TurnoDisponibilidadDTO turno2 = new TurnoDisponibilidadDTO(2L, fecha, LocalTime.of(11, 0),
+                LocalTime.of(12, 0), TurnoState.DISPONIBLE, 1L, "Cancha 1", "F5", new BigDecimal("15000"));
 
-        Turno turno1 = new Turno();
-        turno1.setId(1L);
-        turno1.setFecha(fecha);
-        turno1.setCancha(cancha);
-        turno1.setEstado(TurnoState.DISPONIBLE);
-        turno1.setDeleted(false);
-
-        Turno turno2 = new Turno();
-        turno2.setId(2L);
-        turno2.setFecha(fecha);
-        turno2.setCancha(cancha);
-        turno2.setEstado(TurnoState.DISPONIBLE);
-        turno2.setDeleted(false);
-
-        List<Turno> turnos = List.of(turno1, turno2);
-
-        TurnoResponseDTO turnoResponseDTO1 = new TurnoResponseDTO();
-        turnoResponseDTO1.setId(1L);
-        turnoResponseDTO1.setFecha(fecha);
-        turnoResponseDTO1.setHoraInicio(turno1.getHoraInicio());
-        turnoResponseDTO1.setHoraFin(turno1.getHoraFin());
-
-        TurnoResponseDTO turnoResponseDTO2 = new TurnoResponseDTO();
-        turnoResponseDTO2.setId(2L);
-        turnoResponseDTO2.setFecha(fecha);
-        turnoResponseDTO2.setHoraInicio(turno2.getHoraInicio());
-        turnoResponseDTO2.setHoraFin(turno2.getHoraFin());
-
-        when(turnoRepository.findAll()).thenReturn(turnos);
-        when(mapper.convertValue(turno1, TurnoResponseDTO.class)).thenReturn(turnoResponseDTO1);
-        when(mapper.convertValue(turno2, TurnoResponseDTO.class)).thenReturn(turnoResponseDTO2);
+        when(availabilityIndex.getDisponibles(1L, fecha)).thenReturn(Optional.empty());
+        when(turnoRepository.findDisponibilidadByCanchaAndFecha(1L, fecha, TurnoState.DISPONIBLE))
+                .thenReturn(List.of(turno1, turno2));
 
         List<TurnoResponseDTO> result = turnoService.getAllAvailableByCanchaAndDate(1L, fecha);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(turnoResponseDTO1, result.get(0));
-        assertEquals(turnoResponseDTO2, result.get(1));
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(LocalTime.of(10, 0), result.get(0).getHoraInicio());
+        assertEquals(2L, result.get(1).getId());
+        assertEquals(1L, result.get(1).getCancha().getId());
+        assertEquals(15000, result.get(1).getCancha().getPrecioHora());
+
+        verify(turnoRepository).findDisponibilidadByCanchaAndFecha(1L, fecha, TurnoState.DISPONIBLE);
+        verify(turnoRepository, never()).findAll();
+        verify(turnoMapper, never()).toResponseDTO(any(Turno.class));
+    }
+
+    @Test
+    void getDisponiblesEtag_DependsOnlyOnContent() {
+        LocalDate fecha = LocalDate.of(2024, 11, 15);
+        CanchaSimpleDTO cancha = new CanchaSimpleDTO(1L, "Cancha 1", "F5", 15000);
+        TurnoResponseDTO primero = new TurnoResponseDTO(1L, fecha, LocalTime.of(10, 0), LocalTime.of(11, 0),
+                TurnoState.DISPONIBLE, cancha);
+        TurnoResponseDTO segundo = new TurnoResponseDTO(2L, fecha, LocalTime.of(11, 0), LocalTime.of(12, 0),
+                TurnoState.DISPONIBLE, cancha);
+        TurnoResponseDTO copiaDelPrimero = new TurnoResponseDTO(1L, fecha, LocalTime.of(10, 0), LocalTime.of(11, 0),
+                TurnoState.DISPONIBLE, new CanchaSimpleDTO(1L, "Cancha 1", "F5", 15000));
+
+        String etag = turnoService.getDisponiblesEtag(List.of(primero, segundo));
+
+        assertEquals(etag, turnoService.getDisponiblesEtag(List.of(copiaDelPrimero, segundo)));
+        assertNotEquals(etag, turnoService.getDisponiblesEtag(List.of(segundo)));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        verifyNoInteractions(turnoRepository, availabilityIndex, horarioRecurrenteService);
+    }
+
+    private void canchasDeFutbol(Long... ids) {
+        List<CanchaResponseDTO> canchas = new ArrayList<>();
+        for (Long id : ids) {
+            CanchaResponseDTO cancha = new CanchaResponseDTO();
+            cancha.setId(id);
+            canchas.add(cancha);
+        }
+        when(canchaCatalog.disponibles("FUTBOL")).thenReturn(new CanchaCatalog.Vista(canchas, new byte[0], "\"x\""));
+    }
+
+    private TurnoResponseDTO libre(Long id, Long canchaId, LocalDate fecha, int hora, int minutos) {
+        LocalTime inicio = LocalTime.of(hora, 0);
+        return new TurnoResponseDTO(id, fecha, inicio, inicio.plusMinutes(minutos), TurnoState.DISPONIBLE,
+                new CanchaSimpleDTO(canchaId, "Cancha " + canchaId, "F5", 15000));
+    }
+
+    @Test
+    void buscarDisponibles_InsideIndexWindow_RankedByStartWithoutDatabase() {
+        LocalDate fecha = LocalDate.now();
+        canchasDeFutbol(1L, 2L);
+        when(availabilityIndex.cubre(any(LocalDate.class))).thenReturn(true);
+        when(availabilityIndex.getDisponibles(1L, fecha)).thenReturn(Optional.of(new ArrayList<>(List.of(
+                libre(10L, 1L, fecha, 17, 60), libre(11L, 1L, fecha, 20, 60)))));
+        when(availabilityIndex.getDisponibles(2L, fecha)).thenReturn(Optional.of(new ArrayList<>(List.of(
+                libre(20L, 2L, fecha, 18, 30), libre(21L, 2L, fecha, 19, 90)))));
+
+        List<TurnoResponseDTO> result = turnoService.buscarDisponibles("FUTBOL", fecha, fecha,
+                LocalTime.of(18, 0), LocalTime.of(22, 0), 60, 10);
+
+        assertEquals(List.of(21L, 11L), result.stream().map(TurnoResponseDTO::getId).toList());
+        verifyNoInteractions(turnoRepository);
+    }
+
+    @Test
+    void buscarDisponibles_OutsideIndexWindow_SingleQuery() {
+        LocalDate desde = LocalDate.now().plusYears(1);
+        LocalDate hasta = desde.plusDays(1);
+        canchasDeFutbol(1L, 2L);
+        when(availabilityIndex.cubre(any(LocalDate.class))).thenReturn(false);
+        when(turnoRepository.findVigentesByCanchaIdInAndFechaBetween(List.of(1L, 2L), desde, hasta)).thenReturn(List.of(
+                new TurnoDisponibilidadDTO(5L, hasta, LocalTime.of(9, 0), LocalTime.of(10, 0), TurnoState.DISPONIBLE,
+                        2L, "Cancha 2", "F5", new BigDecimal("15000")),
+                new TurnoDisponibilidadDTO(6L, desde, LocalTime.of(9, 0), LocalTime.of(10, 0), TurnoState.RESERVADO,
+                        1L, "Cancha 1", "F5", new BigDecimal("15000")),
+                new TurnoDisponibilidadDTO(7L, desde, LocalTime.of(11, 0), LocalTime.of(12, 0), TurnoState.DISPONIBLE,
+                        1L, "Cancha 1", "F5", new BigDecimal("15000"))));
+
+        List<TurnoResponseDTO> result = turnoService.buscarDisponibles("FUTBOL", desde, hasta, null, null, null, 10);
+
+        assertEquals(List.of(7L, 5L), result.stream().map(TurnoResponseDTO::getId).toList());
+        verify(turnoRepository, times(1)).findVigentesByCanchaIdInAndFechaBetween(any(), any(), any());
+        verify(turnoRepository, never()).findDisponibilidadByCanchaAndFecha(any(), any(), any());
+        verify(turnoRepository, never()).findFranjasByCanchaAndFecha(any(), any());
+    }
+
+    @Test
+    void getAlternativas_SameCourtNearestAndOtherCourtsAtSameTime() {
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        CanchaResponseDTO pedida = new CanchaResponseDTO();
+        pedida.setId(1L);
+        pedida.setDeporte(Deporte.FUTBOL);
+        when(canchaCatalog.todas()).thenReturn(new CanchaCatalog.Vista(List.of(pedida), new byte[0], "\"x\""));
+        canchasDeFutbol(1L, 2L);
+        when(availabilityIndex.cubre(fecha)).thenReturn(true);
+        when(availabilityIndex.getDisponibles(1L, fecha)).thenReturn(Optional.of(new ArrayList<>(List.of(
+                libre(10L, 1L, fecha, 8, 60), libre(11L, 1L, fecha, 18, 60), libre(12L, 1L, fecha, 21, 60)))));
+        when(availabilityIndex.getDisponibles(2L, fecha)).thenReturn(Optional.of(new ArrayList<>(List.of(
+                libre(20L, 2L, fecha, 12, 60), libre(21L, 2L, fecha, 19, 60)))));
+
+        List<TurnoResponseDTO> result = turnoService.getAlternativas(13L, 1L, fecha, LocalTime.of(19, 0),
+                LocalTime.of(20, 0), 3);
+
+        // La otra cancha a la misma hora, después la misma cancha por cercanía; la otra cancha a las 12 no se superpone
+        assertEquals(List.of(21L, 11L, 12L), result.stream().map(TurnoResponseDTO::getId).toList());
+        verifyNoInteractions(turnoRepository);
+    }
+
+    @Test
+    void getAlternativas_ExcludesTheLostSlot() {
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        when(canchaCatalog.todas()).thenReturn(new CanchaCatalog.Vista(List.of(), new byte[0], "\"x\""));
+        when(availabilityIndex.cubre(fecha)).thenReturn(true);
+        // El índice todavía muestra libre el turno perdido, y la plantilla genera uno virtual a la misma hora
+        when(availabilityIndex.getDisponibles(1L, fecha)).thenReturn(Optional.of(new ArrayList<>(List.of(
+                libre(13L, 1L, fecha, 19, 60), libre(14L, 1L, fecha, 20, 60)))));
+        when(horarioRecurrenteService.expandir(1L, fecha)).thenReturn(List.of(
+                new TurnoResponseDTO(null, fecha, LocalTime.of(19, 0), LocalTime.of(20, 0), TurnoState.DISPONIBLE,
+                        new CanchaSimpleDTO(1L, "Cancha 1", "F5", 15000))));
+
+        List<TurnoResponseDTO> result = turnoService.getAlternativas(13L, 1L, fecha, LocalTime.of(19, 0),
+                LocalTime.of(20, 0), 5);
+
+        assertEquals(List.of(14L), result.stream().map(TurnoResponseDTO::getId).toList());
+    }
+
+    @Test
+    void getAlternativas_OutsideIndexWindow_Empty() {
+        LocalDate fecha = LocalDate.now().plusYears(1);
+        when(availabilityIndex.cubre(fecha)).thenReturn(false);
+
+        assertTrue(turnoService.getAlternativas(13L, 1L, fecha, LocalTime.of(19, 0), LocalTime.of(20, 0), 5).isEmpty());
+        verifyNoInteractions(turnoRepository, canchaCatalog);
+    }
+
+    @Test
+    void buscarDisponibles_RangeTooLong_Throws() {
+        LocalDate desde = LocalDate.now();
+
+        assertThrows(IllegalArgumentException.class, () -> turnoService.buscarDisponibles("FUTBOL", desde,
+                desde.plusDays(14), null, null, null, 10));
+        verifyNoInteractions(canchaCatalog, turnoRepository);
+    }
+
+    @Test
+    void getAllAvailableByCanchaAndDate_Empty() {
+        LocalDate fecha = LocalDate.now();
+
+        when(availabilityIndex.getDisponibles(1L, fecha)).thenReturn(Optional.empty());
+        when(turnoRepository.findDisponibilidadByCanchaAndFecha(1L, fecha, TurnoState.DISPONIBLE))
+                .thenReturn(Collections.emptyList());
+
+        List<TurnoResponseDTO> result = turnoService.getAllAvailableByCanchaAndDate(1L, fecha);
+
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+        verify(turnoRepository, never()).findAll();
+    }
+
+    @Test
+    void getAllAvailableByCanchaAndDate_FromIndex() {
+        LocalDate fecha = LocalDate.now();
+
+        TurnoResponseDTO turnoResponseDTO = new TurnoResponseDTO(1L, fecha, LocalTime.of(10, 0),
+                LocalTime.of(11, 0), TurnoState.DISPONIBLE, new CanchaSimpleDTO());
+
+        when(availabilityIndex.getDisponibles(1L, fecha)).thenReturn(Optional.of(List.of(turnoResponseDTO)));
 
-        verify(turnoRepository).findAll();
-        verify(mapper).convertValue(turno1, TurnoResponseDTO.class);
-        verify(mapper).convertValue(turno2, TurnoResponseDTO.class);
+        List<TurnoResponseDTO> result = turnoService.getAllAvailableByCanchaAndDate(1L, fecha);
+
+        assertEquals(1, result.size());
+        assertEquals(turnoResponseDTO, result.get(0));
+        verifyNoInteractions(turnoRepository);
     }
 
     @Test
-    void getAllAvailableByCanchaAndDate_NotFound() {
+    void getAllAvailableByCanchaAndDate_MergesVirtualSlots() {
         LocalDate fecha = LocalDate.now();
+        CanchaSimpleDTO cancha = new CanchaSimpleDTO(1L, "Cancha 1", "F5", 15000);
+
+        TurnoResponseDTO guardado = new TurnoResponseDTO(5L, fecha, LocalTime.of(12, 0),
+                LocalTime.of(13, 0), TurnoState.DISPONIBLE, cancha);
+
+        when(availabilityIndex.getDisponibles(1L, fecha)).thenReturn(Optional.of(new ArrayList<>(List.of(guardado))));
+        when(horarioRecurrenteService.expandir(1L, fecha)).thenReturn(List.of(
+                new TurnoResponseDTO(null, fecha, LocalTime.of(10, 0), LocalTime.of(11, 0), TurnoState.DISPONIBLE, cancha),
+                new TurnoResponseDTO(null, fecha, LocalTime.of(11, 0), LocalTime.of(12, 0), TurnoState.DISPONIBLE, cancha),
+                new TurnoResponseDTO(null, fecha, LocalTime.of(12, 0), LocalTime.of(13, 0), TurnoState.DISPONIBLE, cancha)));
+        // 11:00 está reservado y 12:00 ya existe como fila disponible
+        when(availabilityIndex.getFranjas(1L, fecha)).thenReturn(Optional.of(List.of(
+                new FranjaHorariaDTO(LocalTime.of(11, 0), LocalTime.of(12, 0)),
+                new FranjaHorariaDTO(LocalTime.of(12, 0), LocalTime.of(13, 0)))));
+
+        List<TurnoResponseDTO> result = turnoService.getAllAvailableByCanchaAndDate(1L, fecha);
+
+        assertEquals(2, result.size());
+        assertNull(result.get(0).getId());
+        assertEquals(LocalTime.of(10, 0), result.get(0).getHoraInicio());
+        assertEquals(5L, result.get(1).getId());
+        verifyNoInteractions(turnoRepository);
+    }
+
+    /* Metodo cargaMasivaTurnos() */
+    @Test
+    @SuppressWarnings("unchecked")
+    void cargaMasivaTurnos_SkipsExisting() {
+        LocalDate desde = LocalDate.of(2025, 3, 1);
+        CargaMasivaTurnosDTO request = new CargaMasivaTurnosDTO(desde, desde.plusDays(1),
+                LocalTime.of(10, 0), LocalTime.of(13, 0), 60, 1L);
+
+        Cancha cancha = new Cancha();
+        cancha.setId(1L);
+        cancha.setDisponibilidad(true);
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha));
+        when(turnoBulkRepository.findHorariosExistentes(1L, desde, desde.plusDays(1),
+                LocalTime.of(10, 0), LocalTime.of(13, 0)))
+                .thenReturn(Set.of(LocalDateTime.of(desde, LocalTime.of(11, 0))));
+        when(turnoBulkRepository.reservarIds(5)).thenReturn(List.of(10L, 11L, 12L, 13L, 14L));
+
+        CargaMasivaResultadoDTO result = turnoService.cargaMasivaTurnos(request);
+
+        assertEquals(5, result.getTurnosCreados());
+        assertEquals(1, result.getTurnosOmitidos());
+
+        ArgumentCaptor<List<Turno>> captor = ArgumentCaptor.forClass(List.class);
+        verify(turnoBulkRepository).insertar(captor.capture());
+        List<Turno> insertados = captor.getValue();
+        assertEquals(List.of(10L, 11L, 12L, 13L, 14L), insertados.stream().map(Turno::getId).toList());
+        assertEquals(LocalTime.of(12, 0), insertados.get(1).getHoraInicio());
+        assertEquals(LocalTime.of(13, 0), insertados.get(1).getHoraFin());
+        assertTrue(insertados.stream().allMatch(t -> t.getEstado() == TurnoState.DISPONIBLE));
+        verify(availabilityIndex).registrarTodos(insertados);
+        verify(turnoRepository, never()).save(any(Turno.class));
+    }
+
+    @Test
+    void cargaMasivaTurnos_LocksTheRangeBeforeReading() {
+        LocalDate desde = LocalDate.of(2025, 3, 1);
+        CargaMasivaTurnosDTO request = new CargaMasivaTurnosDTO(desde, desde.plusDays(2),
+                LocalTime.of(10, 0), LocalTime.of(11, 0), 60, 1L);
+
+        Cancha cancha = new Cancha();
+        cancha.setId(1L);
+        cancha.setDisponibilidad(true);
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha));
+        when(turnoBulkRepository.findHorariosExistentes(1L, desde, desde.plusDays(2),
+                LocalTime.of(10, 0), LocalTime.of(11, 0))).thenReturn(Set.of());
+        when(turnoBulkRepository.reservarIds(3)).thenReturn(List.of(10L, 11L, 12L));
+
+        turnoService.cargaMasivaTurnos(request);
+
+        InOrder orden = inOrder(turnoRepository, turnoBulkRepository);
+        orden.verify(turnoRepository).bloquearDias(1L, desde, desde.plusDays(2));
+        orden.verify(turnoBulkRepository).findHorariosExistentes(1L, desde, desde.plusDays(2),
+                LocalTime.of(10, 0), LocalTime.of(11, 0));
+    }
+
+    @Test
+    void cargaMasivaTurnos_AllExisting() {
+        LocalDate fecha = LocalDate.of(2025, 3, 1);
+        CargaMasivaTurnosDTO request = new CargaMasivaTurnosDTO(fecha, fecha,
+                LocalTime.of(10, 0), LocalTime.of(11, 0), 60, 1L);
+
+        Cancha cancha = new Cancha();
+        cancha.setId(1L);
+        cancha.setDisponibilidad(true);
+
+        when(canchaRepository.findById(1L)).thenReturn(Optional.of(cancha));
+        when(turnoBulkRepository.findHorariosExistentes(any(), any(), any(), any(), any()))
+                .thenReturn(Set.of(LocalDateTime.of(fecha, LocalTime.of(10, 0))));
+
+        CargaMasivaResultadoDTO result = turnoService.cargaMasivaTurnos(request);
+
+        assertEquals(0, result.getTurnosCreados());
+        assertEquals(1, result.getTurnosOmitidos());
+        verify(turnoBulkRepository, never()).reservarIds(anyInt());
+        verify(turnoBulkRepository, never()).insertar(any());
+    }
+
+    @Test
+    void cargaMasivaTurnos_CanchaNotFound() {
+        LocalDate fecha = LocalDate.of(2025, 3, 1);
+        CargaMasivaTurnosDTO request = new CargaMasivaTurnosDTO(fecha, fecha,
+                LocalTime.of(10, 0), LocalTime.of(11, 0), 60, 1L);
 
-        when(turnoRepository.findAll()).thenReturn(Collections.emptyList());
+        when(canchaRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> turnoService.getAllAvailableByCanchaAndDate(1L, fecha));
+        assertThrows(ResourceNotFoundException.class, () -> turnoService.cargaMasivaTurnos(request));
 
-        verify(turnoRepository).findAll();
-        verify(mapper, never()).convertValue(any(Turno.class), eq(TurnoResponseDTO.class));
+        verifyNoInteractions(turnoBulkRepository);
     }
-}
\ No newline at end of file
+}
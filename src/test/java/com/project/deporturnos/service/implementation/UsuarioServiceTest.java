@@ -1,6 +1,6 @@
 package com.project.deporturnos.service.implementation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.deporturnos.availability.TurnoAvailabilityIndex;
 import com.project.deporturnos.entity.domain.*;
 import com.project.deporturnos.entity.dto.LockUnlockResponseDTO;
 import com.project.deporturnos.entity.dto.UsuarioRequestUpdateDTO;
@@ -10,7 +10,12 @@ import com.project.deporturnos.exception.BusinessRuleException;
 import com.project.deporturnos.exception.InvalidEmailException;
 import com.project.deporturnos.exception.ResourceNotFoundException;
 import com.project.deporturnos.exception.UserAlreadyExistsException;
+import com.project.deporturnos.mapper.ReservaMapper;
+import com.project.deporturnos.mapper.UsuarioMapper;
 import com.project.deporturnos.repository.IUsuarioRepository;
+import com.project.deporturnos.security.PrincipalCache;
+import com.project.deporturnos.security.TokenRevocationService;
+import com.project.deporturnos.service.IOcupacionRollupService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -40,7 +45,22 @@ class UsuarioServiceTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private ObjectMapper mapper;
+    private UsuarioMapper usuarioMapper;
+
+    @Mock
+    private ReservaMapper reservaMapper;
+
+    @Mock
+    private TurnoAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private IOcupacionRollupService ocupacionRollupService;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
 
     @InjectMocks
     private UsuarioService usuarioService;
@@ -69,7 +89,7 @@ class UsuarioServiceTest {
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         when(passwordEncoder.encode("newPassword123")).thenReturn("encodedPassword");
         when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuarioUpdated);
-        when(mapper.convertValue(any(Usuario.class), eq(UsuarioResponseDTO.class)))
+        when(usuarioMapper.toResponseDTO(any(Usuario.class)))
                 .thenReturn(new UsuarioResponseDTO(1L, "Juan Updated", "juanUpdated@email.com", "encodedPassword"));
 
         UsuarioResponseDTO userResponseDTO = usuarioService.update(1L, userRequestUpdateDTO);
@@ -82,6 +102,47 @@ class UsuarioServiceTest {
         verify(usuarioRepository).findById(1L);
         verify(passwordEncoder).encode("newPassword123");
         verify(usuarioRepository).save(any(Usuario.class));
+        verify(tokenRevocationService).revocar(1L);
+    }
+
+    @Test
+    void update_OnlyName_KeepsTokens() {
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setNombre("Juan Test");
+        usuario.setEmail("juantest@gmail.com");
+
+        UsuarioRequestUpdateDTO userRequestUpdateDTO = new UsuarioRequestUpdateDTO();
+        userRequestUpdateDTO.setNombre("Juan Updated");
+
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.save(usuario)).thenReturn(usuario);
+        when(usuarioMapper.toResponseDTO(usuario))
+                .thenReturn(new UsuarioResponseDTO(1L, "Juan Updated", "juantest@gmail.com", null));
+
+        usuarioService.update(1L, userRequestUpdateDTO);
+
+        verify(tokenRevocationService, never()).revocar(any());
+    }
+
+    @Test
+    void update_PasswordOnly_RevokesTokens() {
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("juantest@gmail.com");
+
+        UsuarioRequestUpdateDTO userRequestUpdateDTO = new UsuarioRequestUpdateDTO();
+        userRequestUpdateDTO.setPassword("newPassword123");
+
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(passwordEncoder.encode("newPassword123")).thenReturn("encodedPassword");
+        when(usuarioRepository.save(usuario)).thenReturn(usuario);
+        when(usuarioMapper.toResponseDTO(usuario))
+                .thenReturn(new UsuarioResponseDTO(1L, null, "juantest@gmail.com", "encodedPassword"));
+
+        usuarioService.update(1L, userRequestUpdateDTO);
+
+        verify(tokenRevocationService).revocar(1L);
     }
 
     @Test
@@ -157,8 +218,8 @@ class UsuarioServiceTest {
 
         when(usuarioRepository.findAllByDeletedFalse(pageable)).thenReturn(usuariosPage);
 
-        when(mapper.convertValue(usuario1, UsuarioSimpleDTO.class)).thenReturn(usuarioSimpleDTO1);
-        when(mapper.convertValue(usuario2, UsuarioSimpleDTO.class)).thenReturn(usuarioSimpleDTO2);
+        when(usuarioMapper.toSimpleDTO(usuario1)).thenReturn(usuarioSimpleDTO1);
+        when(usuarioMapper.toSimpleDTO(usuario2)).thenReturn(usuarioSimpleDTO2);
 
         Page<UsuarioSimpleDTO> resultPage = usuarioService.getPaginatedData(pageable, "");
 
@@ -170,8 +231,8 @@ class UsuarioServiceTest {
         assertEquals("Sofia", resultList.get(1).getNombre());
 
         verify(usuarioRepository).findAllByDeletedFalse(pageable);
-        verify(mapper).convertValue(usuario1, UsuarioSimpleDTO.class);
-        verify(mapper).convertValue(usuario2, UsuarioSimpleDTO.class);
+        verify(usuarioMapper).toSimpleDTO(usuario1);
+        verify(usuarioMapper).toSimpleDTO(usuario2);
     }
 
     @Test
@@ -186,7 +247,7 @@ class UsuarioServiceTest {
 
         verify(usuarioRepository).findAllByDeletedFalse(pageable);
 
-        verify(mapper, never()).convertValue(any(Usuario.class), eq(UsuarioSimpleDTO.class));
+        verify(usuarioMapper, never()).toSimpleDTO(any(Usuario.class));
     }
 
     /* Metodo delete() */
@@ -215,6 +276,8 @@ class UsuarioServiceTest {
         assertEquals(TurnoState.DISPONIBLE, turno.getEstado());
         verify(usuarioRepository).findById(2L);
         verify(usuarioRepository).save(usuario);
+        verify(principalCache).invalidar("juantest@email.com");
+        verify(tokenRevocationService).revocar(2L);
     }
 
     @Test
@@ -236,7 +299,7 @@ class UsuarioServiceTest {
 
         when(usuarioRepository.findById(2L)).thenReturn(Optional.of(usuario));
         when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuario);
-        when(mapper.convertValue(usuario, UsuarioResponseDTO.class)).thenReturn(new UsuarioResponseDTO(2L,
+        when(usuarioMapper.toResponseDTO(usuario)).thenReturn(new UsuarioResponseDTO(2L,
                 "Juan Updated", "juanUpdated@email.com", "encodedPassword", null, Rol.ADMIN, true, false));
 
         UsuarioResponseDTO usuarioResponseDTO = usuarioService.changeRole(2L);
@@ -295,7 +358,7 @@ class UsuarioServiceTest {
         when(usuarioRepository.save(usuario)).thenReturn(usuarioSaved);
 
         // Simulamos el mapper
-        when(mapper.convertValue(any(Usuario.class), eq(LockUnlockResponseDTO.class)))
+        when(usuarioMapper.toLockUnlockDTO(any(Usuario.class)))
                 .thenReturn(new LockUnlockResponseDTO(2L, "juanTest@email.com", false));
 
         // Ejecutamos el metodo
@@ -309,7 +372,9 @@ class UsuarioServiceTest {
         // Verificamos interacciones con los mocks
         verify(usuarioRepository).findById(2L);
         verify(usuarioRepository).save(any(Usuario.class));
-        verify(mapper).convertValue(any(Usuario.class), eq(LockUnlockResponseDTO.class));
+        verify(usuarioMapper).toLockUnlockDTO(any(Usuario.class));
+        verify(principalCache).invalidar("juanTest@email.com");
+        verify(tokenRevocationService).revocar(2L);
     }
 
     @Test
@@ -0,0 +1,41 @@
+package com.project.deporturnos.utils;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QRCodeGeneratorTest {
+
+    private String decodificar(byte[] png) throws Exception {
+        BufferedImage imagen = ImageIO.read(new ByteArrayInputStream(png));
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(imagen)));
+        return new MultiFormatReader().decode(bitmap).getText();
+    }
+
+    @Test
+    void generateQRCodePng_RoundTrip() throws Exception {
+        byte[] png = QRCodeGenerator.generateQRCodePng("http://localhost:5173/validate-reserva/42", 200, 200);
+
+        BufferedImage imagen = ImageIO.read(new ByteArrayInputStream(png));
+        assertEquals(200, imagen.getWidth());
+        assertEquals("http://localhost:5173/validate-reserva/42", decodificar(png));
+    }
+
+    @Test
+    void generateQRCodePng_ReusedBufferDoesNotLeakBetweenCodes() throws Exception {
+        byte[] primero = QRCodeGenerator.generateQRCodePng("http://localhost:5173/validate-reserva/1", 200, 200);
+        byte[] segundo = QRCodeGenerator.generateQRCodePng("http://localhost:5173/validate-reserva/2", 200, 200);
+
+        // Cada llamada devuelve su propia copia aunque el buffer del hilo sea el mismo
+        assertEquals("http://localhost:5173/validate-reserva/1", decodificar(primero));
+        assertEquals("http://localhost:5173/validate-reserva/2", decodificar(segundo));
+    }
+}